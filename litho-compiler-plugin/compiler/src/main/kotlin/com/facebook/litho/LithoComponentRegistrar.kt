@@ -16,6 +16,7 @@
 
 package com.facebook.litho
 
+import org.jetbrains.kotlin.backend.common.extensions.IrGenerationExtension
 import org.jetbrains.kotlin.cli.common.CLIConfigurationKeys
 import org.jetbrains.kotlin.cli.common.messages.CompilerMessageSeverity
 import org.jetbrains.kotlin.cli.common.messages.MessageCollector
@@ -35,6 +36,8 @@ class LithoComponentRegistrar : CompilerPluginRegistrar() {
         LithoCodeAnalysisExtension { message, location ->
           messageCollector.report(CompilerMessageSeverity.ERROR, message, location)
         })
+
+    IrGenerationExtension.registerExtension(LithoIrGenerationExtension())
   }
 
   override val supportsK2: Boolean
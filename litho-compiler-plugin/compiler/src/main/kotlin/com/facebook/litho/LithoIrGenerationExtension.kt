@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho
+
+import org.jetbrains.kotlin.backend.common.extensions.IrGenerationExtension
+import org.jetbrains.kotlin.backend.common.extensions.IrPluginContext
+import org.jetbrains.kotlin.backend.common.lower.DeclarationIrBuilder
+import org.jetbrains.kotlin.descriptors.DescriptorVisibilities
+import org.jetbrains.kotlin.descriptors.Modality
+import org.jetbrains.kotlin.ir.IrElement
+import org.jetbrains.kotlin.ir.builders.declarations.addFunction
+import org.jetbrains.kotlin.ir.builders.declarations.addValueParameter
+import org.jetbrains.kotlin.ir.builders.irBlockBody
+import org.jetbrains.kotlin.ir.builders.irCall
+import org.jetbrains.kotlin.ir.builders.irEquals
+import org.jetbrains.kotlin.ir.builders.irFalse
+import org.jetbrains.kotlin.ir.builders.irGet
+import org.jetbrains.kotlin.ir.builders.irGetField
+import org.jetbrains.kotlin.ir.builders.irIfThen
+import org.jetbrains.kotlin.ir.builders.irImplicitCast
+import org.jetbrains.kotlin.ir.builders.irNot
+import org.jetbrains.kotlin.ir.builders.irReturn
+import org.jetbrains.kotlin.ir.builders.irTemporary
+import org.jetbrains.kotlin.ir.builders.irTrue
+import org.jetbrains.kotlin.ir.declarations.IrClass
+import org.jetbrains.kotlin.ir.declarations.IrField
+import org.jetbrains.kotlin.ir.declarations.IrModuleFragment
+import org.jetbrains.kotlin.ir.declarations.IrProperty
+import org.jetbrains.kotlin.ir.declarations.IrSimpleFunction
+import org.jetbrains.kotlin.ir.expressions.IrExpression
+import org.jetbrains.kotlin.ir.symbols.IrSimpleFunctionSymbol
+import org.jetbrains.kotlin.ir.types.IrType
+import org.jetbrains.kotlin.ir.types.classOrNull
+import org.jetbrains.kotlin.ir.types.isBoolean
+import org.jetbrains.kotlin.ir.types.isByte
+import org.jetbrains.kotlin.ir.types.isChar
+import org.jetbrains.kotlin.ir.types.isInt
+import org.jetbrains.kotlin.ir.types.isLong
+import org.jetbrains.kotlin.ir.types.isNullable
+import org.jetbrains.kotlin.ir.types.isShort
+import org.jetbrains.kotlin.ir.util.copyTo
+import org.jetbrains.kotlin.ir.util.defaultType
+import org.jetbrains.kotlin.ir.util.functions
+import org.jetbrains.kotlin.ir.util.isSubclassOf
+import org.jetbrains.kotlin.ir.util.primaryConstructor
+import org.jetbrains.kotlin.ir.visitors.IrElementVisitorVoid
+import org.jetbrains.kotlin.ir.visitors.acceptChildrenVoid
+import org.jetbrains.kotlin.name.CallableId
+import org.jetbrains.kotlin.name.ClassId
+import org.jetbrains.kotlin.name.FqName
+import org.jetbrains.kotlin.name.Name
+
+/**
+ * Generates `hasEquivalentFieldsTo` for the final subclasses of `KComponent` and
+ * `PrimitiveComponent`, so that their props are compared field by field instead of with
+ * reflection.
+ *
+ * The generated method compares the fields declared by the class itself, like the reflection based
+ * `hasEquivalentFields` does: primitives (and value classes wrapping them) are compared directly,
+ * every other field with `areObjectsEquivalent`. Open, inner and local classes are skipped, since
+ * their fields are not all known here (e.g. captured variables only become fields later).
+ */
+class LithoIrGenerationExtension : IrGenerationExtension {
+
+  override fun generate(moduleFragment: IrModuleFragment, pluginContext: IrPluginContext) {
+    val areObjectsEquivalent =
+        pluginContext.referenceFunctions(ARE_OBJECTS_EQUIVALENT).singleOrNull() ?: return
+    val baseClasses =
+        BASE_COMPONENT_CLASSES.mapNotNull { pluginContext.referenceClass(it)?.owner }
+    if (baseClasses.isEmpty()) {
+      return
+    }
+
+    val classes = ArrayList<IrClass>()
+    moduleFragment.acceptChildrenVoid(
+        object : IrElementVisitorVoid {
+          override fun visitElement(element: IrElement) {
+            element.acceptChildrenVoid(this)
+          }
+
+          override fun visitClass(declaration: IrClass) {
+            if (shouldGenerate(declaration, baseClasses)) {
+              classes.add(declaration)
+            }
+            super.visitClass(declaration)
+          }
+        })
+
+    classes.forEach { generateHasEquivalentFieldsTo(pluginContext, it, areObjectsEquivalent) }
+  }
+
+  private fun shouldGenerate(irClass: IrClass, baseClasses: List<IrClass>): Boolean =
+      irClass.modality == Modality.FINAL &&
+          !irClass.isInner &&
+          irClass.visibility != DescriptorVisibilities.LOCAL &&
+          baseClasses.any { irClass.isSubclassOf(it) }
+
+  private fun generateHasEquivalentFieldsTo(
+      pluginContext: IrPluginContext,
+      irClass: IrClass,
+      areObjectsEquivalent: IrSimpleFunctionSymbol
+  ) {
+    // Only replace the method inherited from the base class, never one declared in the source.
+    val fakeOverride =
+        irClass.functions.singleOrNull {
+          it.isFakeOverride &&
+              it.name == HAS_EQUIVALENT_FIELDS_TO &&
+              it.valueParameters.size == 1
+        } ?: return
+    val fields = irClass.declaredInstanceFields()
+
+    irClass.declarations.remove(fakeOverride)
+    val function: IrSimpleFunction =
+        irClass.addFunction {
+          name = HAS_EQUIVALENT_FIELDS_TO
+          returnType = pluginContext.irBuiltIns.booleanType
+          visibility = fakeOverride.visibility
+          modality = Modality.FINAL
+        }
+    function.overriddenSymbols = fakeOverride.overriddenSymbols
+    val dispatchReceiver = checkNotNull(irClass.thisReceiver).copyTo(function)
+    function.dispatchReceiverParameter = dispatchReceiver
+    val otherParameter = function.addValueParameter("other", fakeOverride.valueParameters[0].type)
+
+    function.body =
+        DeclarationIrBuilder(pluginContext, function.symbol).irBlockBody {
+          val other = irTemporary(irImplicitCast(irGet(otherParameter), irClass.defaultType))
+          for (field in fields) {
+            val value = irGetField(irGet(dispatchReceiver), field)
+            val otherValue = irGetField(irGet(other), field)
+            val isEquivalent: IrExpression =
+                if (field.type.isDirectlyComparable()) {
+                  irEquals(value, otherValue)
+                } else {
+                  irCall(areObjectsEquivalent).apply {
+                    putValueArgument(0, value)
+                    putValueArgument(1, otherValue)
+                  }
+                }
+            +irIfThen(condition = irNot(isEquivalent), thenPart = irReturn(irFalse()))
+          }
+          +irReturn(irTrue())
+        }
+  }
+
+  /** The instance fields declared by this class, in declaration order. */
+  private fun IrClass.declaredInstanceFields(): List<IrField> =
+      declarations
+          .mapNotNull {
+            when (it) {
+              is IrField -> it
+              is IrProperty -> it.backingField
+              else -> null
+            }
+          }
+          .filter { !it.isStatic }
+
+  private fun IrType.isDirectlyComparable(): Boolean =
+      isComparablePrimitive() || isValueClassOfComparablePrimitive()
+
+  private fun IrType.isComparablePrimitive(): Boolean =
+      isBoolean() || isChar() || isByte() || isShort() || isInt() || isLong()
+
+  /** Whether this is a non null value class wrapping a [isComparablePrimitive] type, e.g. Dimen. */
+  private fun IrType.isValueClassOfComparablePrimitive(): Boolean {
+    if (isNullable()) {
+      return false
+    }
+    val irClass = classOrNull?.owner ?: return false
+    if (!irClass.isValue) {
+      return false
+    }
+    val underlyingType = irClass.primaryConstructor?.valueParameters?.singleOrNull()?.type
+    return underlyingType != null && underlyingType.isComparablePrimitive()
+  }
+
+  companion object {
+    private val HAS_EQUIVALENT_FIELDS_TO: Name = Name.identifier("hasEquivalentFieldsTo")
+
+    private val BASE_COMPONENT_CLASSES: List<ClassId> =
+        listOf(
+            ClassId(FqName("com.facebook.litho"), Name.identifier("KComponent")),
+            ClassId(FqName("com.facebook.litho"), Name.identifier("PrimitiveComponent")))
+
+    private val ARE_OBJECTS_EQUIVALENT: CallableId =
+        CallableId(FqName("com.facebook.rendercore.utils"), Name.identifier("areObjectsEquivalent"))
+  }
+}
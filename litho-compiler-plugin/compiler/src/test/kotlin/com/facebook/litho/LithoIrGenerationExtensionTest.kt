@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho
+
+import com.tschuchort.compiletesting.CompilationResult
+import com.tschuchort.compiletesting.KotlinCompilation
+import com.tschuchort.compiletesting.SourceFile
+import org.assertj.core.api.Assertions.assertThat
+import org.jetbrains.kotlin.compiler.plugin.ExperimentalCompilerApi
+import org.junit.Test
+
+/** Tests for [LithoIrGenerationExtension] */
+@OptIn(ExperimentalCompilerApi::class)
+class LithoIrGenerationExtensionTest {
+
+  @Test
+  fun `final components - compare their fields without reflection`() {
+    // language = kotlin
+    val file =
+        """
+      class Greeting(
+          private val name: String,
+          private val count: Int,
+          private val ratio: Float
+      ) : com.facebook.litho.KComponent()
+      """
+            .trimIndent()
+
+    val result = compile(SourceFile.kotlin("Greeting.kt", file))
+    assertThat(result.exitCode).isEqualTo(KotlinCompilation.ExitCode.OK)
+
+    val greeting = result.classLoader.loadClass("Greeting")
+    assertThat(greeting.declaredMethods.map { it.name }).contains("hasEquivalentFieldsTo")
+
+    val constructor =
+        greeting.getConstructor(
+            String::class.java, Int::class.javaPrimitiveType, Float::class.javaPrimitiveType)
+    val component = constructor.newInstance("hello", 1, 0.5f)
+    assertThat(isEquivalentPropsTo(result, component, constructor.newInstance("hello", 1, 0.5f)))
+        .isTrue
+    assertThat(isEquivalentPropsTo(result, component, constructor.newInstance("world", 1, 0.5f)))
+        .isFalse
+    assertThat(isEquivalentPropsTo(result, component, constructor.newInstance("hello", 2, 0.5f)))
+        .isFalse
+    assertThat(isEquivalentPropsTo(result, component, constructor.newInstance("hello", 1, 1f)))
+        .isFalse
+  }
+
+  @Test
+  fun `open components - keep the inherited comparison`() {
+    // language = kotlin
+    val file =
+        """
+      open class Greeting(private val name: String) : com.facebook.litho.KComponent()
+      """
+            .trimIndent()
+
+    val result = compile(SourceFile.kotlin("Greeting.kt", file))
+    assertThat(result.exitCode).isEqualTo(KotlinCompilation.ExitCode.OK)
+
+    val greeting = result.classLoader.loadClass("Greeting")
+    assertThat(greeting.declaredMethods.map { it.name }).doesNotContain("hasEquivalentFieldsTo")
+  }
+
+  private fun isEquivalentPropsTo(result: CompilationResult, a: Any, b: Any): Boolean {
+    val kComponent = result.classLoader.loadClass("com.facebook.litho.KComponent")
+    return kComponent.getMethod("isEquivalentPropsTo", kComponent).invoke(a, b) as Boolean
+  }
+
+  private fun compile(code: SourceFile): CompilationResult {
+    // Minimal versions of the runtime classes the plugin generates code against.
+    val kComponent =
+        SourceFile.kotlin(
+            "KComponent.kt",
+            """
+          package com.facebook.litho
+
+          abstract class KComponent {
+            fun isEquivalentPropsTo(other: KComponent): Boolean = hasEquivalentFieldsTo(other)
+
+            protected open fun hasEquivalentFieldsTo(other: KComponent): Boolean =
+                throw UnsupportedOperationException()
+          }
+          """
+                .trimIndent())
+    val equivalenceUtils =
+        SourceFile.kotlin(
+            "EquivalenceUtils.kt",
+            """
+          package com.facebook.rendercore.utils
+
+          fun areObjectsEquivalent(a: Any?, b: Any?): Boolean = a == b
+          """
+                .trimIndent())
+
+    return KotlinCompilation()
+        .apply {
+          sources = listOf(kComponent, equivalenceUtils, code)
+          compilerPluginRegistrars = listOf(LithoComponentRegistrar())
+          messageOutputStream = System.out
+          commandLineProcessors = listOf(LithoCommandLineProcessor())
+          pluginOptions = listOf()
+          languageVersion = "1.9"
+          supportsK2 = false
+        }
+        .compile()
+  }
+}
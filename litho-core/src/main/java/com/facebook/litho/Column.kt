@@ -58,20 +58,16 @@ private constructor(
     justifyContent?.let { node.justifyContent(it) }
     wrap?.let { node.wrap(it) }
     children?.let { children ->
-      for (child in children) {
-        if (resolveContext.isFutureReleased) {
-          return null
-        }
-        if (resolveContext.isLayoutInterrupted) {
-          node.appendUnresolvedComponent(child)
-        } else {
-          node.child(resolveContext, c, child)
-        }
+      if (!ParallelResolver.resolveChildren(resolveContext, c, node, children)) {
+        return null
       }
     }
     return node
   }
 
+  internal val childComponents: List<Component>?
+    get() = children
+
   public override fun resolve(
       resolveContext: ResolveContext,
       scopedComponentInfo: ScopedComponentInfo,
@@ -42,6 +42,7 @@ import android.graphics.Paint;
 import android.graphics.Rect;
 import android.graphics.drawable.Drawable;
 import android.os.Build;
+import android.util.Pair;
 import android.util.SparseArray;
 import android.view.ViewOutlineProvider;
 import android.view.accessibility.AccessibilityManager;
@@ -528,6 +529,8 @@ public abstract class Component implements Cloneable, Equivalence<Component>, At
       try {
         final @Nullable LithoNode node;
         final @Nullable ResolveContext nestedRsc;
+        @Nullable String persistentGlobalKey = null;
+        @Nullable PersistentMeasuredResultCache.Entry persistentEntry = null;
 
         if (lastMeasuredLayout != null && lastMeasuredLayout.getNode() != null) {
           nestedRsc = null;
@@ -545,9 +548,35 @@ public abstract class Component implements Cloneable, Equivalence<Component>, At
                   null,
                   null,
                   null);
+
+          if (shouldCacheResult && ComponentsConfiguration.enablePersistentMeasuredResultCache) {
+            // The key must be generated exactly once, whether or not the cache is hit, so that
+            // the keys of the siblings of this component don't change.
+            persistentGlobalKey =
+                ComponentKeyUtils.generateGlobalKey(c, c.getComponentScope(), this);
+            persistentEntry =
+                treeState
+                    .getMeasuredResultCache()
+                    .get(
+                        persistentGlobalKey,
+                        this,
+                        c.getTreePropContainer(),
+                        c.getAndroidContext(),
+                        widthSpec,
+                        heightSpec);
+          }
+
           c.setRenderStateContext(nestedRsc);
 
-          node = Resolver.resolveTree(nestedRsc, c, this);
+          if (persistentEntry != null) {
+            // Reuse a copy of the tree resolved in a previous layout pass, keeping its state alive.
+            // The cached nodes are still referenced by that layout pass, so they are not mutated.
+            node =
+                Resolver.copyAndCommitToLayoutStateRecursively(
+                    nestedRsc, persistentEntry.getNode());
+          } else {
+            node = Resolver.resolveTree(nestedRsc, c, this, persistentGlobalKey);
+          }
         }
 
         if (mainRsc != null && mainRsc.isLayoutInterrupted() && node != null) {
@@ -556,6 +585,9 @@ public abstract class Component implements Cloneable, Equivalence<Component>, At
           return;
         }
 
+        final LayoutCache nestedLayoutCache =
+            new LayoutCache(
+                persistentEntry != null ? persistentEntry.getLayoutCacheData() : null);
         final LithoLayoutContext nestedLsc =
             new LithoLayoutContext(
                 calculationContext.getTreeId(),
@@ -565,7 +597,7 @@ public abstract class Component implements Cloneable, Equivalence<Component>, At
                 layoutVersion,
                 rootComponentId,
                 calculationContext.isAccessibilityEnabled(),
-                new LayoutCache(),
+                nestedLayoutCache,
                 null,
                 null);
 
@@ -578,9 +610,33 @@ public abstract class Component implements Cloneable, Equivalence<Component>, At
           return;
         }
 
+        final List<Pair<String, EventHandler<?>>> resolvedEventHandlers =
+            persistentEntry != null
+                ? persistentEntry.getEventHandlers()
+                : nestedRsc != null ? nestedRsc.getEventHandlers() : null;
+        if (persistentEntry != null && resolvedEventHandlers != null && prevContext != null) {
+          for (Pair<String, EventHandler<?>> handler : resolvedEventHandlers) {
+            prevContext.recordEventHandler(handler.first, handler.second);
+          }
+        }
         CalculationContext.recordEventHandlers(nestedRsc, prevContext);
         CalculationContext.recordEventHandlers(nestedLsc, prevContext);
 
+        if (persistentGlobalKey != null && node != null) {
+          treeState
+              .getMeasuredResultCache()
+              .put(
+                  persistentGlobalKey,
+                  this,
+                  c.getTreePropContainer(),
+                  c.getAndroidContext(),
+                  widthSpec,
+                  heightSpec,
+                  node,
+                  nestedLayoutCache.getWriteCacheData(),
+                  resolvedEventHandlers);
+        }
+
       } finally {
         c.setCalculationStateContext(prevContext);
       }
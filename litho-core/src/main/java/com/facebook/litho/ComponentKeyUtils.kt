@@ -16,6 +16,8 @@
 
 package com.facebook.litho
 
+import com.facebook.litho.config.ComponentsConfiguration
+
 object ComponentKeyUtils {
 
   private const val DUPLICATE_MANUAL_KEY = "ComponentKeyUtils:DuplicateManualKey"
@@ -76,7 +78,6 @@ object ComponentKeyUtils {
         logParentHasNullGlobalKey(parentComponent, childComponent)
         globalKey = "null$key"
       } else {
-        val childKey = getKeyWithSeparator(parentGlobalKey, key)
         val index: Int
         if (hasManualKey) {
           index = parentContext.scopedComponentInfo.getManualKeyUsagesCountAndIncrement(key)
@@ -86,12 +87,35 @@ object ComponentKeyUtils {
         } else {
           index = parentContext.scopedComponentInfo.getChildCountAndIncrement(childComponent)
         }
-        globalKey = getKeyForChildPosition(childKey, index)
+        globalKey =
+            if (ComponentsConfiguration.useGlobalKeyCache) {
+              parentContext.calculationStateContext
+                  ?.treeState
+                  ?.globalKeyCache
+                  ?.getOrCreate(parentGlobalKey, key, index)
+                  ?: buildChildGlobalKey(parentGlobalKey, key, index)
+            } else {
+              buildChildGlobalKey(parentGlobalKey, key, index)
+            }
       }
     }
     return globalKey
   }
 
+  /**
+   * Builds the same key as `getKeyForChildPosition(getKeyWithSeparator(parentGlobalKey, key),
+   * index)`, without creating the intermediate String.
+   */
+  @JvmStatic
+  fun buildChildGlobalKey(parentGlobalKey: String, key: String, index: Int): String {
+    val builder = StringBuilder(parentGlobalKey.length + key.length + 12)
+    builder.append(parentGlobalKey).append(SEPARATOR).append(key)
+    if (index != 0) {
+      builder.append('!').append(index)
+    }
+    return builder.toString()
+  }
+
   private fun logParentHasNullGlobalKey(parentComponent: Component, childComponent: Component) {
     ComponentsReporter.emitMessage(
         ComponentsReporter.LogLevel.ERROR,
@@ -515,7 +515,10 @@ public class ComponentTree
   private static RunnableHandler ensureAndInstrumentLayoutThreadHandler(
       @Nullable RunnableHandler handler) {
     if (handler == null) {
-      handler = new DefaultHandler(getDefaultLayoutThreadLooper());
+      handler =
+          ComponentsConfiguration.useLayoutThreadPool
+              ? new LayoutThreadPoolHandler()
+              : new DefaultHandler(getDefaultLayoutThreadLooper());
     } else if (sDefaultLayoutThreadLooper != null
         && sBoostPerfLayoutStateFuture == false
         && ComponentsConfiguration.boostPerfLayoutStateFuture == true
@@ -792,6 +795,14 @@ public class ComponentTree
         || isCompatibleSpec(mCommittedLayoutState, widthSpec, heightSpec);
   }
 
+  /**
+   * @return the number of mountable outputs of the committed layout, or 0 if there is none. This
+   *     is a rough proxy for the memory retained by the layout of this ComponentTree.
+   */
+  public synchronized int getCommittedMountableOutputCount() {
+    return mCommittedLayoutState != null ? mCommittedLayoutState.getMountableOutputCount() : 0;
+  }
+
   void detach() {
     assertMainThread();
 
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho
+
+/**
+ * Interns the global keys generated for the components of a tree, so that resolving the tree again
+ * reuses the key Strings of the previous resolves instead of concatenating the parent's global key
+ * again for every component, which allocates a number of characters quadratic in the depth of the
+ * tree.
+ *
+ * A key is looked up by the global key of its parent, its local key and its index among the
+ * siblings with the same local key. Strings cache their hash code and the parent keys are interned
+ * as well, so a hit neither allocates nor walks the parent key; the interned keys also keep their
+ * cached hash code for the maps of the [TreeState].
+ *
+ * Once it holds [maxEntries] keys, the least recently used half of them is dropped, so that the
+ * keys of the components still in the tree survive while the keys of removed components go away.
+ *
+ * This class is thread safe.
+ */
+class GlobalKeyCache(private val maxEntries: Int = DEFAULT_MAX_ENTRIES) {
+
+  private var parentKeys: Array<String?> = arrayOfNulls(INITIAL_CAPACITY)
+  private var localKeys: Array<String?> = arrayOfNulls(INITIAL_CAPACITY)
+  private var indexes: IntArray = IntArray(INITIAL_CAPACITY)
+  private var hashes: IntArray = IntArray(INITIAL_CAPACITY)
+  private var globalKeys: Array<String?> = arrayOfNulls(INITIAL_CAPACITY)
+  // The value of the access clock when each key was last looked up.
+  private var lastAccesses: LongArray = LongArray(INITIAL_CAPACITY)
+  private var accessClock: Long = 0
+
+  @get:Synchronized
+  var size: Int = 0
+    private set
+
+  /**
+   * @return the global key of the child with the given local [key] at [index] among its siblings
+   *   with the same key, i.e. the same String as [ComponentKeyUtils.buildChildGlobalKey].
+   */
+  @Synchronized
+  fun getOrCreate(parentGlobalKey: String, key: String, index: Int): String {
+    val hash = hash(parentGlobalKey, key, index)
+    val mask = globalKeys.size - 1
+    var slot = hash and mask
+    while (true) {
+      val globalKey = globalKeys[slot] ?: break
+      if (hashes[slot] == hash &&
+          indexes[slot] == index &&
+          localKeys[slot] == key &&
+          parentKeys[slot] == parentGlobalKey) {
+        lastAccesses[slot] = ++accessClock
+        return globalKey
+      }
+      slot = (slot + 1) and mask
+    }
+
+    val globalKey = ComponentKeyUtils.buildChildGlobalKey(parentGlobalKey, key, index)
+    if (size >= maxEntries) {
+      evictLeastRecentlyUsedKeys()
+      insert(parentGlobalKey, key, index, hash, globalKey, ++accessClock)
+    } else if ((size + 1) * 2 > globalKeys.size) {
+      rehash(globalKeys.size * 2) { true }
+      insert(parentGlobalKey, key, index, hash, globalKey, ++accessClock)
+    } else {
+      store(slot, parentGlobalKey, key, index, hash, globalKey, ++accessClock)
+    }
+    return globalKey
+  }
+
+  @Synchronized
+  fun clear() {
+    parentKeys.fill(null)
+    localKeys.fill(null)
+    globalKeys.fill(null)
+    size = 0
+  }
+
+  private fun insert(
+      parentGlobalKey: String,
+      key: String,
+      index: Int,
+      hash: Int,
+      globalKey: String,
+      lastAccess: Long
+  ) {
+    val mask = globalKeys.size - 1
+    var slot = hash and mask
+    while (globalKeys[slot] != null) {
+      slot = (slot + 1) and mask
+    }
+    store(slot, parentGlobalKey, key, index, hash, globalKey, lastAccess)
+  }
+
+  private fun store(
+      slot: Int,
+      parentGlobalKey: String,
+      key: String,
+      index: Int,
+      hash: Int,
+      globalKey: String,
+      lastAccess: Long
+  ) {
+    parentKeys[slot] = parentGlobalKey
+    localKeys[slot] = key
+    indexes[slot] = index
+    hashes[slot] = hash
+    globalKeys[slot] = globalKey
+    lastAccesses[slot] = lastAccess
+    size++
+  }
+
+  private fun evictLeastRecentlyUsedKeys() {
+    // Every access ticks the clock, so at most maxEntries / 2 keys were used during the last
+    // maxEntries / 2 ticks, and these are the most recently used ones.
+    val oldestKeptAccess = accessClock - maxEntries / 2
+    rehash(globalKeys.size) { it > oldestKeptAccess }
+  }
+
+  /**
+   * Moves the keys to new arrays with the given [capacity], keeping only the ones whose last access
+   * matches [keep].
+   */
+  private inline fun rehash(capacity: Int, keep: (lastAccess: Long) -> Boolean) {
+    val oldParentKeys = parentKeys
+    val oldLocalKeys = localKeys
+    val oldIndexes = indexes
+    val oldHashes = hashes
+    val oldGlobalKeys = globalKeys
+    val oldLastAccesses = lastAccesses
+    parentKeys = arrayOfNulls(capacity)
+    localKeys = arrayOfNulls(capacity)
+    indexes = IntArray(capacity)
+    hashes = IntArray(capacity)
+    globalKeys = arrayOfNulls(capacity)
+    lastAccesses = LongArray(capacity)
+    size = 0
+    for (i in oldGlobalKeys.indices) {
+      val globalKey = oldGlobalKeys[i] ?: continue
+      if (!keep(oldLastAccesses[i])) {
+        continue
+      }
+      insert(
+          checkNotNull(oldParentKeys[i]),
+          checkNotNull(oldLocalKeys[i]),
+          oldIndexes[i],
+          oldHashes[i],
+          globalKey,
+          oldLastAccesses[i])
+    }
+  }
+
+  companion object {
+    const val DEFAULT_MAX_ENTRIES: Int = 4096
+
+    private const val INITIAL_CAPACITY: Int = 64
+
+    private fun hash(parentGlobalKey: String, key: String, index: Int): Int {
+      var hash = parentGlobalKey.hashCode()
+      hash = 31 * hash + key.hashCode()
+      hash = 31 * hash + index
+      return hash xor (hash ushr 16)
+    }
+  }
+}
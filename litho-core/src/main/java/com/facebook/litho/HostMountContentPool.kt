@@ -52,4 +52,8 @@ class HostMountContentPool(maxSize: Int, isEnabled: Boolean) : ItemPool {
 
   override fun maybePreallocateContent(c: Context, contentAllocator: ContentAllocator<*>): Boolean =
       pool?.maybePreallocateContent(c, contentAllocator) ?: false
+
+  override fun onTrimMemory(level: Int) {
+    pool?.onTrimMemory(level)
+  }
 }
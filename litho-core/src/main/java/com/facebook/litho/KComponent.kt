@@ -122,13 +122,21 @@ abstract class KComponent : Component() {
     if (id == other.id) {
       return true
     }
-    if (!hasEquivalentFields(this, other)) {
+    if (!hasEquivalentFieldsTo(other as KComponent)) {
       return false
     }
 
     return true
   }
 
+  /**
+   * Compares the fields declared by the class of this component to the ones of [other], which has
+   * the same class. The Litho compiler plugin overrides it with a field by field comparison in the
+   * final subclasses it compiles; otherwise the fields are compared with reflection.
+   */
+  protected open fun hasEquivalentFieldsTo(other: KComponent): Boolean =
+      hasEquivalentFields(this, other)
+
   // All other Component lifecycle methods are made final and no-op here as they shouldn't be
   // overriden.
 
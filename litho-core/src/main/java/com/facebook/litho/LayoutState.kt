@@ -37,6 +37,8 @@ import com.facebook.rendercore.Systracer
 import com.facebook.rendercore.incrementalmount.IncrementalMountExtensionInput
 import com.facebook.rendercore.incrementalmount.IncrementalMountOutput
 import com.facebook.rendercore.transitions.TransitionsExtensionInput
+import com.facebook.rendercore.utils.LongHashSet
+import com.facebook.rendercore.utils.LongIntHashMap
 import com.facebook.rendercore.visibility.VisibilityBoundsTransformer
 import com.facebook.rendercore.visibility.VisibilityExtensionInput
 import com.facebook.rendercore.visibility.VisibilityOutput
@@ -74,7 +76,7 @@ internal constructor(
     DynamicPropsExtensionInput {
 
   private val animatableItems: LongSparseArray<AnimatableItem> = reductionState.animatableItems
-  private val outputsIdToPositionMap: LongSparseArray<Int> = reductionState.outputsIdToPositionMap
+  private val outputsIdToPositionMap: LongIntHashMap = reductionState.outputsIdToPositionMap
   private val incrementalMountOutputs: Map<Long, IncrementalMountOutput> =
       reductionState.incrementalMountOutputs
   private val mountableOutputTops: ArrayList<IncrementalMountOutput> =
@@ -91,6 +93,11 @@ internal constructor(
   val diffTree: DiffNode? = reductionState.diffTreeRoot
   val mountableOutputs: List<RenderTreeNode> = reductionState.mountableOutputs
 
+  /** The subtrees whose outputs can be spliced into the next [LayoutState] of this tree. */
+  internal val reducedSubtrees: List<ReducedSubtree> = reductionState.reducedSubtrees
+  internal val reducedSubtreesByNode: Map<LithoNode, ReducedSubtree> =
+      reductionState.reducedSubtreesByNode
+
   val componentKeyToBounds: Map<String, Rect> = reductionState.componentKeyToBounds
   val componentHandleToBounds: Map<Handle, Rect> = reductionState.componentHandleToBounds
 
@@ -116,7 +123,7 @@ internal constructor(
   override val transitionIdMapping: Map<TransitionId, OutputUnitsAffinityGroup<AnimatableItem>> =
       reductionState.transitionIdMapping
   override val visibilityOutputs: List<VisibilityOutput> = reductionState.visibilityOutputs
-  override val renderUnitIdsWhichHostRenderTrees: Set<Long> =
+  override val renderUnitIdsWhichHostRenderTrees: LongHashSet =
       reductionState.renderUnitIdsWhichHostRenderTrees
   val rootComponent: Component
     get() = resolveResult.component
@@ -176,6 +183,11 @@ internal constructor(
     get() = shouldProcessVisibilityOutputs
 
   private var cachedRenderTree: RenderTree? = null // memoized RenderTree
+
+  /** The [RenderTree] of this LayoutState, if it was already created by [toRenderTree]. */
+  internal val createdRenderTree: RenderTree?
+    get() = cachedRenderTree
+
   // TODO(t66287929): Remove isCommitted from LayoutState by matching RenderState logic around
   //  Futures.
   private var isCommitted = false
@@ -288,7 +300,7 @@ internal constructor(
    * @return the position of the [LithoRenderUnit] with id layoutOutputId in the [LayoutState] list
    *   of outputs or -1 if no [LithoRenderUnit] with that id exists in the [LayoutState]
    */
-  override fun getPositionForId(id: Long): Int = checkNotNull(outputsIdToPositionMap.get(id, -1))
+  override fun getPositionForId(id: Long): Int = outputsIdToPositionMap.get(id, -1)
 
   override fun renderUnitWithIdHostsRenderTrees(id: Long): Boolean =
       renderUnitIdsWhichHostRenderTrees.contains(id)
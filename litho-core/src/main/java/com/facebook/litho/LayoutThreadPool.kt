@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho
+
+import android.os.Process
+import androidx.annotation.IntDef
+import com.facebook.litho.config.ComponentsConfiguration
+import java.util.concurrent.ConcurrentLinkedDeque
+import java.util.concurrent.Semaphore
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.math.max
+import kotlin.math.min
+
+/**
+ * A bounded pool of layout threads shared by many [LayoutThreadPoolHandler]s.
+ *
+ * Every worker owns a deque of tasks and idle workers steal from the deques of the other workers,
+ * so that independent trees (e.g. the items of a RecyclerBinder) are laid out in parallel instead
+ * of serially on the single default layout thread.
+ *
+ * Every task has a priority, from [PRIORITY_IMMEDIATE] to [PRIORITY_FAR]: workers always pick the
+ * most urgent task queued in any of the deques, so that the layouts needed for the next frame don't
+ * wait behind the layouts of content far away from the viewport.
+ *
+ * The pool doesn't guarantee any ordering between tasks: use a [LayoutThreadPoolHandler] per tree
+ * to keep the ordering guarantees of a [android.os.Handler].
+ *
+ * A task which throws crashes its thread, as it would crash a [android.os.HandlerThread]: the
+ * exception reaches the uncaught exception handler, and a new thread replaces the crashed one.
+ */
+class LayoutThreadPool
+@JvmOverloads
+constructor(
+    val threadCount: Int = defaultThreadCount(),
+    private val threadPriority: Int = ComponentsConfiguration.DEFAULT_BACKGROUND_THREAD_PRIORITY,
+    threadName: String = DEFAULT_THREAD_NAME,
+) {
+
+  private val deques: Array<Array<ConcurrentLinkedDeque<Runnable>>> =
+      Array(PRIORITY_COUNT) { Array(threadCount) { ConcurrentLinkedDeque<Runnable>() } }
+  private val pendingTasks: Semaphore = Semaphore(0)
+  private val nextDeque: AtomicInteger = AtomicInteger()
+  @Volatile private var isShutdown: Boolean = false
+
+  init {
+    require(threadCount > 0) { "A LayoutThreadPool needs at least one thread" }
+    for (i in 0 until threadCount) {
+      Worker(i, "$threadName-$i").start()
+    }
+  }
+
+  /**
+   * Runs the [task] on one of the threads of the pool, after all the queued tasks with a more
+   * urgent [priority]. Tasks posted from a thread of the pool are queued on that thread first,
+   * otherwise they are distributed among the threads in round robin.
+   */
+  @JvmOverloads
+  fun execute(task: Runnable, @Priority priority: Int = PRIORITY_DEFAULT) {
+    require(priority in PRIORITY_IMMEDIATE..PRIORITY_FAR) { "Unknown priority: $priority" }
+    check(!isShutdown) { "The LayoutThreadPool was shut down" }
+    val currentThread = Thread.currentThread()
+    val index =
+        if (currentThread is Worker && currentThread.pool === this) {
+          currentThread.index
+        } else {
+          (nextDeque.getAndIncrement() and Int.MAX_VALUE) % threadCount
+        }
+    deques[priority][index].offerLast(task)
+    pendingTasks.release()
+  }
+
+  /**
+   * Stops the threads of the pool once they finish their current tasks; the queued tasks are
+   * dropped. The pool can't be used anymore afterwards.
+   */
+  fun shutdown() {
+    isShutdown = true
+    pendingTasks.release(threadCount)
+  }
+
+  /** @return the next task to run, or null if the pool was shut down. */
+  private fun takeTask(index: Int): Runnable? {
+    pendingTasks.acquireUninterruptibly()
+    if (isShutdown) {
+      return null
+    }
+    // A permit guarantees that a task is queued, but it might be in any of the deques.
+    while (true) {
+      for (priority in 0 until PRIORITY_COUNT) {
+        for (i in 0 until threadCount) {
+          val task = deques[priority][(index + i) % threadCount].pollFirst()
+          if (task != null) {
+            return task
+          }
+        }
+      }
+    }
+  }
+
+  private inner class Worker(val index: Int, name: String) : Thread(name) {
+
+    val pool: LayoutThreadPool
+      get() = this@LayoutThreadPool
+
+    init {
+      isDaemon = true
+    }
+
+    override fun run() {
+      Process.setThreadPriority(threadPriority)
+      var hasCrashed = true
+      try {
+        while (true) {
+          val task = takeTask(index) ?: break
+          task.run()
+        }
+        hasCrashed = false
+      } finally {
+        // The exception is left to the uncaught exception handler, but the pool keeps its threads.
+        if (hasCrashed && !isShutdown) {
+          Worker(index, name).start()
+        }
+      }
+    }
+  }
+
+  @Retention(AnnotationRetention.SOURCE)
+  @IntDef(PRIORITY_IMMEDIATE, PRIORITY_VISIBLE, PRIORITY_DEFAULT, PRIORITY_FAR)
+  annotation class Priority
+
+  companion object {
+    /** For work which the UI thread is about to wait for. */
+    const val PRIORITY_IMMEDIATE: Int = 0
+
+    /** For the layouts of content in the viewport. */
+    const val PRIORITY_VISIBLE: Int = 1
+
+    /** For the layouts of content close to the viewport, or of unknown distance to it. */
+    const val PRIORITY_DEFAULT: Int = 2
+
+    /** For the layouts of content at least one viewport away from the viewport. */
+    const val PRIORITY_FAR: Int = 3
+
+    private const val PRIORITY_COUNT = 4
+    private const val DEFAULT_THREAD_NAME = "ComponentLayoutThreadPool"
+    private const val MAX_DEFAULT_THREAD_COUNT = 4
+
+    /** The pool used by the [LayoutThreadPoolHandler]s which are not given a pool explicitly. */
+    @JvmStatic val default: LayoutThreadPool by lazy { LayoutThreadPool() }
+
+    /**
+     * One thread per core, keeping one core for the main thread, and bounded to avoid contending
+     * with the rest of the app on devices with many cores.
+     */
+    @JvmStatic
+    fun defaultThreadCount(): Int =
+        max(1, min(Runtime.getRuntime().availableProcessors() - 1, MAX_DEFAULT_THREAD_COUNT))
+
+    /**
+     * @return the priority of the layout of an item which is [distance] items away from the
+     *   viewport, in a list which shows [viewportSize] items at a time.
+     */
+    @JvmStatic
+    @Priority
+    fun priorityForViewportDistance(distance: Int, viewportSize: Int): Int =
+        when {
+          distance <= 0 -> PRIORITY_VISIBLE
+          distance < max(viewportSize, 1) -> PRIORITY_DEFAULT
+          else -> PRIORITY_FAR
+        }
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho
+
+import com.facebook.rendercore.RunnableHandler
+import java.util.ArrayDeque
+import javax.annotation.concurrent.GuardedBy
+
+/**
+ * A [RunnableHandler] which runs its tasks on a shared [LayoutThreadPool].
+ *
+ * Like a [RunnableHandler.DefaultHandler], the tasks of a handler run one at a time and in the
+ * order they were posted (with the tasks posted with [postAtFront] first), but the tasks of
+ * different handlers run in parallel on the threads of the pool. Use one handler per tree, e.g.
+ * through [ComponentTree.Builder.layoutThreadHandler].
+ *
+ * Only one task of a handler is queued in the pool at a time, and it posts the next one once it is
+ * done, so that handlers with many pending tasks don't starve the others. Tasks are queued in the
+ * pool with the handler's [priority], or with [LayoutThreadPool.PRIORITY_IMMEDIATE] when the next
+ * task was posted with [postAtFront].
+ */
+class LayoutThreadPoolHandler
+@JvmOverloads
+constructor(private val pool: LayoutThreadPool = LayoutThreadPool.default) : RunnableHandler {
+
+  @GuardedBy("this") private val tasks: ArrayDeque<Runnable> = ArrayDeque()
+  @GuardedBy("this") private var isScheduled: Boolean = false
+  @GuardedBy("this") private var isNextTaskUrgent: Boolean = false
+
+  /**
+   * The priority of the work of this handler relative to the other handlers using the same pool,
+   * e.g. based on how far the tree is from the viewport. It applies to the tasks queued after it
+   * changes.
+   */
+  @Volatile @LayoutThreadPool.Priority var priority: Int = LayoutThreadPool.PRIORITY_DEFAULT
+
+  private val runNextTask: Runnable = Runnable { runNextTask() }
+
+  override fun isTracing(): Boolean = false
+
+  override fun post(runnable: Runnable, tag: String) {
+    enqueue(runnable, atFront = false)
+  }
+
+  override fun postAtFront(runnable: Runnable, tag: String) {
+    enqueue(runnable, atFront = true)
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * This implementation removes all instances of the provided `Runnable` which have not started
+   * yet.
+   */
+  override fun remove(runnable: Runnable) {
+    synchronized(this) {
+      tasks.removeAll { it === runnable }
+      if (tasks.isEmpty()) {
+        isNextTaskUrgent = false
+      }
+    }
+  }
+
+  private fun enqueue(runnable: Runnable, atFront: Boolean) {
+    val shouldSchedule: Boolean
+    synchronized(this) {
+      if (atFront) {
+        tasks.addFirst(runnable)
+        isNextTaskUrgent = true
+      } else {
+        tasks.addLast(runnable)
+      }
+      shouldSchedule = !isScheduled
+      isScheduled = true
+    }
+    if (shouldSchedule) {
+      pool.execute(runNextTask, currentPriority(atFront))
+    }
+  }
+
+  private fun currentPriority(isUrgent: Boolean): Int =
+      if (isUrgent) LayoutThreadPool.PRIORITY_IMMEDIATE else priority
+
+  private fun runNextTask() {
+    val task: Runnable?
+    synchronized(this) {
+      task = tasks.pollFirst()
+      isScheduled = task != null
+      isNextTaskUrgent = false
+    }
+    if (task == null) {
+      return
+    }
+    try {
+      task.run()
+    } finally {
+      val shouldSchedule: Boolean
+      val isUrgent: Boolean
+      synchronized(this) {
+        shouldSchedule = tasks.isNotEmpty()
+        isScheduled = shouldSchedule
+        isUrgent = isNextTaskUrgent
+      }
+      if (shouldSchedule) {
+        pool.execute(runNextTask, currentPriority(isUrgent))
+      }
+    }
+  }
+}
@@ -17,17 +17,18 @@
 package com.facebook.litho
 
 import android.graphics.Rect
-import androidx.collection.LongSparseArray
 import androidx.core.view.ViewCompat
 import com.facebook.litho.config.ComponentsConfiguration
 import com.facebook.litho.config.LithoDebugConfigurations
 import com.facebook.rendercore.LayoutCache
 import com.facebook.rendercore.LayoutResult
 import com.facebook.rendercore.MountState
+import com.facebook.rendercore.RenderCoreConfig
 import com.facebook.rendercore.RenderTreeNode
 import com.facebook.rendercore.incrementalmount.ExcludeFromIncrementalMountBinder
 import com.facebook.rendercore.incrementalmount.IncrementalMountOutput
 import com.facebook.rendercore.incrementalmount.IncrementalMountRenderCoreExtension
+import com.facebook.rendercore.utils.LongIntHashMap
 import com.facebook.rendercore.visibility.VisibilityOutput
 import kotlin.math.max
 import kotlin.math.min
@@ -52,14 +53,23 @@ internal object LithoReducer {
       addRootHostRenderTreeNode(reductionState)
     }
 
-    return LayoutState(
-        resolveResult,
-        reductionState.sizeConstraints,
-        treeId,
-        lsc.isAccessibilityEnabled,
-        layoutCache.writeCacheData,
-        mergeLists(resolveResult.eventHandlers, lsc.eventHandlers)?.toMutableList(),
-        reductionState)
+    val layoutState =
+        LayoutState(
+            resolveResult,
+            reductionState.sizeConstraints,
+            treeId,
+            lsc.isAccessibilityEnabled,
+            layoutCache.writeCacheData,
+            mergeLists(resolveResult.eventHandlers, lsc.eventHandlers)?.toMutableList(),
+            reductionState)
+
+    if (RenderCoreConfig.prepareMountPlanInBackground) {
+      reductionState.currentLayoutState?.createdRenderTree?.let { previousRenderTree ->
+        layoutState.toRenderTree().prepareMountPlan(previousRenderTree)
+      }
+    }
+
+    return layoutState
   }
 
   private fun setSizeAfterMeasureAndCollectResults(
@@ -449,6 +459,24 @@ internal object LithoReducer {
       return
     }
 
+    val isSubtreeSpliceable: Boolean = isSpliceable(node, parent, parentDiffNode)
+    if (isSubtreeSpliceable &&
+        result.isCachedLayout &&
+        spliceReducedSubtree(
+            result = result,
+            reductionState = reductionState,
+            x = x,
+            y = y,
+            parent = checkNotNull(parent),
+            parentDiffNode = checkNotNull(parentDiffNode))) {
+      return
+    }
+    val outputsStart: Int = reductionState.mountableOutputs.size
+    val visibilityOutputsStart: Int = reductionState.visibilityOutputs.size
+    val testOutputsStart: Int = reductionState.testOutputs?.size ?: -1
+    val nestedSubtreesStart: Int = reductionState.reducedSubtrees.size
+    val nodesWithTransitionIdCount: Int = reductionState.nodesWithTransitionIdCount
+
     val tail: ScopedComponentInfo = node.tailScopedComponentInfo
     val context: ComponentContext = tail.context
     val diffNode = createDiffNode(tail, parentDiffNode)
@@ -469,6 +497,9 @@ internal object LithoReducer {
         reductionState.currentLayoutOutputAffinityGroup
 
     reductionState.currentTransitionId = node.transitionId
+    if (node.transitionId != null) {
+      reductionState.nodesWithTransitionIdCount++
+    }
 
     reductionState.currentLayoutOutputAffinityGroup =
         if (reductionState.currentTransitionId != null) OutputUnitsAffinityGroup() else null
@@ -675,11 +706,328 @@ internal object LithoReducer {
       }
     }
 
+    // 9. Record the outputs of the subtree, so that they can be spliced into the next LayoutState
+    // if the subtree is laid out from the cache again. Transitions aren't spliced.
+    if (isSubtreeSpliceable &&
+        reductionState.nodesWithTransitionIdCount == nodesWithTransitionIdCount) {
+      addReducedSubtree(
+          reductionState,
+          ReducedSubtree(
+              result = result,
+              x = x,
+              y = y,
+              diffNode = diffNode,
+              outputsStart = outputsStart,
+              outputsEnd = reductionState.mountableOutputs.size,
+              visibilityOutputsStart = visibilityOutputsStart,
+              visibilityOutputsEnd = reductionState.visibilityOutputs.size,
+              testOutputsStart = testOutputsStart,
+              testOutputsEnd = reductionState.testOutputs?.size ?: -1,
+              nestedSubtreesStart = nestedSubtreesStart,
+              nestedSubtreesEnd = reductionState.reducedSubtrees.size))
+    }
+
     addCurrentAffinityGroupToTransitionMapping(reductionState)
     reductionState.currentTransitionId = currentTransitionId
     reductionState.currentLayoutOutputAffinityGroup = currentLayoutOutputAffinityGroup
   }
 
+  private fun isSpliceable(
+      node: LithoNode,
+      parent: RenderTreeNode?,
+      parentDiffNode: DiffNode?
+  ): Boolean =
+      ComponentsConfiguration.spliceCachedSubtreesWhenReducing &&
+          !LithoDebugConfigurations.isDebugHierarchyEnabled &&
+          parent != null &&
+          parentDiffNode != null &&
+          node.tailComponentContext.shouldCacheLayouts()
+
+  private fun addReducedSubtree(reductionState: ReductionState, subtree: ReducedSubtree) {
+    reductionState.reducedSubtrees.add(subtree)
+    reductionState.reducedSubtreesByNode[subtree.result.node] = subtree
+  }
+
+  /**
+   * Splices the outputs which the previous [LayoutState] collected for the subtree of [result],
+   * instead of collecting them again, if the subtree was laid out with the same layout and is at
+   * the same position. The [RenderTreeNode]s and [IncrementalMountOutput]s are recreated because
+   * their parents and positions changed, and because the previous tree can still be mounted; the
+   * diff nodes, the visibility and test outputs, and the order of the outputs sorted by their
+   * bounds are reused.
+   *
+   * @return false, leaving [reductionState] untouched, if the subtree has to be collected again.
+   */
+  private fun spliceReducedSubtree(
+      result: LithoLayoutResult,
+      reductionState: ReductionState,
+      x: Int,
+      y: Int,
+      parent: RenderTreeNode,
+      parentDiffNode: DiffNode,
+  ): Boolean {
+    val previousLayoutState: LayoutState = reductionState.currentLayoutState ?: return false
+    val previous: ReducedSubtree =
+        previousLayoutState.reducedSubtreesByNode[result.node] ?: return false
+    if (previous.x != x ||
+        previous.y != y ||
+        (previous.testOutputsStart < 0) != (reductionState.testOutputs == null) ||
+        !hasSameLayout(result, previous.result)) {
+      return false
+    }
+
+    val outputsStart: Int = reductionState.mountableOutputs.size
+    val incrementalMountOutputs =
+        ArrayList<IncrementalMountOutput>(previous.outputsEnd - previous.outputsStart)
+    for (i in previous.outputsStart until previous.outputsEnd) {
+      val previousNode: RenderTreeNode = previousLayoutState.mountableOutputs[i]
+      // The outputs whose parents are outside of the subtree are attached to the new parent.
+      val previousParentPosition: Int =
+          previousLayoutState.getPositionForId(checkNotNull(previousNode.parent).renderUnit.id)
+      val nodeParent: RenderTreeNode =
+          if (previousParentPosition >= previous.outputsStart) {
+            reductionState.mountableOutputs[
+                outputsStart + previousParentPosition - previous.outputsStart]
+          } else {
+            parent
+          }
+      incrementalMountOutputs.add(
+          spliceRenderTreeNode(reductionState, previousLayoutState, previousNode, nodeParent))
+    }
+
+    // The outputs are added to the lists sorted by bounds in their previous order, the sort then
+    // only has to merge them with the other outputs.
+    val outputsOrderedByTopBounds: IntArray =
+        previous.outputsOrderedByTopBounds
+            ?: getSortedOffsets(
+                incrementalMountOutputs, IncrementalMountRenderCoreExtension.sTopsComparator)
+    val outputsOrderedByBottomBounds: IntArray =
+        previous.outputsOrderedByBottomBounds
+            ?: getSortedOffsets(
+                incrementalMountOutputs, IncrementalMountRenderCoreExtension.sBottomsComparator)
+    for (offset in outputsOrderedByTopBounds) {
+      reductionState.mountableOutputTops.add(incrementalMountOutputs[offset])
+    }
+    for (offset in outputsOrderedByBottomBounds) {
+      reductionState.mountableOutputBottoms.add(incrementalMountOutputs[offset])
+    }
+
+    val visibilityOutputsStart: Int = reductionState.visibilityOutputs.size
+    for (i in previous.visibilityOutputsStart until previous.visibilityOutputsEnd) {
+      reductionState.visibilityOutputs.add(previousLayoutState.getVisibilityOutputAt(i))
+    }
+    val testOutputsStart: Int = reductionState.testOutputs?.size ?: -1
+    reductionState.testOutputs?.let { testOutputs ->
+      for (i in previous.testOutputsStart until previous.testOutputsEnd) {
+        testOutputs.add(checkNotNull(previousLayoutState.getTestOutputAt(i)))
+      }
+    }
+    parentDiffNode.addChild(previous.diffNode)
+    addSplicedComponentInfos(result, reductionState, previousLayoutState)
+
+    // Record the subtree and the subtrees nested in it, to splice them again in the next reduce.
+    val nestedSubtreesStart: Int = reductionState.reducedSubtrees.size
+    for (i in previous.nestedSubtreesStart until previous.nestedSubtreesEnd) {
+      addReducedSubtree(
+          reductionState,
+          previousLayoutState.reducedSubtrees[i].offsetBy(
+              outputs = outputsStart - previous.outputsStart,
+              visibilityOutputs = visibilityOutputsStart - previous.visibilityOutputsStart,
+              testOutputs = testOutputsStart - previous.testOutputsStart,
+              nestedSubtrees = nestedSubtreesStart - previous.nestedSubtreesStart))
+    }
+    val subtree =
+        ReducedSubtree(
+            result = result,
+            x = x,
+            y = y,
+            diffNode = previous.diffNode,
+            outputsStart = outputsStart,
+            outputsEnd = reductionState.mountableOutputs.size,
+            visibilityOutputsStart = visibilityOutputsStart,
+            visibilityOutputsEnd = reductionState.visibilityOutputs.size,
+            testOutputsStart = testOutputsStart,
+            testOutputsEnd = reductionState.testOutputs?.size ?: -1,
+            nestedSubtreesStart = nestedSubtreesStart,
+            nestedSubtreesEnd = reductionState.reducedSubtrees.size)
+    subtree.outputsOrderedByTopBounds = outputsOrderedByTopBounds
+    subtree.outputsOrderedByBottomBounds = outputsOrderedByBottomBounds
+    addReducedSubtree(reductionState, subtree)
+    return true
+  }
+
+  /** Adds a copy of [previousNode], from the previous [LayoutState], to the outputs. */
+  private fun spliceRenderTreeNode(
+      reductionState: ReductionState,
+      previousLayoutState: LayoutState,
+      previousNode: RenderTreeNode,
+      parent: RenderTreeNode,
+  ): IncrementalMountOutput {
+    val unit: LithoRenderUnit = previousNode.renderUnit as LithoRenderUnit
+    val previousLayoutData: LithoLayoutData =
+        LithoLayoutData.verifyAndGetLithoLayoutData(previousNode.layoutData)
+    val absoluteBounds: Rect = previousNode.getAbsoluteBounds(Rect())
+    val l: Int = absoluteBounds.left - parent.absoluteX
+    val t: Int = absoluteBounds.top - parent.absoluteY
+    val node: RenderTreeNode =
+        create(
+            unit = unit,
+            bounds = Rect(l, t, l + absoluteBounds.width(), t + absoluteBounds.height()),
+            padding = previousNode.resolvedPadding,
+            layoutData =
+                LithoLayoutData(
+                    width = previousLayoutData.width,
+                    height = previousLayoutData.height,
+                    currentLayoutStateId = reductionState.id,
+                    previousLayoutStateId = reductionState.previousLayoutStateId,
+                    expandedTouchBounds = previousLayoutData.expandedTouchBounds,
+                    layoutData = previousLayoutData.layoutData,
+                    isSizeDependant = previousLayoutData.isSizeDependant,
+                    debugHierarchy = null),
+            parent = parent)
+
+    parent.child(node)
+    maybeSetParentImplementsVirtualViews(unit, parent)
+
+    val id: Long = unit.id
+    val position: Int = reductionState.mountableOutputs.size
+    val incrementalMountOutput: IncrementalMountOutput =
+        createIncrementalMountOutput(reductionState, unit, position, absoluteBounds, parent)
+    reductionState.mountableOutputs.add(node)
+    reductionState.incrementalMountOutputs[id] = incrementalMountOutput
+
+    if (previousLayoutState.renderUnitWithIdHostsRenderTrees(id)) {
+      reductionState.renderUnitIdsWhichHostRenderTrees.add(id)
+    }
+    previousLayoutState.viewAttributes[id]?.let { attrs ->
+      reductionState.renderUnitsWithViewAttributes[id] = attrs
+    }
+    previousLayoutState.dynamicValueOutputs[id]?.let { dynamicValueOutput ->
+      reductionState.dynamicValueOutputs[id] = dynamicValueOutput
+    }
+    previousLayoutState.getAnimatableItem(id)?.let { animatableItem ->
+      reductionState.animatableItems.put(id, animatableItem)
+    }
+    addLayoutOutputIdToPositionsMap(reductionState.outputsIdToPositionMap, unit, position)
+    return incrementalMountOutput
+  }
+
+  /**
+   * Adds the spec component infos and the bounds of the components of a spliced subtree, in the
+   * same order as [collectResults].
+   */
+  private fun addSplicedComponentInfos(
+      result: LithoLayoutResult,
+      reductionState: ReductionState,
+      previousLayoutState: LayoutState,
+  ) {
+    if (result.measureHadExceptions) {
+      return
+    }
+    val node: LithoNode = result.node
+    if (result is NestedTreeHolderResult) {
+      for (i in 1 until node.componentCount) {
+        val scope: ScopedComponentInfo = node.getComponentInfoAt(i)
+        if (scope.component is SpecGeneratedComponent) {
+          reductionState.scopedSpecComponentInfos.add(scope)
+        }
+      }
+      result.nestedResult?.let { nestedResult ->
+        addSplicedComponentInfos(nestedResult, reductionState, previousLayoutState)
+      }
+      return
+    }
+
+    for (i in 0 until result.childCount) {
+      addSplicedComponentInfos(result.getChildAt(i), reductionState, previousLayoutState)
+    }
+    for (i in 0 until node.componentCount) {
+      val delegate: Component = node.getComponentAt(i)
+      if (delegate is SpecGeneratedComponent) {
+        reductionState.scopedSpecComponentInfos.add(
+            node.getComponentContextAt(i).scopedComponentInfo)
+      }
+      node.getGlobalKeyAt(i)?.let { delegateKey ->
+        previousLayoutState.componentKeyToBounds[delegateKey]?.let { bounds ->
+          reductionState.componentKeyToBounds[delegateKey] = bounds
+        }
+      }
+      delegate.handle?.let { handle ->
+        previousLayoutState.componentHandleToBounds[handle]?.let { bounds ->
+          reductionState.componentHandleToBounds[handle] = bounds
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns whether [result] has the same layout, and the same outputs, as [previous] which was
+   * collected by the previous reduce.
+   */
+  private fun hasSameLayout(result: LithoLayoutResult, previous: LithoLayoutResult): Boolean {
+    if (result.node !== previous.node ||
+        result.measureHadExceptions != previous.measureHadExceptions) {
+      return false
+    }
+    if (result.measureHadExceptions) {
+      return true
+    }
+    if (result is NestedTreeHolderResult || previous is NestedTreeHolderResult) {
+      val nestedResult: LithoLayoutResult? = (result as? NestedTreeHolderResult)?.nestedResult
+      val previousNestedResult: LithoLayoutResult? =
+          (previous as? NestedTreeHolderResult)?.nestedResult
+      if (nestedResult == null || previousNestedResult == null) {
+        return false
+      }
+      return result.getXForChildAtIndex(0) == previous.getXForChildAtIndex(0) &&
+          result.getYForChildAtIndex(0) == previous.getYForChildAtIndex(0) &&
+          hasSameLayout(nestedResult, previousNestedResult)
+    }
+    if (result.width != previous.width ||
+        result.height != previous.height ||
+        result.paddingLeft != previous.paddingLeft ||
+        result.paddingTop != previous.paddingTop ||
+        result.paddingRight != previous.paddingRight ||
+        result.paddingBottom != previous.paddingBottom ||
+        result.adjustedLeft() != previous.adjustedLeft() ||
+        result.adjustedTop() != previous.adjustedTop() ||
+        result.adjustedRight() != previous.adjustedRight() ||
+        result.adjustedBottom() != previous.adjustedBottom() ||
+        result.expandedTouchBounds != previous.expandedTouchBounds ||
+        result.widthSpec != previous.widthSpec ||
+        result.heightSpec != previous.heightSpec ||
+        result.contentWidth != previous.contentWidth ||
+        result.contentHeight != previous.contentHeight ||
+        result.layoutData !== previous.layoutData ||
+        result.delegate !== previous.delegate ||
+        result.hostRenderUnit !== previous.hostRenderUnit ||
+        result.backgroundRenderUnit !== previous.backgroundRenderUnit ||
+        result.contentRenderUnit !== previous.contentRenderUnit ||
+        result.borderRenderUnit !== previous.borderRenderUnit ||
+        result.foregroundRenderUnit !== previous.foregroundRenderUnit ||
+        result.childCount != previous.childCount) {
+      return false
+    }
+    for (i in 0 until result.childCount) {
+      if (result.getXForChildAtIndex(i) != previous.getXForChildAtIndex(i) ||
+          result.getYForChildAtIndex(i) != previous.getYForChildAtIndex(i) ||
+          !hasSameLayout(result.getChildAt(i), previous.getChildAt(i))) {
+        return false
+      }
+    }
+    return true
+  }
+
+  /** Returns the offsets from the first of [outputs], in the order given by [comparator]. */
+  private fun getSortedOffsets(
+      outputs: List<IncrementalMountOutput>,
+      comparator: Comparator<IncrementalMountOutput>
+  ): IntArray {
+    val start: Int = if (outputs.isEmpty()) 0 else outputs[0].index
+    val sorted: List<IncrementalMountOutput> = outputs.sortedWith(comparator)
+    return IntArray(sorted.size) { i -> sorted[i].index - start }
+  }
+
   private fun addDrawableRenderTreeNode(
       unit: LithoRenderUnit,
       bounds: Rect,
@@ -719,7 +1067,7 @@ internal object LithoReducer {
   }
 
   private fun addLayoutOutputIdToPositionsMap(
-      outputsIdToPositionMap: LongSparseArray<Int>,
+      outputsIdToPositionMap: LongIntHashMap,
       unit: LithoRenderUnit,
       position: Int
   ) = outputsIdToPositionMap.put(unit.id, position)
@@ -828,14 +1176,13 @@ internal object LithoReducer {
   }
 
   private fun sortTops(reductionState: ReductionState) {
-    val unsorted: List<IncrementalMountOutput> = ArrayList(reductionState.mountableOutputTops)
+    val tops: ArrayList<IncrementalMountOutput> = reductionState.mountableOutputTops
+    val size = tops.size
     try {
-      reductionState.mountableOutputTops.sortWith(
-          IncrementalMountRenderCoreExtension.sTopsComparator)
+      tops.sortWith(IncrementalMountRenderCoreExtension.sTopsComparator)
     } catch (e: IllegalArgumentException) {
       val errorMessage = StringBuilder()
       errorMessage.append(e.message).append("\n")
-      val size = unsorted.size
       errorMessage.append("Error while sorting ReductionState tops. Size: $size").append("\n")
       val rect = Rect()
       for (i in 0 until size) {
@@ -847,14 +1194,13 @@ internal object LithoReducer {
   }
 
   private fun sortBottoms(reductionState: ReductionState) {
-    val unsorted: List<IncrementalMountOutput> = ArrayList(reductionState.mountableOutputBottoms)
+    val bottoms: ArrayList<IncrementalMountOutput> = reductionState.mountableOutputBottoms
+    val size = bottoms.size
     try {
-      reductionState.mountableOutputBottoms.sortWith(
-          IncrementalMountRenderCoreExtension.sBottomsComparator)
+      bottoms.sortWith(IncrementalMountRenderCoreExtension.sBottomsComparator)
     } catch (e: IllegalArgumentException) {
       val errorMessage = StringBuilder()
       errorMessage.append(e.message).append("\n")
-      val size = unsorted.size
       errorMessage.append("Error while sorting ReductionState bottoms. Size: $size").append("\n")
       val rect = Rect()
       for (i in 0 until size) {
@@ -880,34 +1226,12 @@ internal object LithoReducer {
     parent?.child(node)
 
     val component: Component = unit.component
-    if (component is SpecGeneratedComponent &&
-        component.implementsExtraAccessibilityNodes() &&
-        unit.isAccessible &&
-        parent != null) {
-      val parentUnit: LithoRenderUnit = LithoRenderUnit.getRenderUnit(parent)
-      (parentUnit.component as HostComponent).setImplementsVirtualViews()
-    }
+    maybeSetParentImplementsVirtualViews(unit, parent)
 
     val position: Int = reductionState.mountableOutputs.size
     val absoluteBounds: Rect = node.getAbsoluteBounds(Rect())
-    val shouldExcludePrimitiveFromIncrementalMount: Boolean =
-        unit.findAttachBinderByClass(ExcludeFromIncrementalMountBinder::class.java) != null
-    val shouldExcludeSpecGeneratedComponentFromIncrementalMount: Boolean =
-        component is SpecGeneratedComponent && component.excludeFromIncrementalMount()
-
-    val incrementalMountOutput =
-        IncrementalMountOutput(
-            node.renderUnit.id,
-            position,
-            absoluteBounds,
-            shouldExcludeSpecGeneratedComponentFromIncrementalMount ||
-                shouldExcludePrimitiveFromIncrementalMount,
-            if (parent != null) reductionState.incrementalMountOutputs[parent.renderUnit.id]
-            else null)
-    if (shouldExcludeSpecGeneratedComponentFromIncrementalMount ||
-        shouldExcludePrimitiveFromIncrementalMount) {
-      reductionState.hasComponentsExcludedFromIncrementalMount = true
-    }
+    val incrementalMountOutput: IncrementalMountOutput =
+        createIncrementalMountOutput(reductionState, unit, position, absoluteBounds, parent)
 
     val id: Long = node.renderUnit.id
     reductionState.mountableOutputs.add(node)
@@ -972,6 +1296,49 @@ internal object LithoReducer {
         reductionState.currentLayoutOutputAffinityGroup, type, animatableItem)
   }
 
+  private fun maybeSetParentImplementsVirtualViews(
+      unit: LithoRenderUnit,
+      parent: RenderTreeNode?
+  ) {
+    val component: Component = unit.component
+    if (component is SpecGeneratedComponent &&
+        component.implementsExtraAccessibilityNodes() &&
+        unit.isAccessible &&
+        parent != null) {
+      val parentUnit: LithoRenderUnit = LithoRenderUnit.getRenderUnit(parent)
+      (parentUnit.component as HostComponent).setImplementsVirtualViews()
+    }
+  }
+
+  private fun createIncrementalMountOutput(
+      reductionState: ReductionState,
+      unit: LithoRenderUnit,
+      position: Int,
+      absoluteBounds: Rect,
+      parent: RenderTreeNode?
+  ): IncrementalMountOutput {
+    val component: Component = unit.component
+    val shouldExcludePrimitiveFromIncrementalMount: Boolean =
+        unit.findAttachBinderByClass(ExcludeFromIncrementalMountBinder::class.java) != null
+    val shouldExcludeSpecGeneratedComponentFromIncrementalMount: Boolean =
+        component is SpecGeneratedComponent && component.excludeFromIncrementalMount()
+
+    val incrementalMountOutput =
+        IncrementalMountOutput(
+            unit.id,
+            position,
+            absoluteBounds,
+            shouldExcludeSpecGeneratedComponentFromIncrementalMount ||
+                shouldExcludePrimitiveFromIncrementalMount,
+            if (parent != null) reductionState.incrementalMountOutputs[parent.renderUnit.id]
+            else null)
+    if (shouldExcludeSpecGeneratedComponentFromIncrementalMount ||
+        shouldExcludePrimitiveFromIncrementalMount) {
+      reductionState.hasComponentsExcludedFromIncrementalMount = true
+    }
+    return incrementalMountOutput
+  }
+
   private fun LithoNode.getDebugHierarchy(
       parentHierarchy: DebugHierarchy.Node? = null,
   ): DebugHierarchy.Node? {
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho
+
+import androidx.annotation.VisibleForTesting
+import com.facebook.litho.config.ComponentsConfiguration
+import java.util.concurrent.Callable
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.ForkJoinTask
+
+/**
+ * Resolves the children of a [Row] or a [Column], in parallel when
+ * [ComponentsConfiguration.enableParallelResolve] is enabled.
+ *
+ * Children whose estimated subtree size is at least
+ * [ComponentsConfiguration.parallelResolveCostThreshold] are forked on a shared [ForkJoinPool],
+ * while the others are resolved on the current thread. The global keys of all the children are
+ * generated up front and in order, so they are the same as in a sequential resolve, and the
+ * resolved children are added to the parent in order.
+ */
+internal object ParallelResolver {
+
+  private const val MOUNT_SPEC_COST = 1
+  private const val COMPOSITE_COST = 4
+
+  private val pool: ForkJoinPool by lazy { ForkJoinPool(LayoutThreadPool.defaultThreadCount()) }
+
+  private val isResolvingForMainThreadLocal: ThreadLocal<Boolean> = ThreadLocal()
+
+  /**
+   * `true` if the current thread is resolving a subtree forked by a resolve running on the main
+   * thread, which can't be interrupted.
+   */
+  val isResolvingForMainThread: Boolean
+    get() = isResolvingForMainThreadLocal.get() == true
+
+  /**
+   * Resolves the [children] of the container with the scoped context [c] and adds them to its
+   * [node].
+   *
+   * @return `false` if the future was released while resolving the children.
+   */
+  fun resolveChildren(
+      resolveContext: ResolveContext,
+      c: ComponentContext,
+      node: LithoNode,
+      children: List<Component>
+  ): Boolean {
+    if (ComponentsConfiguration.enableParallelResolve &&
+        canResolveInParallel(resolveContext, children)) {
+      return resolveChildrenInParallel(resolveContext, c, node, children)
+    }
+
+    for (child in children) {
+      if (resolveContext.isFutureReleased) {
+        return false
+      }
+      if (resolveContext.isLayoutInterrupted) {
+        node.appendUnresolvedComponent(child)
+      } else {
+        node.child(resolveContext, c, child)
+      }
+    }
+    return true
+  }
+
+  private fun canResolveInParallel(
+      resolveContext: ResolveContext,
+      children: List<Component>
+  ): Boolean {
+    if (children.size < 2 || resolveContext.isLayoutInterrupted) {
+      return false
+    }
+    val threshold = ComponentsConfiguration.parallelResolveCostThreshold
+    var hasExpensiveChild = false
+    for (child in children) {
+      // Children created in willRender or measured already don't generate their key while being
+      // resolved, so they are resolved in order on the current thread.
+      if (resolveContext.getLayoutCreatedInWillRender(child.id) != null ||
+          Component.hasCachedNode(resolveContext, child)) {
+        return false
+      }
+      if (!hasExpensiveChild && estimateCost(child, threshold) >= threshold) {
+        hasExpensiveChild = true
+      }
+    }
+    return hasExpensiveChild
+  }
+
+  private fun resolveChildrenInParallel(
+      resolveContext: ResolveContext,
+      c: ComponentContext,
+      node: LithoNode,
+      children: List<Component>
+  ): Boolean {
+    val threshold = ComponentsConfiguration.parallelResolveCostThreshold
+    val globalKeys =
+        Array(children.size) { i ->
+          ComponentKeyUtils.generateGlobalKey(c, c.componentScope, children[i])
+        }
+    val isForMainThread = ThreadUtils.isMainThread || isResolvingForMainThread
+
+    val tasks = arrayOfNulls<ForkJoinTask<LithoNode?>>(children.size)
+    for (i in children.indices) {
+      if (estimateCost(children[i], threshold) >= threshold) {
+        val task =
+            ForkJoinTask.adapt(
+                Callable {
+                  resolveForked(resolveContext, c, children[i], globalKeys[i], isForMainThread)
+                })
+        if (ForkJoinTask.getPool() === pool) {
+          task.fork()
+        } else {
+          pool.execute(task)
+        }
+        tasks[i] = task
+      }
+    }
+
+    val results = arrayOfNulls<LithoNode>(children.size)
+    for (i in children.indices) {
+      val task = tasks[i]
+      if (task != null) {
+        results[i] = task.join()
+      } else if (!resolveContext.isFutureReleased) {
+        results[i] = Resolver.resolve(resolveContext, c, children[i], globalKeys[i])
+      }
+    }
+
+    if (resolveContext.isFutureReleased) {
+      return false
+    }
+    for (result in results) {
+      node.child(result)
+    }
+    return true
+  }
+
+  private fun resolveForked(
+      resolveContext: ResolveContext,
+      c: ComponentContext,
+      component: Component,
+      globalKey: String,
+      isForMainThread: Boolean
+  ): LithoNode? {
+    val previous = isResolvingForMainThreadLocal.get()
+    isResolvingForMainThreadLocal.set(isForMainThread)
+    // The calculation state context is thread local, and must be set on the worker thread too.
+    val previousRenderStateContext = c.renderStateContext
+    c.renderStateContext = resolveContext
+    try {
+      return Resolver.resolve(resolveContext, c, component, globalKey)
+    } finally {
+      c.renderStateContext = previousRenderStateContext
+      isResolvingForMainThreadLocal.set(previous)
+    }
+  }
+
+  /**
+   * A rough estimate of the number of components in the subtree of the [component], which stops
+   * counting once it reaches [budget]. The children of rows and columns are known up front, every
+   * other component which is not a mount spec or a primitive counts as a small subtree.
+   */
+  @VisibleForTesting
+  fun estimateCost(component: Component, budget: Int): Int {
+    val children =
+        when (component) {
+          is Column -> component.childComponents
+          is Row -> component.childComponents
+          else ->
+              return if (Component.isMountSpec(component)) MOUNT_SPEC_COST else COMPOSITE_COST
+        }
+    var cost = 1
+    if (children != null) {
+      for (child in children) {
+        if (cost >= budget) {
+          break
+        }
+        cost += estimateCost(child, budget - cost)
+      }
+    }
+    return cost
+  }
+}
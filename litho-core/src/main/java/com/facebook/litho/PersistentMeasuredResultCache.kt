@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho
+
+import android.content.Context
+import android.util.Pair
+import javax.annotation.concurrent.GuardedBy
+
+/**
+ * A measurement cache owned by the [TreeState] which, unlike [MeasuredResultCache], survives across
+ * layout passes.
+ *
+ * It caches the resolved [LithoNode] of components measured with [Component.measure], along with
+ * the [com.facebook.rendercore.LayoutCache] data written while measuring it. Entries are keyed by
+ * the component's global key and the (widthSpec, heightSpec) pair, and are only returned if the
+ * component's props (including common props), the tree props and the Android context are unchanged.
+ * A hit skips resolving the subtree again, and the layout cache data lets the measurement reuse the
+ * previous Yoga tree instead of measuring it again.
+ *
+ * Entries are invalidated when a state update is queued for the component or any of its
+ * descendants, and the least recently used entries are dropped once there are more than
+ * [maxEntries].
+ */
+class PersistentMeasuredResultCache(private val maxEntries: Int = DEFAULT_MAX_ENTRIES) {
+
+  class Entry
+  internal constructor(
+      val globalKey: String,
+      val component: Component,
+      val treePropContainer: TreePropContainer?,
+      val androidContext: Context,
+      val widthSpec: Int,
+      val heightSpec: Int,
+      val node: LithoNode,
+      val layoutCacheData: Map<Any, Any?>,
+      val eventHandlers: List<Pair<String, EventHandler<*>>>?,
+  )
+
+  private data class Key(val globalKey: String, val widthSpec: Int, val heightSpec: Int)
+
+  @GuardedBy("this")
+  private val entries: LinkedHashMap<Key, Entry> =
+      object : LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Key, Entry>?): Boolean =
+            size > maxEntries
+      }
+
+  /**
+   * @return the cached [Entry] for the component with the given [globalKey] measured with the
+   *   given specs, or `null` if there is none or if it was produced for different props, tree props
+   *   or Android context.
+   */
+  @Synchronized
+  fun get(
+      globalKey: String,
+      component: Component,
+      treePropContainer: TreePropContainer?,
+      androidContext: Context,
+      widthSpec: Int,
+      heightSpec: Int
+  ): Entry? {
+    val key = Key(globalKey, widthSpec, heightSpec)
+    val entry = entries[key] ?: return null
+    if (entry.androidContext !== androidContext ||
+        entry.treePropContainer != treePropContainer ||
+        !component.isEquivalentTo(entry.component, true)) {
+      entries.remove(key)
+      return null
+    }
+    return entry
+  }
+
+  @Synchronized
+  fun put(
+      globalKey: String,
+      component: Component,
+      treePropContainer: TreePropContainer?,
+      androidContext: Context,
+      widthSpec: Int,
+      heightSpec: Int,
+      node: LithoNode,
+      layoutCacheData: Map<Any, Any?>,
+      eventHandlers: List<Pair<String, EventHandler<*>>>?
+  ) {
+    entries[Key(globalKey, widthSpec, heightSpec)] =
+        Entry(
+            globalKey,
+            component,
+            treePropContainer,
+            androidContext,
+            widthSpec,
+            heightSpec,
+            node,
+            layoutCacheData,
+            eventHandlers?.let { ArrayList(it) })
+  }
+
+  /**
+   * Drops every entry whose subtree contains the component with the given [globalKey], i.e. the
+   * entries for that component and all of its ancestors. Global keys of descendants are prefixed
+   * by the global key of their ancestors followed by a separator.
+   */
+  @Synchronized
+  fun invalidate(globalKey: String) {
+    val iterator = entries.keys.iterator()
+    while (iterator.hasNext()) {
+      if (isSelfOrAncestor(iterator.next().globalKey, globalKey)) {
+        iterator.remove()
+      }
+    }
+  }
+
+  @Synchronized
+  fun clear() {
+    entries.clear()
+  }
+
+  @get:Synchronized
+  val size: Int
+    get() = entries.size
+
+  companion object {
+    const val DEFAULT_MAX_ENTRIES: Int = 128
+
+    private const val KEY_SEPARATOR: Char = ','
+
+    private fun isSelfOrAncestor(candidateKey: String, globalKey: String): Boolean =
+        globalKey.startsWith(candidateKey) &&
+            (globalKey.length == candidateKey.length ||
+                globalKey[candidateKey.length] == KEY_SEPARATOR)
+  }
+}
@@ -135,13 +135,21 @@ abstract class PrimitiveComponent : Component() {
     if (id == other.id) {
       return true
     }
-    if (!hasEquivalentFields(this, other)) {
+    if (!hasEquivalentFieldsTo(other as PrimitiveComponent)) {
       return false
     }
 
     return true
   }
 
+  /**
+   * Compares the fields declared by the class of this component to the ones of [other], which has
+   * the same class. The Litho compiler plugin overrides it with a field by field comparison in the
+   * final subclasses it compiles; otherwise the fields are compared with reflection.
+   */
+  protected open fun hasEquivalentFieldsTo(other: PrimitiveComponent): Boolean =
+      hasEquivalentFields(this, other)
+
   // All other Component lifecycle methods are final and no-op here as they shouldn't be overridden.
 
   final override fun isEquivalentTo(other: Component?, shouldCompareCommonProps: Boolean): Boolean =
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.litho
+
+/**
+ * The ranges of the outputs which the reduction of a subtree added to a [LayoutState]. If the same
+ * subtree is laid out again from the [com.facebook.rendercore.LayoutCache], with the same layout
+ * and at the same position, the [LithoReducer] splices these outputs into the next [LayoutState]
+ * instead of reducing the subtree again.
+ *
+ * The ranges are half open; test outputs ranges are negative when test outputs are not collected.
+ * The nested subtrees are the subtrees recorded while reducing this one, which precede it in
+ * [LayoutState.reducedSubtrees].
+ */
+internal class ReducedSubtree(
+    val result: LithoLayoutResult,
+    val x: Int,
+    val y: Int,
+    val diffNode: DiffNode,
+    val outputsStart: Int,
+    val outputsEnd: Int,
+    val visibilityOutputsStart: Int,
+    val visibilityOutputsEnd: Int,
+    val testOutputsStart: Int,
+    val testOutputsEnd: Int,
+    val nestedSubtreesStart: Int,
+    val nestedSubtreesEnd: Int,
+) {
+
+  /**
+   * The offsets from [outputsStart] of the outputs sorted by their top bounds; it is set once the
+   * subtree is spliced, and carried over for as long as it keeps being spliced.
+   */
+  var outputsOrderedByTopBounds: IntArray? = null
+
+  /** The offsets from [outputsStart] of the outputs sorted by their bottom bounds. */
+  var outputsOrderedByBottomBounds: IntArray? = null
+
+  /** Returns a copy of this subtree whose outputs were moved to other positions. */
+  fun offsetBy(
+      outputs: Int,
+      visibilityOutputs: Int,
+      testOutputs: Int,
+      nestedSubtrees: Int
+  ): ReducedSubtree {
+    val subtree =
+        ReducedSubtree(
+            result = result,
+            x = x,
+            y = y,
+            diffNode = diffNode,
+            outputsStart = outputsStart + outputs,
+            outputsEnd = outputsEnd + outputs,
+            visibilityOutputsStart = visibilityOutputsStart + visibilityOutputs,
+            visibilityOutputsEnd = visibilityOutputsEnd + visibilityOutputs,
+            testOutputsStart = if (testOutputsStart < 0) -1 else testOutputsStart + testOutputs,
+            testOutputsEnd = if (testOutputsStart < 0) -1 else testOutputsEnd + testOutputs,
+            nestedSubtreesStart = nestedSubtreesStart + nestedSubtrees,
+            nestedSubtreesEnd = nestedSubtreesEnd + nestedSubtrees)
+    subtree.outputsOrderedByTopBounds = outputsOrderedByTopBounds
+    subtree.outputsOrderedByBottomBounds = outputsOrderedByBottomBounds
+    return subtree
+  }
+}
@@ -28,6 +28,8 @@ import com.facebook.rendercore.SizeConstraints
 import com.facebook.rendercore.SizeConstraints.Helper.getHeightSpec
 import com.facebook.rendercore.SizeConstraints.Helper.getWidthSpec
 import com.facebook.rendercore.incrementalmount.IncrementalMountOutput
+import com.facebook.rendercore.utils.LongHashSet
+import com.facebook.rendercore.utils.LongIntHashMap
 import com.facebook.rendercore.visibility.VisibilityOutput
 
 /**
@@ -61,11 +63,13 @@ internal data class ReductionState(
     val mountableOutputTops: ArrayList<IncrementalMountOutput> = ArrayList(),
     val mountableOutputBottoms: ArrayList<IncrementalMountOutput> = ArrayList(),
     val incrementalMountOutputs: MutableMap<Long, IncrementalMountOutput> = LinkedHashMap(8),
-    val renderUnitIdsWhichHostRenderTrees: MutableSet<Long> = HashSet(4),
+    val renderUnitIdsWhichHostRenderTrees: LongHashSet = LongHashSet(4),
     val renderUnitsWithViewAttributes: MutableMap<Long, ViewAttributes> = HashMap(8),
     val dynamicValueOutputs: MutableMap<Long, DynamicValueOutput> = LinkedHashMap(8),
     val animatableItems: LongSparseArray<AnimatableItem> = LongSparseArray(8),
-    val outputsIdToPositionMap: LongSparseArray<Int> = LongSparseArray(8),
+    val outputsIdToPositionMap: LongIntHashMap = LongIntHashMap(8),
+    val reducedSubtrees: MutableList<ReducedSubtree> = ArrayList(),
+    val reducedSubtreesByNode: MutableMap<LithoNode, ReducedSubtree> = HashMap(),
     var layoutResult: LayoutResult? = root,
     var width: Int = 0,
     var height: Int = 0,
@@ -75,6 +79,7 @@ internal data class ReductionState(
     var currentLayoutOutputAffinityGroup: OutputUnitsAffinityGroup<AnimatableItem>? =
         currentLayoutState?.currentLayoutOutputAffinityGroup,
     var hasComponentsExcludedFromIncrementalMount: Boolean = false,
+    var nodesWithTransitionIdCount: Int = 0,
     var attachables: MutableList<Attachable>? = null,
     var transitionData: MutableTransitionData? = null,
     var workingRangeContainer: WorkingRangeContainer? = null,
@@ -62,6 +62,7 @@ constructor(
       return _eventHandlers
     }
 
+  @Synchronized
   override fun recordEventHandler(globalKey: String, eventHandler: EventHandler<*>) {
     (_eventHandlers ?: ArrayList()).apply {
       _eventHandlers = this
@@ -76,7 +77,9 @@ constructor(
   val isLayoutInterrupted: Boolean
     get() {
       val isInterruptible = _isInterruptible
-      return if (!isInterruptible || ThreadUtils.isMainThread) {
+      return if (!isInterruptible ||
+          ThreadUtils.isMainThread ||
+          ParallelResolver.isResolvingForMainThread) {
         false
       } else {
         val future = _future
@@ -84,10 +87,12 @@ constructor(
       }
     }
 
+  @Synchronized
   fun consumeLayoutCreatedInWillRender(id: Int): LithoNode? = _cachedNodes?.remove(id)
 
-  fun getLayoutCreatedInWillRender(id: Int): LithoNode? = _cachedNodes?.get(id)
+  @Synchronized fun getLayoutCreatedInWillRender(id: Int): LithoNode? = _cachedNodes?.get(id)
 
+  @Synchronized
   fun setLayoutCreatedInWillRender(id: Int, node: LithoNode?) {
     (_cachedNodes ?: HashMap()).apply {
       _cachedNodes = this
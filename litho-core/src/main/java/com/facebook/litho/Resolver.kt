@@ -40,10 +40,12 @@ object Resolver {
   private val MEASURE_SPEC_UNSPECIFIED: Int = MeasureSpecUtils.unspecified()
 
   @JvmStatic
+  @JvmOverloads
   fun resolveTree(
       resolveContext: ResolveContext,
       c: ComponentContext,
-      component: Component
+      component: Component,
+      globalKeyToReuse: String? = null,
   ): LithoNode? {
     val current: LithoNode? = resolveContext.currentRoot
     val layoutStatePerfEvent: PerfEvent? = resolveContext.perfEventLogger
@@ -61,7 +63,7 @@ object Resolver {
 
     val node: LithoNode?
     if (!isReconcilable) {
-      node = resolve(resolveContext, c, component)
+      node = resolve(resolveContext, c, component, globalKeyToReuse)
       if (node != null && !resolveContext.isLayoutInterrupted) {
         node.applyParentDependentCommonProps(
             resolveContext, LayoutDirection.fromContext(c.androidContext))
@@ -87,17 +89,20 @@ object Resolver {
   }
 
   @JvmStatic
+  @JvmOverloads
   fun resolve(
       resolveContext: ResolveContext,
       parent: ComponentContext,
-      component: Component
+      component: Component,
+      globalKeyToReuse: String? = null,
   ): LithoNode? =
       resolveImpl(
           resolveContext = resolveContext,
           parent = parent,
           parentWidthSpec = MEASURE_SPEC_UNSPECIFIED,
           parentHeightSpec = MEASURE_SPEC_UNSPECIFIED,
-          component = component)
+          component = component,
+          globalKeyToReuse = globalKeyToReuse)
 
   @JvmStatic
   fun resolveWithGlobalKey(
@@ -613,6 +618,23 @@ object Resolver {
     }
   }
 
+  /**
+   * Copies the tree of [node] and commits it to the layout state of [c]. This allows a tree
+   * resolved for a previous layout state to be measured again without mutating the nodes which
+   * that layout state still references.
+   */
+  @JvmStatic
+  fun copyAndCommitToLayoutStateRecursively(c: ResolveContext, node: LithoNode): LithoNode {
+    commitToLayoutState(c, node)
+    val copy: LithoNode = node.clone()
+    copy.children = ArrayList(node.childCount)
+    copy.resetDebugInfo()
+    for (i in 0 until node.childCount) {
+      copy.child(copyAndCommitToLayoutStateRecursively(c, node.getChildAt(i)))
+    }
+    return copy
+  }
+
   @JvmStatic
   fun commitToLayoutState(c: ResolveContext, node: LithoNode) {
     val scopedComponentInfos: List<ScopedComponentInfo> = node.scopedComponentInfos
@@ -829,7 +829,7 @@ public abstract class SpecGeneratedComponent extends Component
    */
   @Override
   public MountItemsPool.ItemPool onCreateMountContentPool(int poolSizeOverride) {
-    return new MountItemsPool.DefaultItemPool(getPoolableContentType(), poolSizeOverride);
+    return MountItemsPool.createDefaultItemPool(getPoolableContentType(), poolSizeOverride);
   }
 
   @ThreadSafe
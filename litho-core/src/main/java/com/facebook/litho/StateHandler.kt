@@ -134,6 +134,7 @@ class StateHandler {
     }
   }
 
+  @Synchronized
   fun keepStateContainerForGlobalKey(key: String) {
     neededStateContainers.add(key)
   }
@@ -142,17 +143,17 @@ class StateHandler {
    * StateContainer in this StateHandler should be accessed using this method as it will also ensure
    * that the state is marked as needed
    */
-  fun getStateContainer(key: String): StateContainer? = _stateContainers[key]?.value
+  @Synchronized fun getStateContainer(key: String): StateContainer? = _stateContainers[key]?.value
 
   fun createOrGetComponentState(
       scopedContext: ComponentContext,
       component: Component,
       key: String
   ): ComponentState {
-    val current: ComponentState? = synchronized(this) { _stateContainers[key] }
+    val current: ComponentState? =
+        synchronized(this) { _stateContainers[key]?.also { neededStateContainers.add(key) } }
 
     return if (current != null) {
-      neededStateContainers.add(key)
       current
     } else {
       val state =
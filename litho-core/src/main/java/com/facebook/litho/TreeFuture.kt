@@ -23,6 +23,7 @@ import com.facebook.litho.ComponentsSystrace.endSection
 import com.facebook.litho.LayoutState.Companion.isFromSyncLayout
 import com.facebook.litho.ThreadUtils.isMainThread
 import com.facebook.litho.ThreadUtils.tryRaiseThreadPriority
+import com.facebook.litho.config.ComponentsConfiguration
 import com.facebook.litho.debug.LithoDebugEvents.TreeFuture.get
 import com.facebook.litho.debug.LithoDebugEvents.TreeFuture.getPartial
 import com.facebook.litho.debug.LithoDebugEvents.TreeFuture.interrupt
@@ -448,6 +449,8 @@ abstract class TreeFuture<T : PotentiallyPartialResult>(
         "Waiting for sync result from non-main-thread"
     const val FUTURE_RESULT_NULL_REASON_RESUME_NON_MAIN_THREAD: String =
         "Resuming partial result skipped due to not being on main-thread"
+    const val FUTURE_RESULT_NULL_REASON_SUPERSEDED: String =
+        "Skipped because a newer version is already running"
     private const val INTERRUPTIBLE: Int = 0
     private const val INTERRUPTED: Int = 1
     private const val NON_INTERRUPTIBLE: Int = 2
@@ -461,6 +464,10 @@ abstract class TreeFuture<T : PotentiallyPartialResult>(
      * If an async operation is requested and an equivalent future is already running, it will be
      * discarded and return null.
      *
+     * If an async operation is requested while a future with a newer version is already running,
+     * and [ComponentsConfiguration.skipSupersededTreeFutures] is enabled, it will not run and
+     * return null, since its result could never be committed.
+     *
      * If no equivalent running future was found in the provided list, it will be added to the list
      * for the duration of the run, and then, provided it has a 0 wait-count, it will be removed
      * from the provided list.
@@ -488,6 +495,11 @@ abstract class TreeFuture<T : PotentiallyPartialResult>(
       val isSync = isFromSyncLayout(source)
       var isReusingFuture = false
       synchronized(mutex) {
+        if (!isSync &&
+            ComponentsConfiguration.skipSupersededTreeFutures &&
+            futureList.any { !it.isReleased && it.getVersion() > future.getVersion() }) {
+          return TreeFutureResult.interruptWithMessage(FUTURE_RESULT_NULL_REASON_SUPERSEDED)
+        }
 
         // Iterate over the running futures to see if an equivalent one is running
         for (runningFuture: F in futureList) {
@@ -35,6 +35,19 @@ class TreeState {
 
   @get:VisibleForTesting val eventHandlersController: EventHandlersController
 
+  /**
+   * Measurements which are kept across layout passes; only used if
+   * [com.facebook.litho.config.ComponentsConfiguration.enablePersistentMeasuredResultCache] is
+   * enabled.
+   */
+  val measuredResultCache: PersistentMeasuredResultCache
+
+  /**
+   * Global keys of the components of this tree, reused across resolves; only used if
+   * [com.facebook.litho.config.ComponentsConfiguration.useGlobalKeyCache] is enabled.
+   */
+  val globalKeyCache: GlobalKeyCache
+
   /**
    * This class represents whether this Litho tree has been mounted before. The usage is a bit
    * convoluted and will need to be cleaned out properly in the future.
@@ -53,6 +66,8 @@ class TreeState {
       effectsHandler: AttachDetachHandler,
       eventTriggersContainer: EventTriggersContainer,
       eventHandlersController: EventHandlersController,
+      measuredResultCache: PersistentMeasuredResultCache,
+      globalKeyCache: GlobalKeyCache,
   ) {
 
     if (resolveState.initialStateContainer === layoutState.initialStateContainer) {
@@ -67,6 +82,8 @@ class TreeState {
     this.effectsHandler = effectsHandler
     this.eventTriggersContainer = eventTriggersContainer
     this.eventHandlersController = eventHandlersController
+    this.measuredResultCache = measuredResultCache
+    this.globalKeyCache = globalKeyCache
   }
 
   constructor(
@@ -79,6 +96,8 @@ class TreeState {
       effectsHandler = fromState?.effectsHandler ?: AttachDetachHandler(),
       eventTriggersContainer = fromState?.eventTriggersContainer ?: EventTriggersContainer(),
       eventHandlersController = fromState?.eventHandlersController ?: EventHandlersController(),
+      measuredResultCache = fromState?.measuredResultCache ?: PersistentMeasuredResultCache(),
+      globalKeyCache = fromState?.globalKeyCache ?: GlobalKeyCache(),
   )
 
   constructor(
@@ -92,6 +111,8 @@ class TreeState {
       effectsHandler = AttachDetachHandler(),
       eventTriggersContainer = EventTriggersContainer(),
       eventHandlersController = EventHandlersController(),
+      measuredResultCache = PersistentMeasuredResultCache(),
+      globalKeyCache = GlobalKeyCache(),
   )
 
   constructor() : this(fromState = null)
@@ -141,10 +162,12 @@ class TreeState {
   ) {
     val stateHandler = getStateHandler(isNestedTree)
     stateHandler.queueStateUpdate(key, stateUpdate, isLazyStateUpdate)
+    measuredResultCache.invalidate(key)
   }
 
   fun queueHookStateUpdate(key: String, updater: HookUpdater, isNestedTree: Boolean) {
     getStateHandler(isNestedTree).queueHookStateUpdate(key, updater)
+    measuredResultCache.invalidate(key)
   }
 
   fun applyLazyStateUpdatesForContainer(
@@ -247,6 +247,40 @@ internal constructor(
 
     @JvmField var runLooperPrepareForLayoutThreadFactory: Boolean = true
 
+    /**
+     * If true, trees which are not given a layout thread handler run their background layouts on
+     * the shared [com.facebook.litho.LayoutThreadPool] instead of the single default layout thread.
+     */
+    @JvmField var useLayoutThreadPool: Boolean = false
+
+    /**
+     * If true, async resolves and layouts don't start while a newer version of the same tree is
+     * already being calculated, since their results would be discarded anyway.
+     */
+    @JvmField var skipSupersededTreeFutures: Boolean = false
+
+    /**
+     * If true, the children of a Row or a Column whose estimated subtree size is at least
+     * [parallelResolveCostThreshold] are resolved in parallel with their siblings.
+     */
+    @JvmField var enableParallelResolve: Boolean = false
+
+    /** The estimated number of components in a subtree above which it is resolved in parallel. */
+    @JvmField var parallelResolveCostThreshold: Int = 8
+
+    /**
+     * If true, the global keys of components are interned in the [com.facebook.litho.TreeState] and
+     * reused across resolves instead of being built again for every component.
+     */
+    @JvmField var useGlobalKeyCache: Boolean = false
+
+    /**
+     * If true, the reduction of subtrees which are laid out from the layout cache with the same
+     * layout and at the same position is skipped; their outputs, diff nodes and sorted bounds are
+     * spliced from the previous [com.facebook.litho.LayoutState] instead.
+     */
+    @JvmField var spliceCachedSubtreesWhenReducing: Boolean = false
+
     @JvmField var perfBoosterFactory: LithoPerfBoosterFactory? = null
 
     /**
@@ -306,6 +340,13 @@ internal constructor(
     /** This flag is used to enable a fix for the primitive component measurement issue. */
     @JvmField var enablePrimitiveMeasurementFix: Boolean = false
 
+    /**
+     * When enabled, results of [com.facebook.litho.Component.measure] are kept in the
+     * [com.facebook.litho.TreeState] across layout passes and reused while the component's props,
+     * tree props and state are unchanged.
+     */
+    @JvmField var enablePersistentMeasuredResultCache: Boolean = false
+
     /**
      * This flag is used to enable using PrimitiveComponent implementation of an Image component.
      */
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho
+
+import android.os.Handler
+import android.os.Looper
+import android.os.SystemClock
+import android.view.Choreographer
+import kotlin.math.max
+
+/** How the updates of a state producer, see [useProducer] and [useFlow], reach the component. */
+sealed interface StateUpdateDelivery {
+
+  /** Every update is queued as a state update of the component right away. */
+  object Immediate : StateUpdateDelivery
+
+  /**
+   * Updates are conflated until the next frame and delivered as a single state update, so that a
+   * producer emitting faster than the display refreshes triggers at most one resolve per frame. If
+   * [minUpdateIntervalMs] is positive, deliveries are at least that many milliseconds apart.
+   */
+  data class FrameAligned(val minUpdateIntervalMs: Long = 0) : StateUpdateDelivery
+}
+
+/** Runs callbacks on the main thread at the start of a frame. */
+internal fun interface FrameScheduler {
+  fun postFrameCallback(delayMs: Long, callback: Runnable)
+}
+
+internal object ChoreographerFrameScheduler : FrameScheduler {
+
+  private val mainHandler: Handler by lazy { Handler(Looper.getMainLooper()) }
+
+  override fun postFrameCallback(delayMs: Long, callback: Runnable) {
+    if (Looper.myLooper() == Looper.getMainLooper()) {
+      Choreographer.getInstance().postFrameCallbackDelayed({ callback.run() }, delayMs)
+    } else {
+      mainHandler.post {
+        Choreographer.getInstance().postFrameCallbackDelayed({ callback.run() }, delayMs)
+      }
+    }
+  }
+}
+
+/**
+ * Conflates the updates of a state producer until the next frame, and delivers them as a single
+ * update: a new value through [deliverValue], or the composition of the pending update functions
+ * through [deliverFunction].
+ *
+ * This class is thread safe.
+ */
+internal class ConflatedStateUpdates<T>(
+    private val minUpdateIntervalMs: Long,
+    private val deliverValue: (T) -> Unit,
+    private val deliverFunction: ((T) -> T) -> Unit,
+    private val scheduler: FrameScheduler = ChoreographerFrameScheduler,
+    private val clock: () -> Long = SystemClock::uptimeMillis,
+) {
+
+  // The pending updates and the scheduling state are guarded by this.
+  private var hasPendingValue: Boolean = false
+  private var pendingValue: T? = null
+  private var pendingFunction: ((T) -> T)? = null
+  private var isScheduled: Boolean = false
+  private var lastDeliveryTimeMs: Long = Long.MIN_VALUE
+
+  private val deliverPending = Runnable { deliverPending() }
+
+  fun enqueue(newValue: T) {
+    synchronized(this) {
+      hasPendingValue = true
+      pendingValue = newValue
+      pendingFunction = null
+      scheduleIfNeeded()
+    }
+  }
+
+  fun enqueue(newValueFunction: (T) -> T) {
+    synchronized(this) {
+      val previous = pendingFunction
+      pendingFunction =
+          if (previous == null) newValueFunction else { value -> newValueFunction(previous(value)) }
+      scheduleIfNeeded()
+    }
+  }
+
+  /**
+   * Removes the pending updates so that they won't be delivered.
+   *
+   * @return a function applying the pending updates, or `null` if there are none.
+   */
+  @Synchronized
+  fun takePending(): ((T) -> T)? {
+    val function = pendingFunction
+    val result: ((T) -> T)? =
+        if (hasPendingValue) {
+          @Suppress("UNCHECKED_CAST") val value = pendingValue as T
+          if (function == null) { _ -> value } else { _ -> function(value) }
+        } else {
+          function
+        }
+    clearPending()
+    return result
+  }
+
+  /** Drops the pending updates, e.g. when the producer is cancelled. */
+  @Synchronized
+  fun cancel() {
+    clearPending()
+  }
+
+  private fun scheduleIfNeeded() {
+    if (isScheduled) {
+      return
+    }
+    isScheduled = true
+    val delayMs =
+        if (minUpdateIntervalMs > 0 && lastDeliveryTimeMs != Long.MIN_VALUE) {
+          max(0, lastDeliveryTimeMs + minUpdateIntervalMs - clock())
+        } else {
+          0
+        }
+    scheduler.postFrameCallback(delayMs, deliverPending)
+  }
+
+  private fun deliverPending() {
+    val hasValue: Boolean
+    val value: T?
+    val function: ((T) -> T)?
+    synchronized(this) {
+      isScheduled = false
+      hasValue = hasPendingValue
+      value = pendingValue
+      function = pendingFunction
+      if (!hasValue && function == null) {
+        return
+      }
+      clearPending()
+      lastDeliveryTimeMs = clock()
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    when {
+      function == null -> deliverValue(value as T)
+      hasValue -> deliverValue(function(value as T))
+      else -> deliverFunction(function)
+    }
+  }
+
+  private fun clearPending() {
+    hasPendingValue = false
+    pendingValue = null
+    pendingFunction = null
+  }
+}
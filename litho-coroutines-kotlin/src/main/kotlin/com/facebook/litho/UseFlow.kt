@@ -23,25 +23,35 @@ import kotlinx.coroutines.flow.StateFlow
  * Uses the current value of a given [stateFlow] in a Litho Kotlin component.
  *
  * The flow will be collected on the CoroutineScope given by [getTreeProp], and will be canceled
- * when this component is detached.
+ * when this component is detached. With [StateUpdateDelivery.FrameAligned], the values emitted
+ * within a frame are delivered as a single state update.
  */
 @Hook
-fun <T> ComponentScope.useFlow(stateFlow: StateFlow<T>): T =
-    useProducer(initialValue = { stateFlow.value }, stateFlow) { stateFlow.collect { update(it) } }
+fun <T> ComponentScope.useFlow(
+    stateFlow: StateFlow<T>,
+    delivery: StateUpdateDelivery = StateUpdateDelivery.Immediate,
+): T =
+    useProducer(initialValue = { stateFlow.value }, stateFlow, delivery = delivery) {
+      stateFlow.collect { update(it) }
+    }
 
 /**
  * Uses the collection of a StateFlow that is dynamically supplied by [flowBlock], which will be
  * executed whenever the given [keys] change.
  *
  * The state flow will be collected on the CoroutineScope given by [getTreeProp], and will be
- * canceled when this component is detached or if any [keys] change.
+ * canceled when this component is detached or if any [keys] change. With
+ * [StateUpdateDelivery.FrameAligned], the values emitted within a frame are delivered as a single
+ * state update.
  */
 @Hook
 fun <T> ComponentScope.useFlow(
     initialValue: () -> T,
     vararg keys: Any?,
+    delivery: StateUpdateDelivery = StateUpdateDelivery.Immediate,
     flowBlock: suspend () -> StateFlow<T>,
-): T = useProducer(initialValue, *keys) { flowBlock().collect { update(it) } }
+): T =
+    useProducer(initialValue, *keys, delivery = delivery) { flowBlock().collect { update(it) } }
 
 /**
  * Uses the collection of a StateFlow that is dynamically supplied by [flowBlock].
@@ -19,6 +19,7 @@ package com.facebook.litho
 import com.facebook.litho.annotations.Hook
 import kotlin.coroutines.CoroutineContext
 import kotlin.coroutines.EmptyCoroutineContext
+import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.CoroutineScope
 
 interface StateProducerScope<T> : CoroutineScope {
@@ -36,20 +37,58 @@ private class StateProducerScopeImpl<T>(
     override var coroutineContext: CoroutineContext = EmptyCoroutineContext,
 ) : StateProducerScope<T> {
 
+  var delivery: StateUpdateDelivery = StateUpdateDelivery.Immediate
+    set(value) {
+      if (field != value) {
+        field = value
+        conflatedUpdates =
+            if (value is StateUpdateDelivery.FrameAligned) {
+              ConflatedStateUpdates(
+                  value.minUpdateIntervalMs,
+                  deliverValue = { state.update(it) },
+                  deliverFunction = { state.update(it) })
+            } else {
+              null
+            }
+      }
+    }
+
+  @Volatile private var conflatedUpdates: ConflatedStateUpdates<T>? = null
+
   override fun update(newValue: T) {
-    state.update(newValue)
+    val conflated = conflatedUpdates
+    if (conflated != null) {
+      conflated.enqueue(newValue)
+    } else {
+      state.update(newValue)
+    }
   }
 
   override fun update(newValueFunction: (T) -> T) {
-    state.update(newValueFunction)
+    val conflated = conflatedUpdates
+    if (conflated != null) {
+      conflated.enqueue(newValueFunction)
+    } else {
+      state.update(newValueFunction)
+    }
   }
 
   override fun updateSync(newValue: T) {
+    conflatedUpdates?.cancel()
     state.updateSync(newValue)
   }
 
   override fun updateSync(newValueFunction: (T) -> T) {
-    state.updateSync(newValueFunction)
+    val pending = conflatedUpdates?.takePending()
+    if (pending != null) {
+      state.updateSync { newValueFunction(pending(it)) }
+    } else {
+      state.updateSync(newValueFunction)
+    }
+  }
+
+  fun cancelPendingUpdates() {
+    conflatedUpdates?.cancel()
   }
 }
 
@@ -61,19 +100,29 @@ private class StateProducerScopeImpl<T>(
  *
  * The [producer] is run in the CoroutineScope specified by [getTreeProp].
  *
+ * @param delivery how the updates of the [producer] are delivered to the component. With
+ *   [StateUpdateDelivery.FrameAligned], updates are conflated into at most one state update per
+ *   frame.
  * @return the latest value given by the [producer], or by [initialValue].
  */
 @Hook
 fun <T> ComponentScope.useProducer(
     initialValue: () -> T,
     vararg keys: Any?,
+    delivery: StateUpdateDelivery = StateUpdateDelivery.Immediate,
     producer: suspend StateProducerScope<T>.() -> Unit,
 ): T {
   val state = useState { initialValue() }
   val producerScope = useCached { StateProducerScopeImpl(state) }
+  producerScope.delivery = delivery
   useCoroutine(*keys) {
     producerScope.coroutineContext = coroutineContext
-    producerScope.producer()
+    try {
+      producerScope.producer()
+    } catch (e: CancellationException) {
+      producerScope.cancelPendingUpdates()
+      throw e
+    }
   }
   return state.value
 }
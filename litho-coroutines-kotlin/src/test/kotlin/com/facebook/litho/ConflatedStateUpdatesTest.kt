@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho
+
+import com.facebook.litho.testing.testrunner.LithoTestRunner
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/** Unit tests for [ConflatedStateUpdates]. */
+@RunWith(LithoTestRunner::class)
+class ConflatedStateUpdatesTest {
+
+  private val frameCallbacks: MutableList<Pair<Long, Runnable>> = ArrayList()
+  private val deliveredValues: MutableList<Int> = ArrayList()
+  private val deliveredFunctions: MutableList<(Int) -> Int> = ArrayList()
+  private var now: Long = 0
+
+  @Test
+  fun `enqueue - delivers only the latest value on the next frame`() {
+    val updates = createUpdates()
+
+    updates.enqueue(1)
+    updates.enqueue(2)
+    updates.enqueue(3)
+
+    assertThat(frameCallbacks).hasSize(1)
+    assertThat(deliveredValues).isEmpty()
+    runFrame()
+    assertThat(deliveredValues).containsExactly(3)
+  }
+
+  @Test
+  fun `enqueue - composes update functions into a single update`() {
+    val updates = createUpdates()
+
+    updates.enqueue { value: Int -> value + 1 }
+    updates.enqueue { value: Int -> value * 10 }
+    runFrame()
+
+    assertThat(deliveredFunctions).hasSize(1)
+    assertThat(deliveredFunctions[0](1)).isEqualTo(20)
+  }
+
+  @Test
+  fun `enqueue - applies functions enqueued after a value to that value`() {
+    val updates = createUpdates()
+
+    updates.enqueue(5)
+    updates.enqueue { value: Int -> value + 1 }
+    runFrame()
+
+    assertThat(deliveredValues).containsExactly(6)
+    assertThat(deliveredFunctions).isEmpty()
+  }
+
+  @Test
+  fun `enqueue - delays deliveries to respect the min update interval`() {
+    val updates = createUpdates(minUpdateIntervalMs = 100)
+
+    updates.enqueue(1)
+    assertThat(frameCallbacks.single().first).isEqualTo(0)
+    runFrame()
+
+    now = 30
+    updates.enqueue(2)
+    assertThat(frameCallbacks.single().first).isEqualTo(70)
+  }
+
+  @Test
+  fun `takePending - removes the pending updates`() {
+    val updates = createUpdates()
+
+    updates.enqueue(1)
+    updates.enqueue { value: Int -> value + 1 }
+    val pending = updates.takePending()
+    runFrame()
+
+    assertThat(pending?.invoke(0)).isEqualTo(2)
+    assertThat(deliveredValues).isEmpty()
+    assertThat(deliveredFunctions).isEmpty()
+  }
+
+  @Test
+  fun `cancel - drops the pending updates`() {
+    val updates = createUpdates()
+
+    updates.enqueue(1)
+    updates.cancel()
+    runFrame()
+
+    assertThat(deliveredValues).isEmpty()
+  }
+
+  private fun runFrame() {
+    val callbacks = ArrayList(frameCallbacks)
+    frameCallbacks.clear()
+    callbacks.forEach { it.second.run() }
+  }
+
+  private fun createUpdates(minUpdateIntervalMs: Long = 0): ConflatedStateUpdates<Int> =
+      ConflatedStateUpdates(
+          minUpdateIntervalMs,
+          deliverValue = { deliveredValues.add(it) },
+          deliverFunction = { deliveredFunctions.add(it) },
+          scheduler = { delayMs, callback -> frameCallbacks.add(delayMs to callback) },
+          clock = { now })
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho
+
+import com.facebook.litho.testing.testrunner.LithoTestRunner
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(LithoTestRunner::class)
+class GlobalKeyCacheTest {
+
+  @Test
+  fun `getOrCreate - builds the same keys as the key utils`() {
+    val cache = GlobalKeyCache()
+
+    assertThat(cache.getOrCreate("root", "12", 0))
+        .isEqualTo(
+            ComponentKeyUtils.getKeyForChildPosition(
+                ComponentKeyUtils.getKeyWithSeparator("root", "12"), 0))
+    assertThat(cache.getOrCreate("root", "\$manual", 2))
+        .isEqualTo(
+            ComponentKeyUtils.getKeyForChildPosition(
+                ComponentKeyUtils.getKeyWithSeparator("root", "\$manual"), 2))
+  }
+
+  @Test
+  fun `getOrCreate - returns the same instance for the same child`() {
+    val cache = GlobalKeyCache()
+    val parent = cache.getOrCreate("root", "1", 0)
+
+    val key = cache.getOrCreate(parent, "2", 1)
+
+    assertThat(cache.getOrCreate(parent, "2", 1)).isSameAs(key)
+    assertThat(cache.getOrCreate(StringBuilder(parent).toString(), "2", 1)).isSameAs(key)
+    assertThat(cache.getOrCreate(parent, "2", 2)).isNotEqualTo(key)
+    assertThat(cache.getOrCreate(parent, "3", 1)).isNotEqualTo(key)
+    assertThat(cache.size).isEqualTo(4)
+  }
+
+  @Test
+  fun `getOrCreate - grows and evicts the least recently used half once full`() {
+    val cache = GlobalKeyCache(maxEntries = 100)
+
+    val keys = (0 until 100).map { cache.getOrCreate("root", it.toString(), 0) }
+    assertThat(keys).containsExactlyElementsOf((0 until 100).map { "root,$it" })
+    for (i in 0 until 10) {
+      cache.getOrCreate("root", i.toString(), 0)
+    }
+    assertThat(cache.size).isEqualTo(100)
+
+    cache.getOrCreate("root", "100", 0)
+
+    // The 10 keys looked up again and the 40 last created ones survive.
+    assertThat(cache.size).isEqualTo(51)
+    assertThat(cache.getOrCreate("root", "0", 0)).isSameAs(keys[0])
+    assertThat(cache.getOrCreate("root", "99", 0)).isSameAs(keys[99])
+    assertThat(cache.size).isEqualTo(51)
+    assertThat(cache.getOrCreate("root", "10", 0)).isNotSameAs(keys[10]).isEqualTo(keys[10])
+    assertThat(cache.size).isEqualTo(52)
+  }
+
+  @Test
+  fun `tree state - shares the cache with the tree states created from it`() {
+    val treeState = TreeState()
+
+    assertThat(TreeState(treeState).globalKeyCache).isSameAs(treeState.globalKeyCache)
+  }
+}
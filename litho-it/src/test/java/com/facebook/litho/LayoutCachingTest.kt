@@ -17,6 +17,8 @@
 package com.facebook.litho
 
 import android.graphics.Color
+import android.graphics.Rect
+import com.facebook.litho.config.ComponentsConfiguration
 import com.facebook.litho.sections.SectionContext
 import com.facebook.litho.sections.common.DynamicComponentGroupSection
 import com.facebook.litho.sections.widget.ListRecyclerConfiguration
@@ -34,6 +36,7 @@ import com.facebook.litho.widget.MountSpecPureRenderLifecycleTester
 import com.facebook.litho.widget.RecyclerBinderConfig
 import com.facebook.litho.widget.SimpleStateUpdateEmulator
 import com.facebook.litho.widget.SimpleStateUpdateEmulatorSpec
+import com.facebook.litho.widget.Text
 import com.facebook.yoga.YogaEdge
 import org.assertj.core.api.Assertions
 import org.junit.Rule
@@ -879,6 +882,89 @@ class LayoutCachingTest {
         .isEqualTo(5)
   }
 
+  @Test
+  fun `unchanged cached subtrees are spliced into the next layout state`() {
+    val c = legacyLithoViewRule.context
+    if (!c.shouldCacheLayouts()) {
+      return
+    }
+
+    val spliceCachedSubtreesWhenReducing = ComponentsConfiguration.spliceCachedSubtreesWhenReducing
+    ComponentsConfiguration.spliceCachedSubtreesWhenReducing = true
+    try {
+      val caller = SimpleStateUpdateEmulatorSpec.Caller()
+      legacyLithoViewRule
+          .setRoot(buildComponentWithStaticSubtree(c, caller, initialCount = 1))
+          .attachToWindow()
+          .measure()
+          .layout()
+      val staticDiffNode = legacyLithoViewRule.committedLayoutState?.diffTree?.getChildAt(0)
+
+      // the static subtree is laid out from the cache, so its outputs should be spliced
+      caller.increment()
+      val splicedLayoutState = checkNotNull(legacyLithoViewRule.committedLayoutState)
+      Assertions.assertThat(splicedLayoutState.diffTree?.getChildAt(0))
+          .isNotNull
+          .isSameAs(staticDiffNode)
+
+      // the same tree reduced from scratch should have the same outputs
+      ComponentsConfiguration.spliceCachedSubtreesWhenReducing = false
+      legacyLithoViewRule
+          .setRoot(buildComponentWithStaticSubtree(c, caller, initialCount = 2))
+          .measure()
+          .layout()
+      val reducedLayoutState = checkNotNull(legacyLithoViewRule.committedLayoutState)
+      Assertions.assertThat(reducedLayoutState.diffTree?.getChildAt(0))
+          .isNotSameAs(staticDiffNode)
+      Assertions.assertThat(describeOutputs(splicedLayoutState))
+          .isEqualTo(describeOutputs(reducedLayoutState))
+    } finally {
+      ComponentsConfiguration.spliceCachedSubtreesWhenReducing = spliceCachedSubtreesWhenReducing
+    }
+  }
+
+  private fun buildComponentWithStaticSubtree(
+      c: ComponentContext,
+      caller: SimpleStateUpdateEmulatorSpec.Caller,
+      initialCount: Int
+  ): Component =
+      Column.create(c)
+          .child(
+              Column.create(c)
+                  .backgroundColor(Color.LTGRAY)
+                  .paddingPx(YogaEdge.ALL, 10)
+                  .child(Text.create(c).text("static"))
+                  .child(Text.create(c).text("subtree")))
+          .child(
+              SimpleStateUpdateEmulator.create(c)
+                  .initialCount(initialCount)
+                  .caller(caller)
+                  .build())
+          .build()
+
+  private fun describeOutputs(layoutState: LayoutState): List<String> {
+    val bounds = Rect()
+    val outputs = ArrayList<String>()
+    for (i in 0 until layoutState.getMountableOutputCount()) {
+      val node = layoutState.getMountableOutputAt(i)
+      val id = node.renderUnit.id
+      outputs.add(
+          "${node.renderUnit.description} ${node.getAbsoluteBounds(bounds).toShortString()} " +
+              "parent=${node.parent?.let { layoutState.getPositionForId(it.renderUnit.id) }} " +
+              "positionInParent=${node.positionInParent} " +
+              "position=${layoutState.getPositionForId(id)} " +
+              "index=${layoutState.getIncrementalMountOutputForId(id)?.index}")
+    }
+    for (output in layoutState.getOutputsOrderedByTopBounds()) {
+      outputs.add("top ${output.index} ${output.bounds.toShortString()}")
+    }
+    for (output in layoutState.getOutputsOrderedByBottomBounds()) {
+      outputs.add("bottom ${output.index} ${output.bounds.toShortString()}")
+    }
+    outputs.add("visibility outputs ${layoutState.visibilityOutputCount}")
+    return outputs
+  }
+
   private fun buildRecyclerCollectionComponent(
       context: ComponentContext,
       lifecycleTracker1: LifecycleTracker,
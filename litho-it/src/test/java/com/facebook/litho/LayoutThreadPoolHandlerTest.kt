@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho
+
+import com.facebook.litho.testing.testrunner.LithoTestRunner
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicReference
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.After
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(LithoTestRunner::class)
+class LayoutThreadPoolHandlerTest {
+
+  private val pools = ArrayList<LayoutThreadPool>()
+  private val pool = createPool(threadCount = 2)
+
+  @After
+  fun tearDown() {
+    pools.forEach { it.shutdown() }
+  }
+
+  @Test
+  fun testPost_runsTasksOfOneHandlerInOrder() {
+    val handler = LayoutThreadPoolHandler(pool)
+    val order = Collections.synchronizedList(ArrayList<Int>())
+    val done = CountDownLatch(1)
+
+    for (i in 0 until 100) {
+      handler.post({ order.add(i) }, TAG)
+    }
+    handler.post({ done.countDown() }, TAG)
+
+    assertThat(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue
+    assertThat(order).containsExactlyElementsOf(0 until 100)
+  }
+
+  @Test
+  fun testPostAtFront_runsBeforePendingTasks() {
+    val handler = LayoutThreadPoolHandler(pool)
+    val order = Collections.synchronizedList(ArrayList<String>())
+    val blocker = CountDownLatch(1)
+    val done = CountDownLatch(1)
+
+    handler.post({ blocker.await() }, TAG)
+    handler.post({ order.add("post") }, TAG)
+    handler.postAtFront({ order.add("front") }, TAG)
+    handler.post({ done.countDown() }, TAG)
+    blocker.countDown()
+
+    assertThat(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue
+    assertThat(order).containsExactly("front", "post")
+  }
+
+  @Test
+  fun testPost_runsTasksOfDifferentHandlersInParallel() {
+    val first = LayoutThreadPoolHandler(pool)
+    val second = LayoutThreadPoolHandler(pool)
+    val secondRan = CountDownLatch(1)
+    val done = CountDownLatch(1)
+
+    // The first handler is blocked until the second one runs, which requires a second thread.
+    first.post(
+        {
+          if (secondRan.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            done.countDown()
+          }
+        },
+        TAG)
+    second.post({ secondRan.countDown() }, TAG)
+
+    assertThat(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue
+  }
+
+  @Test
+  fun testPost_runsTasksOfMoreUrgentHandlersFirst() {
+    val singleThreadPool = createPool(threadCount = 1)
+    val blocker = LayoutThreadPoolHandler(singleThreadPool)
+    val far =
+        LayoutThreadPoolHandler(singleThreadPool).apply {
+          priority = LayoutThreadPool.PRIORITY_FAR
+        }
+    val visible =
+        LayoutThreadPoolHandler(singleThreadPool).apply {
+          priority = LayoutThreadPool.PRIORITY_VISIBLE
+        }
+    val order = Collections.synchronizedList(ArrayList<String>())
+    val unblock = CountDownLatch(1)
+    val done = CountDownLatch(2)
+
+    blocker.post({ unblock.await() }, TAG)
+    far.post(
+        {
+          order.add("far")
+          done.countDown()
+        },
+        TAG)
+    visible.post(
+        {
+          order.add("visible")
+          done.countDown()
+        },
+        TAG)
+    unblock.countDown()
+
+    assertThat(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue
+    assertThat(order).containsExactly("visible", "far")
+  }
+
+  @Test
+  fun testPost_crashesTheThreadAndKeepsRunningTasksAfterATaskThrows() {
+    val singleThreadPool = createPool(threadCount = 1)
+    val handler = LayoutThreadPoolHandler(singleThreadPool)
+    val uncaughtException = AtomicReference<Throwable>()
+    val defaultHandler = Thread.getDefaultUncaughtExceptionHandler()
+    val crashed = CountDownLatch(1)
+    Thread.setDefaultUncaughtExceptionHandler { _, e ->
+      uncaughtException.set(e)
+      crashed.countDown()
+    }
+    val done = CountDownLatch(1)
+
+    try {
+      handler.post({ throw IllegalStateException("task failed") }, TAG)
+      handler.post({ done.countDown() }, TAG)
+
+      assertThat(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue
+      assertThat(crashed.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue
+      assertThat(uncaughtException.get())
+          .isInstanceOf(IllegalStateException::class.java)
+          .hasMessage("task failed")
+    } finally {
+      Thread.setDefaultUncaughtExceptionHandler(defaultHandler)
+    }
+  }
+
+  @Test
+  fun testShutdown_rejectsNewTasks() {
+    val singleThreadPool = createPool(threadCount = 1)
+    singleThreadPool.shutdown()
+
+    assertThat(runCatching { singleThreadPool.execute({}) }.exceptionOrNull())
+        .isInstanceOf(IllegalStateException::class.java)
+  }
+
+  @Test
+  fun testPriorityForViewportDistance() {
+    assertThat(LayoutThreadPool.priorityForViewportDistance(0, 5))
+        .isEqualTo(LayoutThreadPool.PRIORITY_VISIBLE)
+    assertThat(LayoutThreadPool.priorityForViewportDistance(4, 5))
+        .isEqualTo(LayoutThreadPool.PRIORITY_DEFAULT)
+    assertThat(LayoutThreadPool.priorityForViewportDistance(5, 5))
+        .isEqualTo(LayoutThreadPool.PRIORITY_FAR)
+  }
+
+  @Test
+  fun testRemove_removesPendingInstances() {
+    val handler = LayoutThreadPoolHandler(pool)
+    var runCounter = 0
+    val runnable = Runnable { runCounter++ }
+    val blocker = CountDownLatch(1)
+    val done = CountDownLatch(1)
+
+    handler.post({ blocker.await() }, TAG)
+    handler.post(runnable, TAG)
+    handler.post(runnable, TAG)
+    handler.remove(runnable)
+    handler.post({ done.countDown() }, TAG)
+    blocker.countDown()
+
+    assertThat(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue
+    assertThat(runCounter).isEqualTo(0)
+  }
+
+  private fun createPool(threadCount: Int): LayoutThreadPool =
+      LayoutThreadPool(threadCount = threadCount).also { pools.add(it) }
+
+  companion object {
+    private const val TAG = "testTag"
+    private const val TIMEOUT_SECONDS = 5L
+  }
+}
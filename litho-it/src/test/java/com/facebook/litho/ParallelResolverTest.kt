@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho
+
+import android.content.Context
+import androidx.test.core.app.ApplicationProvider.getApplicationContext
+import com.facebook.litho.LithoKeyTestingUtil.getScopedComponentInfos
+import com.facebook.litho.config.ComponentsConfiguration
+import com.facebook.litho.testing.testrunner.LithoTestRunner
+import com.facebook.litho.testing.unspecified
+import com.facebook.litho.widget.ComponentCaching
+import com.facebook.litho.widget.LayoutSpecLifecycleTester
+import com.facebook.litho.widget.LayoutSpecWillRenderTester
+import com.facebook.litho.widget.SolidColor
+import com.facebook.litho.widget.Text
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.After
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(LithoTestRunner::class)
+class ParallelResolverTest {
+
+  private val context = ComponentContext(getApplicationContext<Context>())
+
+  @After
+  fun tearDown() {
+    ComponentsConfiguration.enableParallelResolve = false
+  }
+
+  @Test
+  fun `parallel resolve generates the same global keys as a sequential resolve`() {
+    val sequentialKeys = globalKeys(getLithoView(wideComponent()))
+
+    ComponentsConfiguration.enableParallelResolve = true
+    val parallelKeys = globalKeys(getLithoView(wideComponent()))
+
+    assertThat(parallelKeys).isNotEmpty
+    assertThat(parallelKeys).isEqualTo(sequentialKeys)
+  }
+
+  @Test
+  fun `forked children can measure components and check whether they render`() {
+    val child = { i: Int, j: Int ->
+      if (j % 2 == 0) {
+        ComponentCaching.create(context)
+            .component(Text.create(context).text("$i-$j").build())
+            .widthSpec(unspecified(100))
+            .heightSpec(unspecified(100))
+            .build()
+      } else {
+        LayoutSpecWillRenderTester.create(context).steps(mutableListOf()).build()
+      }
+    }
+    val sequentialKeys = globalKeys(getLithoView(wideComponent(child)))
+
+    ComponentsConfiguration.enableParallelResolve = true
+    val parallelKeys = globalKeys(getLithoView(wideComponent(child)))
+
+    assertThat(parallelKeys).isNotEmpty
+    assertThat(parallelKeys).isEqualTo(sequentialKeys)
+  }
+
+  @Test
+  fun `forked children record the event handlers they create`() {
+    val child = { _: Int, _: Int ->
+      LayoutSpecLifecycleTester.create(context).steps(mutableListOf()).build()
+    }
+    val sequentialKeys = eventHandlerKeys(getLithoView(wideComponent(child)))
+
+    ComponentsConfiguration.enableParallelResolve = true
+    val parallelKeys = eventHandlerKeys(getLithoView(wideComponent(child)))
+
+    assertThat(parallelKeys).isNotEmpty
+    assertThat(parallelKeys).isEqualTo(sequentialKeys)
+  }
+
+  @Test
+  fun `estimateCost counts the children of rows and columns`() {
+    val column =
+        Column.create(context)
+            .child(Text.create(context).text("a"))
+            .child(Row.create(context).child(SolidColor.create(context).color(0)))
+            .build()
+
+    assertThat(ParallelResolver.estimateCost(column, 100)).isEqualTo(4)
+    assertThat(ParallelResolver.estimateCost(column, 2)).isEqualTo(2)
+  }
+
+  private fun wideComponent(
+      child: (Int, Int) -> Component = { i, j -> Text.create(context).text("$i-$j").build() }
+  ): Component {
+    val root = Row.create(context)
+    for (i in 0 until COLUMNS) {
+      val column = Column.create(context)
+      for (j in 0 until ROWS) {
+        column.child(child(i, j))
+      }
+      root.child(column)
+    }
+    return root.build()
+  }
+
+  private fun globalKeys(lithoView: LithoView): Map<String, List<String?>> =
+      getScopedComponentInfos(lithoView).mapValues { (_, infos) ->
+        infos.map { it.context.globalKey }
+      }
+
+  private fun eventHandlerKeys(lithoView: LithoView): Set<String> =
+      checkNotNull(lithoView.componentTree).eventHandlersController.dispatchInfos.keys
+
+  private fun getLithoView(component: Component): LithoView {
+    val lithoView = LithoView(context)
+    lithoView.setComponent(component)
+    lithoView.measure(unspecified(640), unspecified(480))
+    lithoView.layout(0, 0, lithoView.measuredWidth, lithoView.measuredHeight)
+    return lithoView
+  }
+
+  companion object {
+    private const val COLUMNS = 4
+    private const val ROWS = 10
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho
+
+import android.content.Context
+import androidx.test.core.app.ApplicationProvider
+import com.facebook.litho.testing.testrunner.LithoTestRunner
+import com.facebook.litho.widget.Text
+import com.facebook.rendercore.utils.MeasureSpecUtils.exactly
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(LithoTestRunner::class)
+class PersistentMeasuredResultCacheTest {
+
+  private val androidContext: Context = ApplicationProvider.getApplicationContext()
+  private val context = ComponentContext(androidContext)
+
+  @Test
+  fun `get - returns entry for equivalent component and same specs`() {
+    val cache = PersistentMeasuredResultCache()
+    val node = LithoNode()
+    cache.put("root,text", text("hello"), null, androidContext, SPEC, SPEC, node, emptyMap(), null)
+
+    val entry = cache.get("root,text", text("hello"), null, androidContext, SPEC, SPEC)
+
+    assertThat(entry?.node).isSameAs(node)
+    assertThat(cache.get("root,text", text("hello"), null, androidContext, SPEC, exactly(50)))
+        .isNull()
+  }
+
+  @Test
+  fun `get - drops entry when props changed`() {
+    val cache = PersistentMeasuredResultCache()
+    cache.put(
+        "root,text", text("hello"), null, androidContext, SPEC, SPEC, LithoNode(), emptyMap(), null)
+
+    assertThat(cache.get("root,text", text("world"), null, androidContext, SPEC, SPEC)).isNull()
+    assertThat(cache.size).isEqualTo(0)
+  }
+
+  @Test
+  fun `get - drops entry when tree props changed`() {
+    val cache = PersistentMeasuredResultCache()
+    val treeProps = TreePropContainer().apply { put(String::class.java, "a") }
+    val otherTreeProps = TreePropContainer().apply { put(String::class.java, "b") }
+    cache.put(
+        "root,text",
+        text("hello"),
+        treeProps,
+        androidContext,
+        SPEC,
+        SPEC,
+        LithoNode(),
+        emptyMap(),
+        null)
+
+    assertThat(cache.get("root,text", text("hello"), otherTreeProps, androidContext, SPEC, SPEC))
+        .isNull()
+  }
+
+  @Test
+  fun `invalidate - drops entries of the updated component and its ancestors`() {
+    val cache = PersistentMeasuredResultCache()
+    cache.put("root", text("a"), null, androidContext, SPEC, SPEC, LithoNode(), emptyMap(), null)
+    cache.put(
+        "root,child", text("b"), null, androidContext, SPEC, SPEC, LithoNode(), emptyMap(), null)
+    cache.put("other", text("c"), null, androidContext, SPEC, SPEC, LithoNode(), emptyMap(), null)
+
+    cache.invalidate("root,child,leaf")
+
+    assertThat(cache.get("root", text("a"), null, androidContext, SPEC, SPEC)).isNull()
+    assertThat(cache.get("root,child", text("b"), null, androidContext, SPEC, SPEC)).isNull()
+    assertThat(cache.get("other", text("c"), null, androidContext, SPEC, SPEC)).isNotNull
+  }
+
+  @Test
+  fun `invalidate - keeps entries of siblings sharing a key prefix`() {
+    val cache = PersistentMeasuredResultCache()
+    cache.put("root,b1", text("a"), null, androidContext, SPEC, SPEC, LithoNode(), emptyMap(), null)
+
+    cache.invalidate("root,b12")
+
+    assertThat(cache.get("root,b1", text("a"), null, androidContext, SPEC, SPEC)).isNotNull
+  }
+
+  @Test
+  fun `copyAndCommitToLayoutStateRecursively - returns a copy of the cached tree`() {
+    val cached = LithoNode()
+    val cachedChild = LithoNode()
+    cached.child(cachedChild)
+    val resolveContext =
+        ResolveContext(0, MeasuredResultCache(), TreeState(), 0, 0, false, null, null, null, null)
+
+    val copy = Resolver.copyAndCommitToLayoutStateRecursively(resolveContext, cached)
+
+    assertThat(copy).isNotSameAs(cached)
+    assertThat(copy.childCount).isEqualTo(1)
+    assertThat(copy.getChildAt(0)).isNotSameAs(cachedChild)
+    assertThat(cached.childCount).isEqualTo(1)
+    assertThat(cached.getChildAt(0)).isSameAs(cachedChild)
+  }
+
+  @Test
+  fun `tree state - state updates invalidate the shared cache`() {
+    val treeState = TreeState()
+    val localTreeState = TreeState(treeState)
+    localTreeState.measuredResultCache.put(
+        "root", text("a"), null, androidContext, SPEC, SPEC, LithoNode(), emptyMap(), null)
+
+    treeState.queueStateUpdate(
+        "root,child", StateUpdateTestComponent.createIncrementStateUpdate(), false, false)
+
+    assertThat(localTreeState.measuredResultCache).isSameAs(treeState.measuredResultCache)
+    assertThat(treeState.measuredResultCache.size).isEqualTo(0)
+  }
+
+  private fun text(text: String): Component = Text.create(context).text(text).build()
+
+  companion object {
+    private val SPEC = exactly(100)
+  }
+}
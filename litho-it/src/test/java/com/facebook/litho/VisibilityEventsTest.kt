@@ -37,6 +37,7 @@ import com.facebook.litho.widget.LayoutSpecLifecycleTester
 import com.facebook.litho.widget.LayoutSpecVisibilityEventTester
 import com.facebook.litho.widget.TextDrawable
 import com.facebook.rendercore.extensions.ExtensionState
+import com.facebook.rendercore.visibility.VisibilityExtensionConfigs
 import com.facebook.rendercore.visibility.VisibilityItem
 import com.facebook.rendercore.visibility.VisibilityMountExtension
 import com.facebook.rendercore.visibility.VisibilityMountExtension.VisibilityMountExtensionState
@@ -2015,6 +2016,55 @@ class VisibilityEventsTest {
         .contains(LifecycleStep.ON_EVENT_VISIBLE)
   }
 
+  @Test
+  fun testIndexedVisibilityProcessingDispatchesTheSameEvents() {
+    val visibleRects =
+        listOf(
+            Rect(0, 0, 10, 25),
+            Rect(0, 10, 10, 35),
+            Rect(0, 12, 10, 14),
+            Rect(0, 70, 10, 100),
+            Rect(0, 0, 10, 20),
+            Rect(0, 40, 10, 40),
+            Rect(0, 0, 10, 100),
+            Rect(0, 95, 10, 140))
+    val fullProcessingSteps = dispatchVisibilityEvents(visibleRects)
+    val indexedProcessingSteps =
+        try {
+          VisibilityExtensionConfigs.useIndexedVisibilityProcessing = true
+          dispatchVisibilityEvents(visibleRects)
+        } finally {
+          VisibilityExtensionConfigs.useIndexedVisibilityProcessing = false
+        }
+
+    assertThat(fullProcessingSteps.flatten())
+        .contains(LifecycleStep.ON_EVENT_VISIBLE, LifecycleStep.ON_EVENT_INVISIBLE)
+    assertThat(indexedProcessingSteps).isEqualTo(fullProcessingSteps)
+  }
+
+  private fun dispatchVisibilityEvents(visibleRects: List<Rect>): List<List<LifecycleStep>> {
+    val c = mLithoTestRule.context
+    val stepsList: MutableList<List<StepInfo>> = mutableListOf()
+    val columnBuilder = Column.create(c)
+    for (i in 0 until 10) {
+      val steps: List<StepInfo> = mutableListOf()
+      columnBuilder.child(LayoutSpecLifecycleTester.create(c).steps(steps).widthPx(10).heightPx(10))
+      stepsList.add(steps)
+    }
+    val testLithoView =
+        mLithoTestRule
+            .createTestLithoView()
+            .setRoot(columnBuilder.build())
+            .attachToWindow()
+            .setSizeSpecs(exactly(10), exactly(100))
+            .measure()
+            .layout()
+    for (visibleRect in visibleRects) {
+      testLithoView.lithoView.notifyVisibleBoundsChanged(visibleRect, true)
+    }
+    return stepsList.map { LifecycleStep.getSteps(it) }
+  }
+
   private fun createHorizontalScrollChildren(
       c: ComponentContext,
       numberOfItems: Int,
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho
+
+import android.graphics.Rect
+import com.facebook.litho.testing.testrunner.LithoTestRunner
+import com.facebook.rendercore.visibility.VisibilityOutput
+import com.facebook.rendercore.visibility.VisibilityOutputsIndex
+import java.util.Random
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(LithoTestRunner::class)
+class VisibilityOutputsIndexTest {
+
+  @Test
+  fun collectCandidates_returnsIntersectingOutputsInIncreasingOrder() {
+    val index =
+        indexOf(
+            Rect(0, 50, 10, 60),
+            Rect(0, 0, 10, 10),
+            Rect(0, 20, 10, 30),
+            Rect(0, 90, 10, 100),
+            Rect(0, 10, 10, 20))
+
+    assertThat(index.candidatesFor(Rect(0, 15, 10, 25), Rect(0, 18, 10, 55)))
+        .containsExactly(0, 2, 4)
+  }
+
+  @Test
+  fun collectCandidates_excludesOutputsTouchingTheEdgesOfTheRects() {
+    val index = indexOf(Rect(0, 0, 10, 10), Rect(0, 10, 10, 20), Rect(0, 20, 10, 30))
+
+    assertThat(index.candidatesFor(Rect(0, 10, 10, 20), Rect(0, 10, 10, 20))).containsExactly(1)
+  }
+
+  @Test
+  fun collectCandidates_withNegativeTops() {
+    val index =
+        indexOf(
+            Rect(0, -30, 10, -20),
+            Rect(0, -15, 10, -5),
+            Rect(0, -5, 10, 5),
+            Rect(0, 5, 10, 15),
+            Rect(0, -15, 10, -14))
+
+    assertThat(index.candidatesFor(Rect(0, -20, 10, -10), Rect(0, -12, 10, -8)))
+        .containsExactly(1, 4)
+  }
+
+  @Test
+  fun collectCandidates_withZeroHeightOutputs() {
+    val index = indexOf(Rect(0, 5, 10, 5), Rect(0, 10, 10, 10), Rect(0, 15, 10, 15))
+
+    assertThat(index.candidatesFor(Rect(0, 5, 10, 15), Rect(0, 5, 10, 15))).containsExactly(1)
+  }
+
+  @Test
+  fun collectCandidates_withDisjointRects_excludesOutputsBetweenThem() {
+    val index = indexOf(*Array(10) { i -> Rect(0, i * 10, 10, i * 10 + 10) })
+
+    assertThat(index.candidatesFor(Rect(0, 0, 10, 20), Rect(0, 70, 10, 90)))
+        .containsExactly(0, 1, 7, 8)
+    assertThat(index.candidatesFor(Rect(0, 70, 10, 90), Rect(0, 0, 10, 20)))
+        .containsExactly(0, 1, 7, 8)
+  }
+
+  @Test
+  fun collectCandidates_matchesCheckingEveryOutput() {
+    val random = Random(42)
+    val bounds =
+        Array(200) {
+          val top = random.nextInt(1000) - 500
+          Rect(0, top, 10, top + random.nextInt(50))
+        }
+    val index = indexOf(*bounds)
+
+    repeat(100) {
+      val previous = randomRect(random)
+      val current = randomRect(random)
+      val expected =
+          bounds.indices.filter { i ->
+            intersectsVertically(bounds[i], previous) || intersectsVertically(bounds[i], current)
+          }
+
+      assertThat(index.candidatesFor(previous, current)).containsExactlyElementsOf(expected)
+    }
+  }
+
+  @Test
+  fun update_reusesTheIndexesForTheSameListAndRebuildsThemForANewList() {
+    val outputs = listOf(createVisibilityOutput(Rect(0, 50, 10, 60), 0))
+    val index = VisibilityOutputsIndex()
+    index.update(outputs)
+
+    outputs[0].bounds.set(0, 0, 10, 10)
+    index.update(outputs)
+    assertThat(index.candidatesFor(Rect(0, 0, 10, 20), Rect(0, 0, 10, 20))).isEmpty()
+
+    index.update(ArrayList(outputs))
+    assertThat(index.candidatesFor(Rect(0, 0, 10, 20), Rect(0, 0, 10, 20))).containsExactly(0)
+  }
+
+  private fun indexOf(vararg bounds: Rect): VisibilityOutputsIndex {
+    val index = VisibilityOutputsIndex()
+    index.update(bounds.mapIndexed { i, rect -> createVisibilityOutput(rect, i) })
+    return index
+  }
+
+  private fun VisibilityOutputsIndex.candidatesFor(previous: Rect, current: Rect): List<Int> {
+    val count = collectCandidates(previous, current)
+    return candidates.take(count)
+  }
+
+  private fun randomRect(random: Random): Rect {
+    val top = random.nextInt(1200) - 600
+    return Rect(0, top, 10, top + 1 + random.nextInt(300))
+  }
+
+  private fun intersectsVertically(bounds: Rect, rect: Rect): Boolean =
+      bounds.top < rect.bottom && bounds.bottom > rect.top
+
+  private fun createVisibilityOutput(bounds: Rect, index: Int): VisibilityOutput =
+      VisibilityOutput(
+          "id$index", "key$index", bounds, 0f, 0f, null, null, null, null, null, null, null)
+}
@@ -21,6 +21,7 @@ import static com.facebook.litho.sections.Change.MOVE;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 
+import com.facebook.litho.sections.config.SectionsConfiguration;
 import com.facebook.litho.sections.logger.SectionsDebugLogger;
 import com.facebook.litho.testing.sections.TestSectionCreator;
 import com.facebook.litho.testing.testrunner.LithoTestRunner;
@@ -112,6 +113,87 @@ public class ChangeSetStateTest {
     }
   }
 
+  @Test
+  public void testNewChangeSetGenerationInParallel() {
+    SectionsConfiguration.parallelChildChangeSets = true;
+    try {
+      final Section leaf1 = createChangeSetComponent("leaf1", 3);
+      final Section leaf2 = createChangeSetComponent("leaf2", 2);
+      final Section leaf3 = createChangeSetComponent("leaf3", 4);
+      final Section node = TestSectionCreator.createSectionComponent("node1", leaf1, leaf2);
+      final Section root = TestSectionCreator.createSectionComponent("root", node, leaf3);
+
+      TestSectionCreator.createTree(root, mSectionContext);
+
+      final ChangeSet changeSet =
+          ChangeSetState.generateChangeSet(
+                  mSectionContext,
+                  null,
+                  root,
+                  mSectionsDebugLogger,
+                  mSectionTreeTag,
+                  mCurrentPrefix,
+                  mNextPrefix,
+                  false)
+              .getChangeSet();
+
+      // Children are merged in order, so the indexes are the same as in a sequential calculation.
+      assertThat(changeSet.getChangeCount()).isEqualTo(9);
+      assertThat(node.getCount()).isEqualTo(5);
+      assertThat(root.getCount()).isEqualTo(9);
+      for (int i = 0, size = changeSet.getChangeCount(); i < size; i++) {
+        assertThat(changeSet.getChangeAt(i).getIndex()).isEqualTo(i);
+      }
+    } finally {
+      SectionsConfiguration.parallelChildChangeSets = false;
+    }
+  }
+
+  @Test
+  public void testRemoveComponentsInParallel() {
+    SectionsConfiguration.parallelChildChangeSets = true;
+    try {
+      final Section leaf1 = createChangeSetComponent("leaf1", 1);
+      final Section leaf2 = createChangeSetComponent("leaf2", 1);
+      final Section node1 = TestSectionCreator.createSectionComponent("node1", true, leaf1);
+      final Section node2 = TestSectionCreator.createSectionComponent("node2", true, leaf2);
+      final Section root = TestSectionCreator.createSectionComponent("root", true, node1, node2);
+      TestSectionCreator.createTree(root, mSectionContext);
+
+      ChangeSetState.generateChangeSet(
+          mSectionContext,
+          null,
+          root,
+          mSectionsDebugLogger,
+          mSectionTreeTag,
+          mCurrentPrefix,
+          mNextPrefix,
+          false);
+
+      final Section newNode1 = TestSectionCreator.createSectionComponent("node1", true);
+      final Section newNode2 = TestSectionCreator.createSectionComponent("node2", true);
+      final Section newRoot =
+          TestSectionCreator.createSectionComponent("root", true, newNode1, newNode2);
+      TestSectionCreator.createTree(newRoot, mSectionContext);
+
+      final ChangeSetState changeSetState =
+          ChangeSetState.generateChangeSet(
+              mSectionContext,
+              root,
+              newRoot,
+              mSectionsDebugLogger,
+              mSectionTreeTag,
+              mCurrentPrefix,
+              mNextPrefix,
+              false);
+
+      assertThat(changeSetState.getChangeSet().getCount()).isEqualTo(0);
+      assertThat(changeSetState.getRemovedComponents()).containsExactly(leaf1, leaf2);
+    } finally {
+      SectionsConfiguration.parallelChildChangeSets = false;
+    }
+  }
+
   @Test
   public void testRecreateSameTree() {
     final Section leaf1 =
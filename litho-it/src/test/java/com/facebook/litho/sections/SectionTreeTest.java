@@ -41,6 +41,7 @@ import com.facebook.litho.widget.ChangeSetCompleteCallback;
 import com.facebook.litho.widget.ComponentRenderInfo;
 import com.facebook.litho.widget.RenderInfo;
 import com.facebook.litho.widget.SmoothScrollAlignmentType;
+import com.facebook.rendercore.RunnableHandler;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -573,6 +574,128 @@ public class SectionTreeTest {
     assertChangeSetNotSeen(changeSetHandler);
   }
 
+  @Test
+  public void testSetRootAsyncWithCoalescingWindow() {
+    final TestTarget changeSetHandler = new TestTarget();
+    SectionTree tree =
+        SectionTree.create(mSectionContext, changeSetHandler)
+            .changeSetCoalescingWindowMs(100)
+            .build();
+
+    tree.setRoot(
+        TestSectionCreator.createChangeSetComponent(
+            "leaf1", Change.insert(0, makeComponentInfo())));
+    changeSetHandler.clear();
+
+    tree.setRootAsync(
+        TestSectionCreator.createChangeSetComponent(
+            "leaf1", Change.insert(1, makeComponentInfo())));
+    tree.setRootAsync(
+        TestSectionCreator.createChangeSetComponent(
+            "leaf1", Change.insert(2, makeComponentInfo())));
+    mChangeSetThreadShadowLooper.idle();
+
+    assertThat(changeSetHandler.wereChangesHandled()).isFalse();
+
+    mChangeSetThreadShadowLooper.idleFor(100, TimeUnit.MILLISECONDS);
+
+    // Only the change set of the last root is calculated and applied.
+    assertThat(changeSetHandler.getOperations()).hasSize(1);
+    assertThat(changeSetHandler.getOperations().get(0).mIndex).isEqualTo(2);
+  }
+
+  @Test
+  public void testSetRootAsyncWithCoalescingWindowOnCustomChangeSetThreadHandler() {
+    final TestTarget changeSetHandler = new TestTarget();
+    final ShadowLooper mainLooper = Shadows.shadowOf(Looper.getMainLooper());
+    SectionTree tree =
+        SectionTree.create(mSectionContext, changeSetHandler)
+            .changeSetThreadHandler(new RunnableHandler.DefaultHandler(Looper.getMainLooper()))
+            .changeSetCoalescingWindowMs(100)
+            .build();
+
+    tree.setRoot(
+        TestSectionCreator.createChangeSetComponent(
+            "leaf1", Change.insert(0, makeComponentInfo())));
+    changeSetHandler.clear();
+
+    tree.setRootAsync(
+        TestSectionCreator.createChangeSetComponent(
+            "leaf1", Change.insert(1, makeComponentInfo())));
+    tree.setRootAsync(
+        TestSectionCreator.createChangeSetComponent(
+            "leaf1", Change.insert(2, makeComponentInfo())));
+    mainLooper.idle();
+
+    assertThat(changeSetHandler.wereChangesHandled()).isFalse();
+
+    mainLooper.idleFor(100, TimeUnit.MILLISECONDS);
+
+    // The window is timed on the handler of the tree, not on the default ChangeSetThread.
+    assertThat(changeSetHandler.getOperations()).hasSize(1);
+    assertThat(changeSetHandler.getOperations().get(0).mIndex).isEqualTo(2);
+  }
+
+  @Test
+  public void testSetRootAsyncWithCoalescingWindowOnHandlerWhichCantPostDelayed() {
+    final TestTarget changeSetHandler = new TestTarget();
+    final ShadowLooper mainLooper = Shadows.shadowOf(Looper.getMainLooper());
+    final List<Runnable> pendingTasks = new ArrayList<>();
+    final RunnableHandler handler =
+        new RunnableHandler() {
+          @Override
+          public boolean isTracing() {
+            return false;
+          }
+
+          @Override
+          public void post(Runnable runnable, String tag) {
+            pendingTasks.add(runnable);
+          }
+
+          @Override
+          public void postAtFront(Runnable runnable, String tag) {
+            pendingTasks.add(0, runnable);
+          }
+
+          @Override
+          public void remove(Runnable runnable) {
+            pendingTasks.remove(runnable);
+          }
+        };
+    SectionTree tree =
+        SectionTree.create(mSectionContext, changeSetHandler)
+            .changeSetThreadHandler(handler)
+            .changeSetCoalescingWindowMs(100)
+            .build();
+
+    tree.setRoot(
+        TestSectionCreator.createChangeSetComponent(
+            "leaf1", Change.insert(0, makeComponentInfo())));
+    changeSetHandler.clear();
+
+    tree.setRootAsync(
+        TestSectionCreator.createChangeSetComponent(
+            "leaf1", Change.insert(1, makeComponentInfo())));
+    tree.setRootAsync(
+        TestSectionCreator.createChangeSetComponent(
+            "leaf1", Change.insert(2, makeComponentInfo())));
+    runTasks(pendingTasks);
+
+    // The flush runs right away and posts itself again as the window didn't elapse yet.
+    assertThat(pendingTasks).isNotEmpty();
+    assertThat(changeSetHandler.wereChangesHandled()).isFalse();
+
+    mainLooper.idleFor(100, TimeUnit.MILLISECONDS);
+    while (!pendingTasks.isEmpty()) {
+      runTasks(pendingTasks);
+    }
+    mainLooper.idle();
+
+    assertThat(changeSetHandler.getOperations()).hasSize(1);
+    assertThat(changeSetHandler.getOperations().get(0).mIndex).isEqualTo(2);
+  }
+
   @Test
   public void testDuplicateItemsUpdateWithIndexOutOfBoundsException() {
     final TestIndexOutOfBoundsExceptionTarget testTarget =
@@ -1024,6 +1147,14 @@ public class SectionTreeTest {
     assertThat(testTarget.wasNotifyChangeSetCompleteCalledWithChangedData()).isFalse();
   }
 
+  private static void runTasks(List<Runnable> pendingTasks) {
+    final List<Runnable> tasks = new ArrayList<>(pendingTasks);
+    pendingTasks.clear();
+    for (Runnable task : tasks) {
+      task.run();
+    }
+  }
+
   private static RenderInfo makeComponentInfo() {
     return ComponentRenderInfo.create().component(mock(Component.class)).build();
   }
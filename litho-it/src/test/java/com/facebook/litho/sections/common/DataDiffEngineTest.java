@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.sections.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/** Tests {@link DataDiffEngine} */
+@RunWith(LithoTestRunner.class)
+public class DataDiffEngineTest {
+
+  private static final String CHANGED = "<changed>";
+  private static final String INSERTED = "<inserted>";
+
+  @Test
+  public void testPrefixAndSuffixChanges_areDispatchedWithoutDiffingTheMiddle() {
+    final List<String> previous = Arrays.asList("a:1", "b:1", "c:1", "d:1", "e:1");
+    final List<String> next = Arrays.asList("a:2", "b:1", "x:1", "d:1", "e:2");
+
+    final RecordingCallback recorder = diff(previous, next, false, -1);
+
+    recorder.assertTransforms(next);
+    assertThat(recorder.mOperations)
+        .containsExactly("change 0 1", "remove 2 1", "insert 2 1", "change 4 1");
+  }
+
+  @Test
+  public void testMoves_areDetectedInTheMiddle() {
+    final List<String> previous = Arrays.asList("a:1", "b:1", "c:1", "d:1", "e:1");
+    final List<String> next = Arrays.asList("a:1", "d:1", "b:1", "c:1", "e:1");
+
+    final RecordingCallback recorder = diff(previous, next, false, -1);
+
+    recorder.assertTransforms(next);
+    assertThat(recorder.mOperations).containsExactly("move 3 1");
+  }
+
+  @Test
+  public void testDisjointMiddle_isReplacedWhenItemsAreHashable() {
+    final List<String> previous = Arrays.asList("a", "b", "c", "d");
+    final List<String> next = Arrays.asList("a", "x", "y", "z", "d");
+
+    final RecordingCallback recorder = diff(previous, next, true, -1);
+
+    recorder.assertTransforms(next);
+    assertThat(recorder.mOperations).containsExactly("remove 1 2", "insert 1 3");
+  }
+
+  @Test
+  public void testExceededBudget_fallsBackToReplacingTheMiddle() {
+    final List<String> previous = new ArrayList<>();
+    final List<String> next = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      previous.add("item" + i + ":1");
+      next.add("item" + (1999 - i) + ":1");
+    }
+
+    final RecordingCallback recorder = diff(previous, next, false, 0);
+
+    recorder.assertTransforms(next);
+    assertThat(recorder.mOperations).containsExactly("remove 0 2000", "insert 0 2000");
+  }
+
+  @Test
+  public void testLargeLists_compareContentsInParallel() {
+    final int size = DataDiffEngine.PARALLEL_CONTENT_CHECK_THRESHOLD * 2;
+    final List<String> previous = new ArrayList<>();
+    final List<String> next = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      previous.add(i + ":1");
+      next.add(i + (i % 1000 == 0 ? ":2" : ":1"));
+    }
+
+    final RecordingCallback recorder = diff(previous, next, false, -1);
+
+    recorder.assertTransforms(next);
+    assertThat(recorder.mOperations).hasSize((size + 999) / 1000);
+  }
+
+  @Test(timeout = 10000)
+  public void testLargeLists_rethrowFailuresOfParallelContentChecks() {
+    final int size = DataDiffEngine.PARALLEL_CONTENT_CHECK_THRESHOLD * 2;
+    final List<String> previous = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      previous.add(i + ":1");
+    }
+    final IllegalStateException failure = new IllegalStateException("content check failed");
+    final DiffUtil.Callback callback =
+        new KeyedCallback(previous, previous) {
+          @Override
+          public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            if (oldItemPosition == size - 1) {
+              throw failure;
+            }
+            return super.areContentsTheSame(oldItemPosition, newItemPosition);
+          }
+        };
+
+    try {
+      DataDiffEngine.calculateDiff(
+          callback, previous, previous, false, true, -1, new RecordingCallback(previous));
+      fail("Expected the failure of the content check to be rethrown");
+    } catch (IllegalStateException e) {
+      assertThat(e).isSameAs(failure);
+    }
+  }
+
+  private static RecordingCallback diff(
+      List<String> previous, List<String> next, boolean hashableItems, long budgetNanos) {
+    final RecordingCallback recorder = new RecordingCallback(previous);
+    DataDiffEngine.calculateDiff(
+        new KeyedCallback(previous, next),
+        previous,
+        next,
+        hashableItems,
+        true,
+        budgetNanos,
+        recorder);
+    return recorder;
+  }
+
+  /** Items are "key:version" strings: items with the same key are the same item. */
+  private static class KeyedCallback extends DiffUtil.Callback {
+
+    private final List<String> mPrevious;
+    private final List<String> mNext;
+
+    KeyedCallback(List<String> previous, List<String> next) {
+      mPrevious = previous;
+      mNext = next;
+    }
+
+    @Override
+    public int getOldListSize() {
+      return mPrevious.size();
+    }
+
+    @Override
+    public int getNewListSize() {
+      return mNext.size();
+    }
+
+    @Override
+    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+      return key(mPrevious.get(oldItemPosition)).equals(key(mNext.get(newItemPosition)));
+    }
+
+    @Override
+    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+      return mPrevious.get(oldItemPosition).equals(mNext.get(newItemPosition));
+    }
+
+    private static String key(String item) {
+      final int separator = item.indexOf(':');
+      return separator < 0 ? item : item.substring(0, separator);
+    }
+  }
+
+  /** Applies the updates to a copy of the previous list. */
+  private static class RecordingCallback implements ListUpdateCallback {
+
+    private final List<String> mItems;
+    private final List<String> mOperations = new ArrayList<>();
+
+    RecordingCallback(List<String> previous) {
+      mItems = new ArrayList<>(previous);
+    }
+
+    @Override
+    public void onInserted(int position, int count) {
+      mOperations.add("insert " + position + " " + count);
+      for (int i = 0; i < count; i++) {
+        mItems.add(position, INSERTED);
+      }
+    }
+
+    @Override
+    public void onRemoved(int position, int count) {
+      mOperations.add("remove " + position + " " + count);
+      for (int i = 0; i < count; i++) {
+        mItems.remove(position);
+      }
+    }
+
+    @Override
+    public void onMoved(int fromPosition, int toPosition) {
+      mOperations.add("move " + fromPosition + " " + toPosition);
+      mItems.add(toPosition, mItems.remove(fromPosition));
+    }
+
+    @Override
+    public void onChanged(int position, int count, @Nullable Object payload) {
+      mOperations.add("change " + position + " " + count);
+      for (int i = position; i < position + count; i++) {
+        mItems.set(i, CHANGED);
+      }
+    }
+
+    void assertTransforms(List<String> next) {
+      assertThat(mItems).hasSize(next.size());
+      for (int i = 0; i < next.size(); i++) {
+        final String item = mItems.get(i);
+        if (!item.equals(INSERTED) && !item.equals(CHANGED)) {
+          assertThat(item).isEqualTo(next.get(i));
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.widget
+
+import com.facebook.litho.testing.testrunner.LithoTestRunner
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(LithoTestRunner::class)
+class AdaptiveRangePolicyTest {
+
+  private var now: Long = 0
+  private val policy = AdaptiveRangePolicy(rangeRatio = 2f, clock = { now })
+
+  @Test
+  fun `idle list uses the range ratio on both sides`() {
+    policy.onViewportChanged(10)
+
+    assertThat(policy.direction).isEqualTo(0)
+    assertThat(policy.getLeadingRange(5)).isEqualTo(10)
+    assertThat(policy.getTrailingRange(5)).isEqualTo(10)
+  }
+
+  @Test
+  fun `fast scroll grows the range ahead and shrinks the range behind`() {
+    scroll(from = 0, itemsPerFrame = 2, frames = 10)
+
+    assertThat(policy.direction).isEqualTo(1)
+    assertThat(policy.getLeadingRange(5)).isEqualTo(40)
+    assertThat(policy.getTrailingRange(5)).isEqualTo(5)
+  }
+
+  @Test
+  fun `scrolling backward reverses the direction`() {
+    scroll(from = 100, itemsPerFrame = -2, frames = 10)
+
+    assertThat(policy.direction).isEqualTo(-1)
+  }
+
+  @Test
+  fun `range ahead is capped by the item layout cost`() {
+    // 100ms per item, so only 10 items can be laid out in the default 1s lookahead.
+    policy.onItemLayoutComputed(100_000_000L)
+    scroll(from = 0, itemsPerFrame = 2, frames = 10)
+
+    assertThat(policy.getLeadingRange(2)).isEqualTo(10)
+  }
+
+  @Test
+  fun `list becomes idle after the scroll stops`() {
+    scroll(from = 0, itemsPerFrame = 2, frames = 10)
+    now += 1000
+
+    assertThat(policy.direction).isEqualTo(0)
+    assertThat(policy.getLeadingRange(5)).isEqualTo(10)
+  }
+
+  private fun scroll(from: Int, itemsPerFrame: Int, frames: Int) {
+    for (i in 0..frames) {
+      policy.onViewportChanged(from + i * itemsPerFrame)
+      now += 16
+    }
+  }
+}
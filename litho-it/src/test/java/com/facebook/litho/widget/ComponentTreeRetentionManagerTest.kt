@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.widget
+
+import com.facebook.litho.config.ComponentsConfiguration
+import com.facebook.litho.testing.testrunner.LithoTestRunner
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(LithoTestRunner::class)
+class ComponentTreeRetentionManagerTest {
+
+  private val released: MutableSet<ComponentTreeHolder> = HashSet()
+  private val layoutCosts: MutableMap<ComponentTreeHolder, Long> = HashMap()
+
+  @Test
+  fun `retain - evicts least recently retained holders when over budget`() {
+    val manager = createManager(maxSizeBytes = 2)
+    val first = holder()
+    val second = holder()
+    val third = holder()
+
+    assertThat(manager.retain(first)).isEmpty()
+    assertThat(manager.retain(second)).isEmpty()
+    assertThat(manager.retain(third)).containsExactly(first)
+
+    assertThat(manager.isRetained(first)).isFalse
+    assertThat(manager.isRetained(second)).isTrue
+    assertThat(manager.isRetained(third)).isTrue
+    assertThat(manager.sizeBytes).isEqualTo(2)
+  }
+
+  @Test
+  fun `retain - does not refresh holders which are already retained`() {
+    val manager = createManager(maxSizeBytes = 2)
+    val first = holder()
+    val second = holder()
+    manager.retain(first)
+    manager.retain(second)
+
+    assertThat(manager.retain(first)).isEmpty()
+    assertThat(manager.retain(holder())).containsExactly(first)
+  }
+
+  @Test
+  fun `retain - releases holders which are cheap to lay out again`() {
+    val manager = createManager(maxSizeBytes = 2, minLayoutCostNs = 100)
+    val cheap = holder().also { layoutCosts[it] = 10 }
+    val expensive = holder().also { layoutCosts[it] = 1_000 }
+    val unknown = holder()
+
+    assertThat(manager.retain(cheap)).containsExactly(cheap)
+    assertThat(manager.retain(expensive)).isEmpty()
+    assertThat(manager.retain(unknown)).isEmpty()
+    assertThat(manager.isRetained(cheap)).isFalse
+  }
+
+  @Test
+  fun `retain - drops holders released by other means before evicting`() {
+    val manager = createManager(maxSizeBytes = 2)
+    val first = holder()
+    val second = holder()
+    manager.retain(first)
+    manager.retain(second)
+
+    released.add(second)
+
+    assertThat(manager.retain(holder())).isEmpty()
+    assertThat(manager.isRetained(first)).isTrue
+    assertThat(manager.isRetained(second)).isFalse
+  }
+
+  @Test
+  fun `revive - stops retaining holders which move back into range`() {
+    val manager = createManager(maxSizeBytes = 2)
+    val first = holder()
+    val second = holder()
+    manager.retain(first)
+    manager.retain(second)
+
+    assertThat(manager.revive(first)).isTrue
+    assertThat(manager.revive(first)).isFalse
+    assertThat(manager.sizeBytes).isEqualTo(1)
+    assertThat(manager.retain(holder())).isEmpty()
+  }
+
+  private fun createManager(maxSizeBytes: Int, minLayoutCostNs: Long = 0) =
+      ComponentTreeRetentionManager(
+          maxSizeBytes = maxSizeBytes,
+          minLayoutCostNs = minLayoutCostNs,
+          sizeOf = { 1 },
+          layoutCostOf = { layoutCosts[it] ?: 0 },
+          isReleased = { it in released })
+
+  private fun holder(): ComponentTreeHolder =
+      ComponentTreeHolder.create(ComponentsConfiguration.defaultInstance)
+          .renderInfo(ComponentRenderInfo.createEmpty())
+          .build()
+}
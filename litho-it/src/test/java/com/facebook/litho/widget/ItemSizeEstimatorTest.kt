@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.widget
+
+import android.graphics.Color
+import com.facebook.litho.ComponentContext
+import com.facebook.litho.testing.testrunner.LithoTestRunner
+import com.facebook.rendercore.utils.MeasureSpecUtils.exactly
+import com.facebook.rendercore.utils.MeasureSpecUtils.unspecified
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RuntimeEnvironment
+
+@RunWith(LithoTestRunner::class)
+class ItemSizeEstimatorTest {
+
+  private val context = ComponentContext(RuntimeEnvironment.getApplication())
+
+  @Test
+  fun `lastKnownSizeByType - returns the last size measured for the same type`() {
+    val estimator = ItemSizeEstimator.lastKnownSizeByType()
+
+    assertThat(estimator.estimateSize(text("a"), WIDTH_SPEC, HEIGHT_SPEC)).isNull()
+
+    estimator.onItemMeasured(text("a"), 100, 40)
+    estimator.onItemMeasured(text("b"), 100, 60)
+
+    val size = estimator.estimateSize(text("c"), WIDTH_SPEC, HEIGHT_SPEC)
+    assertThat(size?.width).isEqualTo(100)
+    assertThat(size?.height).isEqualTo(60)
+    assertThat(estimator.estimateSize(solidColor(), WIDTH_SPEC, HEIGHT_SPEC)).isNull()
+  }
+
+  @Test
+  fun `averageSizeByType - returns the average size measured for the same type`() {
+    val estimator = ItemSizeEstimator.averageSizeByType()
+
+    estimator.onItemMeasured(text("a"), 100, 40)
+    estimator.onItemMeasured(text("b"), 100, 60)
+    estimator.onItemMeasured(solidColor(), 100, 10)
+
+    val size = estimator.estimateSize(text("c"), WIDTH_SPEC, HEIGHT_SPEC)
+    assertThat(size?.width).isEqualTo(100)
+    assertThat(size?.height).isEqualTo(50)
+    assertThat(estimator.estimateSize(solidColor(), WIDTH_SPEC, HEIGHT_SPEC)?.height).isEqualTo(10)
+  }
+
+  private fun text(text: String): RenderInfo =
+      ComponentRenderInfo.create().component(Text.create(context).text(text).build()).build()
+
+  private fun solidColor(): RenderInfo =
+      ComponentRenderInfo.create()
+          .component(SolidColor.create(context).color(Color.RED).build())
+          .build()
+
+  companion object {
+    private val WIDTH_SPEC = exactly(100)
+    private val HEIGHT_SPEC = unspecified()
+  }
+}
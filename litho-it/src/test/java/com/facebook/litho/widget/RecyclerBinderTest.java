@@ -903,6 +903,38 @@ public class RecyclerBinderTest {
     validateRangeWithRetainMaximumRangeStrategy(components, 40, 43, 40, 43);
   }
 
+  @Test
+  public void testRemovedItemsAreNoLongerRetained() {
+    final RecyclerBinder recyclerBinder =
+        mRecyclerBinderBuilder
+            .recyclerBinderConfig(
+                RecyclerBinderConfig.create()
+                    .rangeRatio(RANGE_RATIO)
+                    .layoutRetentionBudgetBytes(1024 * 1024)
+                    .build())
+            .build(mComponentContext);
+    final List<ComponentRenderInfo> components = prepareLoadedBinder(recyclerBinder, 100);
+    final ComponentTreeRetentionManager retentionManager =
+        Whitebox.getInternalState(recyclerBinder, "mRetentionManager");
+
+    recyclerBinder.onNewVisibleRange(40, 42);
+
+    final List<TestComponentTreeHolder> holders = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      final TestComponentTreeHolder holder =
+          mHoldersForComponents.get(components.get(i).getComponent());
+      assertThat(retentionManager.isRetained(holder)).isTrue();
+      holders.add(holder);
+    }
+
+    recyclerBinder.removeItemAt(0);
+    recyclerBinder.removeRangeAt(0, 2);
+
+    for (TestComponentTreeHolder holder : holders) {
+      assertThat(retentionManager.isRetained(holder)).isFalse();
+    }
+  }
+
   @Test
   public void testIncreaseDecreaseMoveRangeAhead_withRetainMaximumRangeRecyclingStrategy() {
     final RecyclerBinder recyclerBinder =
@@ -3996,6 +4028,62 @@ public class RecyclerBinderTest {
     assertThat(holder.getRenderState()).isEqualTo(ComponentTreeHolder.RENDER_DRAWN);
   }
 
+  @Test
+  public void testBindPlaceholderForItemWithoutLayoutAndRebindOnceLayoutIsCommitted() {
+    final FrameLayout rootView = new FrameLayout(mComponentContext.getAndroidContext());
+    final TestViewHolder testViewHolder = spy(new TestViewHolder(mComponentContext, rootView));
+    final LithoView lithoView = testViewHolder.getLithoView();
+    final RecyclerBinderAdapterDelegate delegate = mock(RecyclerBinderAdapterDelegate.class);
+    when(delegate.onCreateViewHolder(any(), anyInt())).thenReturn(testViewHolder);
+    final ItemSizeEstimator itemSizeEstimator = mock(ItemSizeEstimator.class);
+    when(itemSizeEstimator.estimateSize(any(), anyInt(), anyInt())).thenReturn(new Size(100, 40));
+    final RecyclerBinder recyclerBinder =
+        new RecyclerBinder.Builder()
+            .recyclerBinderConfig(
+                RecyclerBinderConfig.create()
+                    .rangeRatio(RANGE_RATIO)
+                    .itemSizeEstimator(itemSizeEstimator)
+                    .build())
+            .setAdapterDelegate(delegate)
+            .build(mComponentContext);
+    final RecyclerView recyclerView = new RecyclerView(mComponentContext.getAndroidContext());
+    recyclerBinder.mount(recyclerView);
+    recyclerBinder.measure(
+        new Size(), makeSizeSpec(100, EXACTLY), makeSizeSpec(200, EXACTLY), null);
+    final AdapterDataObserver observer = mock(AdapterDataObserver.class);
+    recyclerView.getAdapter().registerAdapterDataObserver(observer);
+
+    final ComponentRenderInfo renderInfo =
+        ComponentRenderInfo.create()
+            .component(SimpleMountSpecTester.create(mComponentContext).build())
+            .build();
+    recyclerBinder.insertItemAt(0, renderInfo);
+    recyclerBinder.notifyChangeSetComplete(true, NO_OP_CHANGE_SET_COMPLETE_CALLBACK);
+    final ComponentTreeHolder holder = recyclerBinder.getComponentTreeHolderAt(0);
+
+    recyclerView.getAdapter().onBindViewHolder(testViewHolder, 0);
+
+    // The item is bound as an empty placeholder of the estimated height.
+    verify(testViewHolder)
+        .setLithoViewLayoutParams(
+            eq(lithoView), eq(100), eq(40), anyInt(), eq(makeSizeSpec(40, EXACTLY)), eq(false));
+    assertThat(lithoView.getComponentTree()).isNull();
+    verify(delegate).onBindViewHolder(testViewHolder, 0, null, renderInfo);
+
+    reset(observer);
+    runToEndOfTasks();
+    ShadowLooper.runUiThreadTasks();
+
+    // The item is bound again once its layout is committed.
+    verify(observer).onItemRangeChanged(0, 1, null);
+    verify(itemSizeEstimator).onItemMeasured(eq(renderInfo), eq(100), anyInt());
+
+    recyclerView.getAdapter().onBindViewHolder(testViewHolder, 0);
+
+    assertThat(lithoView.getComponentTree()).isSameAs(holder.getComponentTree());
+    verify(delegate).onBindViewHolder(testViewHolder, 0, holder.getComponentTree(), renderInfo);
+  }
+
   @Test
   public void testOnDataBound() {
     final ChangeSetCompleteCallback changeSetCompleteCallback1 =
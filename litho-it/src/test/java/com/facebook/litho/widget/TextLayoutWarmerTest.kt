@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.widget
+
+import com.facebook.litho.ComponentContext
+import com.facebook.litho.SizeSpec
+import com.facebook.litho.config.ComponentsConfiguration
+import com.facebook.litho.testing.testrunner.LithoTestRunner
+import com.facebook.rendercore.RenderCoreConfig
+import com.facebook.rendercore.TextLayoutCache
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RuntimeEnvironment
+
+@RunWith(LithoTestRunner::class)
+class TextLayoutWarmerTest {
+
+  private val context = ComponentContext(RuntimeEnvironment.getApplication())
+  private val pending: MutableList<Runnable> = ArrayList()
+  private val widthSpec = SizeSpec.makeSizeSpec(200, SizeSpec.EXACTLY)
+
+  @Before
+  fun setUp() {
+    RenderCoreConfig.useSharedTextLayoutCache = true
+    TextLayoutCache.sharedInstance.clear()
+  }
+
+  @After
+  fun tearDown() {
+    RenderCoreConfig.useSharedTextLayoutCache = false
+    TextLayoutCache.sharedInstance.clear()
+  }
+
+  @Test
+  fun `warm - measures the extracted text in batches`() {
+    val warmer = createWarmer(texts = listOf("a", "b", "c"), batchSize = 2)
+    val holder = holder()
+
+    warmer.warm(context, holder, widthSpec)
+
+    assertThat(pending).hasSize(2)
+    assertThat(warmer.isWarming(holder)).isTrue
+    runPending()
+    assertThat(warmer.isWarming(holder)).isFalse
+    assertThat(TextLayoutCache.sharedInstance.sizeCharacters).isEqualTo(3)
+  }
+
+  @Test
+  fun `warm - does not warm an item twice while it is being warmed`() {
+    val warmer = createWarmer(texts = listOf("a"), batchSize = 1)
+    val holder = holder()
+
+    warmer.warm(context, holder, widthSpec)
+    warmer.warm(context, holder, widthSpec)
+
+    assertThat(pending).hasSize(1)
+  }
+
+  @Test
+  fun `cancel - skips the batches which did not run yet`() {
+    val warmer = createWarmer(texts = listOf("a", "b"), batchSize = 1)
+    val holder = holder()
+
+    warmer.warm(context, holder, widthSpec)
+    warmer.cancel(holder)
+    runPending()
+
+    assertThat(warmer.isWarming(holder)).isFalse
+    assertThat(TextLayoutCache.sharedInstance.sizeCharacters).isEqualTo(0)
+  }
+
+  @Test
+  fun `warm - does nothing when the shared text layout cache is disabled`() {
+    RenderCoreConfig.useSharedTextLayoutCache = false
+    val warmer = createWarmer(texts = listOf("a"), batchSize = 1)
+
+    warmer.warm(context, holder(), widthSpec)
+
+    assertThat(pending).isEmpty()
+  }
+
+  private fun runPending() {
+    val toRun = ArrayList(pending)
+    pending.clear()
+    toRun.forEach { it.run() }
+  }
+
+  private fun createWarmer(texts: List<String>, batchSize: Int): TextLayoutWarmer =
+      TextLayoutWarmer(
+          extractor = { _, childrenWidthSpec ->
+            texts.map {
+              TextLayoutWarmer.WarmableText(
+                  Text.create(context).text(it).build(), childrenWidthSpec)
+            }
+          },
+          batchSize = batchSize,
+          executor = { pending.add(it) })
+
+  private fun holder(): ComponentTreeHolder =
+      ComponentTreeHolder.create(ComponentsConfiguration.defaultInstance)
+          .renderInfo(ComponentRenderInfo.createEmpty())
+          .build()
+}
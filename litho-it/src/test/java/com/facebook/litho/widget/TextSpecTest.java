@@ -25,7 +25,9 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import android.content.Context;
 import android.content.res.ColorStateList;
+import android.content.res.Configuration;
 import android.graphics.Color;
 import android.graphics.drawable.Drawable;
 import android.text.Layout;
@@ -39,10 +41,14 @@ import com.facebook.litho.ComponentContext;
 import com.facebook.litho.DynamicValue;
 import com.facebook.litho.EventHandler;
 import com.facebook.litho.LithoView;
+import com.facebook.litho.Size;
+import com.facebook.litho.SizeSpec;
 import com.facebook.litho.testing.LithoViewRule;
 import com.facebook.litho.testing.eventhandler.EventHandlerTestHelper;
 import com.facebook.litho.testing.helper.ComponentTestHelper;
 import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import com.facebook.rendercore.RenderCoreConfig;
+import com.facebook.rendercore.TextLayoutCache;
 import com.facebook.yoga.YogaDirection;
 import javax.annotation.Nullable;
 import org.junit.Before;
@@ -101,6 +107,41 @@ public class TextSpecTest {
     }
   }
 
+  @Test
+  public void testSharedTextLayoutsAreNotReusedAcrossFontScales() {
+    RenderCoreConfig.useSharedTextLayoutCache = true;
+    TextLayoutCache.getSharedInstance().clear();
+    try {
+      final Context appContext = getApplicationContext();
+      final Configuration configuration =
+          new Configuration(appContext.getResources().getConfiguration());
+      configuration.fontScale = 2f;
+      final ComponentContext scaledContext =
+          new ComponentContext(appContext.createConfigurationContext(configuration));
+      final int widthSpec = SizeSpec.makeSizeSpec(200, SizeSpec.EXACTLY);
+      final int heightSpec = SizeSpec.makeSizeSpec(0, SizeSpec.UNSPECIFIED);
+      final Size size = new Size();
+      final Size scaledSize = new Size();
+
+      Text.create(mContext)
+          .text("a")
+          .textColor(Color.BLACK)
+          .build()
+          .measureMightNotCacheInternalNode(mContext, widthSpec, heightSpec, size);
+      Text.create(scaledContext)
+          .text("a")
+          .textColor(Color.BLACK)
+          .build()
+          .measureMightNotCacheInternalNode(scaledContext, widthSpec, heightSpec, scaledSize);
+
+      assertThat(TextLayoutCache.getSharedInstance().getSizeCharacters()).isEqualTo(2);
+      assertThat(scaledSize.height).isGreaterThan(size.height);
+    } finally {
+      RenderCoreConfig.useSharedTextLayoutCache = false;
+      TextLayoutCache.getSharedInstance().clear();
+    }
+  }
+
   @Test
   public void testTextWithoutClickableSpans() {
     TextDrawable drawable = getMountedDrawableForText("Some text.");
@@ -40,11 +40,10 @@ import com.facebook.rendercore.extensions.MountExtension;
 import com.facebook.rendercore.extensions.OnItemCallbacks;
 import com.facebook.rendercore.extensions.VisibleBoundsCallbacks;
 import com.facebook.rendercore.incrementalmount.IncrementalMountExtension.IncrementalMountExtensionState;
+import com.facebook.rendercore.utils.LongHashSet;
+import com.facebook.rendercore.utils.LongObjectHashMap;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import kotlin.Unit;
 import org.jetbrains.annotations.NotNull;
 
@@ -586,15 +585,14 @@ public class IncrementalMountExtension
           "Updates: [Items Mounted=" + itemsMounted + ", Items Unmounted=" + itemsUnmounted + "]");
     }
 
-    for (long id : state.mMountedOutputIdsWithNestedContent.keySet()) {
+    for (int i = 0, size = state.mMountedOutputIdsWithNestedContent.getSize(); i < size; i++) {
+      final long id = state.mMountedOutputIdsWithNestedContent.keyAt(i);
       if (state.mComponentIdsMountedInThisFrame.contains(id)) {
         continue;
       }
 
-      final Object content = state.mMountedOutputIdsWithNestedContent.get(id);
-      if (content != null) {
-        recursivelyNotifyVisibleBoundsChanged(extensionState, id, content);
-      }
+      final Object content = state.mMountedOutputIdsWithNestedContent.valueAt(i);
+      recursivelyNotifyVisibleBoundsChanged(extensionState, id, content);
     }
 
     state.mComponentIdsMountedInThisFrame.clear();
@@ -697,9 +695,11 @@ public class IncrementalMountExtension
   public static class IncrementalMountExtensionState {
 
     private final Rect mPreviousLocalVisibleRect = new Rect();
-    private final Set<Long> mComponentIdsMountedInThisFrame = new HashSet<>();
-    private final Set<Long> mItemsShouldNotNotifyVisibleBoundsChangedOnChildren = new HashSet<>();
-    private final HashMap<Long, Object> mMountedOutputIdsWithNestedContent = new HashMap<>(8);
+    private final LongHashSet mComponentIdsMountedInThisFrame = new LongHashSet();
+    private final LongHashSet mItemsShouldNotNotifyVisibleBoundsChangedOnChildren =
+        new LongHashSet();
+    private final LongObjectHashMap<Object> mMountedOutputIdsWithNestedContent =
+        new LongObjectHashMap<>(8);
 
     private @Nullable IncrementalMountExtensionInput mInput;
     private int mPreviousTopsIndex;
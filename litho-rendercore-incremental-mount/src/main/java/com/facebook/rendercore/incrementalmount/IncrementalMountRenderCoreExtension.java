@@ -25,14 +25,13 @@ import com.facebook.rendercore.extensions.LayoutResultVisitor;
 import com.facebook.rendercore.extensions.MountExtension;
 import com.facebook.rendercore.extensions.RenderCoreExtension;
 import com.facebook.rendercore.incrementalmount.IncrementalMountExtension.IncrementalMountExtensionState;
+import com.facebook.rendercore.utils.LongHashSet;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
@@ -115,7 +114,7 @@ public class IncrementalMountRenderCoreExtension
         new TreeSet<>(sTopsComparator);
     private final SortedSet<IncrementalMountOutput> outputsOrderedByBottomBounds =
         new TreeSet<>(sBottomsComparator);
-    private final Set<Long> renderUnitIdsWhichHostRenderTrees = new HashSet<>(4);
+    private final LongHashSet renderUnitIdsWhichHostRenderTrees = new LongHashSet(4);
 
     private @Nullable List<IncrementalMountOutput> outputsOrderedByTopBoundsList;
     private @Nullable List<IncrementalMountOutput> outputsOrderedByBottomBoundsList;
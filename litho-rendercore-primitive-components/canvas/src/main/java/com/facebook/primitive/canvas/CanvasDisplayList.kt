@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.primitive.canvas
+
+import android.graphics.Canvas
+import android.graphics.Picture
+import android.os.Build
+import com.facebook.primitive.canvas.model.CanvasModel
+
+/**
+ * The drawing commands of a [CanvasModel] recorded into a [Picture], so that a [CanvasView] can
+ * replay them on every draw instead of issuing every command of the model again. A display list is
+ * valid for as long as the model is equal to the one it was recorded from and the size of the view
+ * doesn't change.
+ *
+ * Recording doesn't need a [CanvasView], so it can happen on a background thread during layout.
+ */
+class CanvasDisplayList
+private constructor(
+    private val model: CanvasModel,
+    private val width: Int,
+    private val height: Int,
+    private val picture: Picture,
+) {
+
+  /** @return true if this display list can be drawn for [model] in a view of the given size. */
+  fun isValidFor(model: CanvasModel, width: Int, height: Int): Boolean =
+      this.width == width && this.height == height && this.model == model
+
+  fun draw(canvas: Canvas) {
+    canvas.drawPicture(picture)
+  }
+
+  companion object {
+
+    /**
+     * Records the drawing commands of [model] for a view of the given size. When [withOwnState] is
+     * true, the model is drawn with a new [CanvasState] instead of its own, which makes it safe to
+     * record off the main thread while a view draws with the state of the model.
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun record(
+        model: CanvasModel,
+        width: Int,
+        height: Int,
+        withOwnState: Boolean = false
+    ): CanvasDisplayList {
+      val picture = Picture()
+      val canvas = picture.beginRecording(width, height)
+      try {
+        if (withOwnState) {
+          model.draw(canvas, CanvasState())
+        } else {
+          model.draw(canvas)
+        }
+      } finally {
+        picture.endRecording()
+      }
+      return CanvasDisplayList(model, width, height, picture)
+    }
+
+    /** Hardware accelerated canvases only support drawing a [Picture] from Android M. */
+    @JvmStatic
+    fun canDraw(canvas: Canvas): Boolean =
+        !canvas.isHardwareAccelerated || Build.VERSION.SDK_INT >= Build.VERSION_CODES.M
+  }
+}
@@ -40,25 +40,38 @@ import com.facebook.rendercore.utils.fillSpace
  *   versions.
  * @param modelProvider The lambda that returns an instance of the CanvasModel describing the
  *   drawing commands.
+ * @param useDisplayList Whether the drawing commands are recorded into a [CanvasDisplayList] and
+ *   replayed for as long as the model doesn't change, instead of being issued on every draw.
+ * @param recordDisplayListInLayout Whether the [CanvasDisplayList] is recorded during layout, which
+ *   usually happens on a background thread, instead of on the first draw. Only used if
+ *   [useDisplayList] is true.
  * @return a Primitive canvas component.
  */
 @Suppress("FunctionName")
 fun CanvasPrimitive(
     id: Long,
     layerType: CanvasLayerType,
+    useDisplayList: Boolean = false,
+    recordDisplayListInLayout: Boolean = false,
     modelProvider: (canvasSize: CanvasSize) -> CanvasModel
 ): Primitive {
   return Primitive(
-      layoutBehavior = CanvasLayoutBehavior(modelProvider),
+      layoutBehavior =
+          CanvasLayoutBehavior(useDisplayList && recordDisplayListInLayout, modelProvider),
       mountBehavior =
           MountBehavior(id, ViewAllocator { context -> CanvasView(context) }) {
-            bindWithLayoutData<CanvasModel> { content, canvasModel ->
-              content.canvasModel = canvasModel
+            bind(useDisplayList) { content ->
+              content.useDisplayList = useDisplayList
+              onUnbind { content.useDisplayList = false }
+            }
+            bindWithLayoutData<CanvasLayoutData> { content, layoutData ->
+              content.setCanvasModel(layoutData.canvasModel, layoutData.displayList)
               onUnbind { content.canvasModel = null }
             }
-            bindWithLayoutData<CanvasModel>(layerType) { content, canvasModel ->
+            bindWithLayoutData<CanvasLayoutData>(layerType) { content, layoutData ->
               val defaultLayerType = content.layerType
-              val canvasLayerType = layerType.toLayerType(canvasModel.needsSoftwareLayer())
+              val canvasLayerType =
+                  layerType.toLayerType(layoutData.canvasModel.needsSoftwareLayer())
               if (content.layerType != canvasLayerType) {
                 content.setLayerType(canvasLayerType, null)
               }
@@ -71,12 +84,33 @@ fun CanvasPrimitive(
           })
 }
 
+/**
+ * The layout data of the canvas: the model and the [CanvasDisplayList] recorded for it during
+ * layout, if any. Equality only depends on the model, so that recording the same model again
+ * doesn't rebind the view.
+ */
+private class CanvasLayoutData(val canvasModel: CanvasModel, val displayList: CanvasDisplayList?) {
+
+  override fun equals(other: Any?): Boolean =
+      this === other || (other is CanvasLayoutData && canvasModel == other.canvasModel)
+
+  override fun hashCode(): Int = canvasModel.hashCode()
+}
+
 private class CanvasLayoutBehavior(
+    private val recordDisplayList: Boolean,
     private val modelProvider: (canvasSize: CanvasSize) -> CanvasModel
 ) : LayoutBehavior {
   override fun LayoutScope.layout(sizeConstraints: SizeConstraints): PrimitiveLayoutResult {
     val size = Size.fillSpace(sizeConstraints, fallbackWidth = 0, fallbackHeight = 0)
     val canvasModel = modelProvider(CanvasSize(size.width.toFloat(), size.height.toFloat()))
-    return PrimitiveLayoutResult(size = size, layoutData = canvasModel)
+    val displayList =
+        if (recordDisplayList && size.width > 0 && size.height > 0) {
+          CanvasDisplayList.record(canvasModel, size.width, size.height, withOwnState = true)
+        } else {
+          null
+        }
+    return PrimitiveLayoutResult(
+        size = size, layoutData = CanvasLayoutData(canvasModel, displayList))
   }
 }
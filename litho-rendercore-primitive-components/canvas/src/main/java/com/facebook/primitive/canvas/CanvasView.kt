@@ -22,7 +22,13 @@ import android.util.AttributeSet
 import android.view.View
 import com.facebook.primitive.canvas.model.CanvasModel
 
-/** A View that executes drawing commands represented as CanvasModel. */
+/**
+ * A View that executes drawing commands represented as CanvasModel.
+ *
+ * When [useDisplayList] is enabled, the commands are recorded into a [CanvasDisplayList] the first
+ * time the model is drawn and replayed on the following draws, until a model which isn't equal to
+ * it is set or the view is resized.
+ */
 class CanvasView @JvmOverloads constructor(context: Context, attrs: AttributeSet? = null) :
     View(context, attrs) {
 
@@ -30,16 +36,54 @@ class CanvasView @JvmOverloads constructor(context: Context, attrs: AttributeSet
     set(value) {
       if (field != value) {
         field = value
+        if (value == null) {
+          displayList = null
+        }
         invalidate()
       }
     }
 
+  var useDisplayList: Boolean = false
+    set(value) {
+      if (field != value) {
+        field = value
+        displayList = null
+        invalidate()
+      }
+    }
+
+  private var displayList: CanvasDisplayList? = null
+
   init {
     setWillNotDraw(false)
   }
 
+  /**
+   * Sets the model to draw along with a [displayList] which was already recorded for it, e.g. on a
+   * background thread during layout.
+   */
+  fun setCanvasModel(model: CanvasModel?, displayList: CanvasDisplayList?) {
+    canvasModel = model
+    if (displayList != null && model != null) {
+      this.displayList = displayList
+    }
+  }
+
   override fun onDraw(canvas: Canvas) {
     super.onDraw(canvas)
-    canvasModel?.draw(canvas)
+    val model = canvasModel ?: return
+    if (!useDisplayList || !CanvasDisplayList.canDraw(canvas)) {
+      model.draw(canvas)
+      return
+    }
+
+    val current = displayList
+    val valid =
+        if (current != null && current.isValidFor(model, width, height)) {
+          current
+        } else {
+          CanvasDisplayList.record(model, width, height).also { displayList = it }
+        }
+    valid.draw(canvas)
   }
 }
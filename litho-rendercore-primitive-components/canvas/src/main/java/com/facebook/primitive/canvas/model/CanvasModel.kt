@@ -61,8 +61,16 @@ data class CanvasModel(
    * @param canvas a canvas which should be used for executing the drawing commands
    */
   fun draw(canvas: Canvas) {
+    draw(canvas, canvasState)
+  }
+
+  /**
+   * Draw the model onto the provided canvas using the given [state] instead of the state of the
+   * model.
+   */
+  internal fun draw(canvas: Canvas, state: CanvasState) {
     for (i in children.indices) {
-      children[i].draw(canvas, canvasState)
+      children[i].draw(canvas, state)
     }
   }
 
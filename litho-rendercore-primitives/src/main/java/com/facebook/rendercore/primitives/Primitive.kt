@@ -18,6 +18,7 @@ package com.facebook.rendercore.primitives
 
 import android.graphics.drawable.Drawable
 import android.view.View
+import com.facebook.rendercore.LayoutCache
 import com.facebook.rendercore.LayoutContext
 import com.facebook.rendercore.LayoutResult
 import com.facebook.rendercore.Node
@@ -46,11 +47,39 @@ class Primitive(val layoutBehavior: LayoutBehavior, private val mountBehavior: M
       widthSpec: Int,
       heightSpec: Int
   ): LayoutResult {
-    val layoutScope = LayoutScope(context, context.consumePreviousLayoutDataForCurrentNode())
-    return with(layoutBehavior) {
-      layoutScope
-          .layout(SizeConstraints.fromMeasureSpecs(widthSpec, heightSpec))
-          .toNodeLayoutResult(renderUnit)
+    val previousLayoutData = context.consumePreviousLayoutDataForCurrentNode()
+    val renderUnit = renderUnit
+    val sharedCache = context.layoutCache.sharedCache
+
+    if (sharedCache != null) {
+      val entry = sharedCache.get(renderUnit.id, widthSpec, heightSpec, context)
+      val owner = entry?.owner
+      if (owner is LayoutBehavior && owner.isEquivalentTo(layoutBehavior)) {
+        val cached = entry.cacheItem.layoutResult
+        return PrimitiveLayoutResult(
+                width = cached.width,
+                height = cached.height,
+                paddingTop = cached.paddingTop,
+                paddingRight = cached.paddingRight,
+                paddingBottom = cached.paddingBottom,
+                paddingLeft = cached.paddingLeft,
+                layoutData = cached.layoutData)
+            .toNodeLayoutResult(renderUnit)
+      }
     }
+
+    val layoutScope = LayoutScope(context, previousLayoutData)
+    val result =
+        with(layoutBehavior) {
+          layoutScope
+              .layout(SizeConstraints.fromMeasureSpecs(widthSpec, heightSpec))
+              .toNodeLayoutResult(renderUnit)
+        }
+    sharedCache?.put(
+        renderUnit.id,
+        layoutBehavior,
+        LayoutCache.CacheItem(result, widthSpec, heightSpec),
+        context)
+    return result
   }
 }
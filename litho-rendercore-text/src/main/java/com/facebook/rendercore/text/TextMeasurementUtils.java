@@ -19,7 +19,6 @@ package com.facebook.rendercore.text;
 import android.content.Context;
 import android.graphics.Paint;
 import android.graphics.Rect;
-import android.graphics.Typeface;
 import android.os.Build;
 import android.text.BoringLayout;
 import android.text.Layout;
@@ -31,28 +30,21 @@ import android.text.style.ClickableSpan;
 import android.text.style.ImageSpan;
 import android.text.style.MetricAffectingSpan;
 import android.util.Pair;
-import android.util.SparseIntArray;
 import android.view.View;
-import androidx.annotation.GuardedBy;
 import androidx.annotation.Size;
 import androidx.annotation.VisibleForTesting;
 import androidx.core.text.TextDirectionHeuristicsCompat;
 import com.facebook.fbui.textlayoutbuilder.TextLayoutBuilder;
 import com.facebook.fbui.textlayoutbuilder.util.LayoutMeasureUtil;
+import com.facebook.rendercore.FontMetricsCache;
 import com.facebook.rendercore.LayoutContext;
 import com.facebook.rendercore.MountableLayoutResult;
+import com.facebook.rendercore.RenderCoreConfig;
+import com.facebook.rendercore.TextLayoutCache;
 import com.facebook.rendercore.utils.LayoutUtils;
 
 public class TextMeasurementUtils {
 
-  private static final String CAP_MEASUREMENT_TEXT = "T";
-
-  @GuardedBy("self")
-  // Map from hash(textSize, typeface) -> cap heights array for text
-  private static final SparseIntArray sCapHeightsCache = new SparseIntArray();
-
-  private static final SparseIntArray sBaselineCache = new SparseIntArray();
-
   // The offsets of the returned values within the int array.
   private static final int CAP_HEIGHT_OFFSET_INDEX = 0;
   private static final int BASELINE_OFFSET_INDEX = 1;
@@ -486,7 +478,57 @@ public class TextMeasurementUtils {
     }
     layoutBuilder.setAlignment(textAlignment);
 
-    return layoutBuilder.build();
+    // The paint of layouts with a color state list is updated when the view state changes, so they
+    // can't be shared.
+    if (!RenderCoreConfig.useSharedTextLayoutCache
+        || textStyle.textColorStateList != null
+        || !TextLayoutCache.isCacheable(text)) {
+      return layoutBuilder.build();
+    }
+
+    final TextLayoutCache cache = TextLayoutCache.getSharedInstance();
+    final TextLayoutCache.Key key =
+        new TextLayoutCache.Key(
+            text,
+            widthSpec,
+            context.getResources().getDisplayMetrics().density,
+            actualEllipsize,
+            includeFontPadding,
+            textStyle.maxLines,
+            textStyle.shadowRadius,
+            textStyle.shadowDx,
+            textStyle.shadowDy,
+            textStyle.shadowColor,
+            textStyle.isSingleLine,
+            // In pixels: an unset size keeps the default size of the paint, which doesn't depend on
+            // the font scale.
+            textStyle.textSize,
+            textStyle.lineSpacingExtra,
+            textStyle.lineHeightMultiplier,
+            textStyle.lineHeight,
+            textStyle.letterSpacing,
+            textStyle.linkColor,
+            textStyle.textColor,
+            textStyle.justificationMode,
+            textStyle.breakStrategy,
+            textStyle.hyphenationFrequency,
+            textStyle.shouldLayoutEmptyText,
+            textStyle.minEms,
+            textStyle.maxEms,
+            textStyle.minTextWidth,
+            textStyle.maxTextWidth,
+            textStyle.typeface,
+            textStyle.textStyle,
+            textStyle.textDirection,
+            textAlignment);
+    Layout layout = cache.get(key);
+    if (layout == null) {
+      layout = layoutBuilder.build();
+      if (layout != null) {
+        cache.put(key, layout);
+      }
+    }
+    return layout;
   }
 
   private static boolean hasManualSpacing(TextStyle textStyle) {
@@ -573,8 +615,6 @@ public class TextMeasurementUtils {
    */
   private static @Size(2) int[] getCapHeightBaselineSpacing(Paint paint, CharSequence text) {
     final TextPaint capTextPaint = new TextPaint(paint);
-    Paint.FontMetricsInt fontMetricsInt = null;
-
     if (text instanceof Spanned && text.length() > 0) {
       MetricAffectingSpan[] spans = ((Spanned) text).getSpans(0, 0, MetricAffectingSpan.class);
       for (int i = 0; i < spans.length; i++) {
@@ -582,23 +622,6 @@ public class TextMeasurementUtils {
       }
     }
 
-    final int hashCode = getKey(capTextPaint.getTextSize(), capTextPaint.getTypeface());
-
-    int capHeight;
-    synchronized (sCapHeightsCache) {
-      capHeight = sCapHeightsCache.get(hashCode, Integer.MIN_VALUE);
-    }
-
-    if (capHeight == Integer.MIN_VALUE) {
-      final Rect rect = new Rect();
-      fontMetricsInt = new Paint.FontMetricsInt();
-      capTextPaint.getFontMetricsInt(fontMetricsInt);
-      capTextPaint.getTextBounds(CAP_MEASUREMENT_TEXT, 0, CAP_MEASUREMENT_TEXT.length(), rect);
-      capHeight = (-1 * fontMetricsInt.ascent) - rect.height();
-      synchronized (sCapHeightsCache) {
-        sCapHeightsCache.put(hashCode, capHeight);
-      }
-    }
     final TextPaint baselineTextPaint = new TextPaint(paint);
     if (text instanceof Spanned && text.length() > 0) {
       MetricAffectingSpan[] spans =
@@ -608,37 +631,11 @@ public class TextMeasurementUtils {
         spans[i].updateMeasureState(baselineTextPaint);
       }
     }
-    final int baselineHashCode =
-        getKey(baselineTextPaint.getTextSize(), baselineTextPaint.getTypeface());
-    int baseline;
-    synchronized (sBaselineCache) {
-      baseline = sBaselineCache.get(baselineHashCode, Integer.MIN_VALUE);
-    }
-    if (baseline == Integer.MIN_VALUE) {
-      if (fontMetricsInt == null
-          || capTextPaint.getTextSize() != baselineTextPaint.getTextSize()
-          || capTextPaint.getTypeface() != baselineTextPaint.getTypeface()) {
-        fontMetricsInt = new Paint.FontMetricsInt();
-        baselineTextPaint.getFontMetricsInt(fontMetricsInt);
-      }
 
-      baseline = fontMetricsInt.descent;
-      synchronized (sBaselineCache) {
-        sBaselineCache.put(baselineHashCode, baseline);
-      }
-    }
+    final FontMetricsCache fontMetricsCache = FontMetricsCache.getSharedInstance();
+    final int capHeight = fontMetricsCache.get(capTextPaint).getCapHeightOffset();
+    final int baseline = fontMetricsCache.get(baselineTextPaint).getDescent();
 
     return new int[] {capHeight, baseline};
   }
-
-  /**
-   * Get the key for a given size + typeface.
-   *
-   * <p>We use the size + typeface as a key without checking for collisions. In theory this could
-   * collide, in which case we will return incorrect values.
-   */
-  private static int getKey(float textSizePx, Typeface typeface) {
-    // Hash code implementation, see https://stackoverflow.com/questions/113511/
-    return 31 * (int) textSizePx + typeface.hashCode();
-  }
 }
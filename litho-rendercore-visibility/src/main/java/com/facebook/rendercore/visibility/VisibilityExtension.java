@@ -18,18 +18,17 @@ package com.facebook.rendercore.visibility;
 
 import android.graphics.Rect;
 import androidx.annotation.Nullable;
-import androidx.collection.ArraySet;
 import com.facebook.infer.annotation.Nullsafe;
 import com.facebook.rendercore.LayoutResult;
 import com.facebook.rendercore.RenderTreeNode;
 import com.facebook.rendercore.RenderUnit;
 import com.facebook.rendercore.extensions.LayoutResultVisitor;
 import com.facebook.rendercore.extensions.RenderCoreExtension;
+import com.facebook.rendercore.utils.LongHashSet;
 import com.facebook.rendercore.visibility.VisibilityExtension.Results;
 import com.facebook.rendercore.visibility.VisibilityMountExtension.VisibilityMountExtensionState;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 @Nullsafe(Nullsafe.Mode.LOCAL)
 public class VisibilityExtension
@@ -61,7 +60,7 @@ public class VisibilityExtension
   public static class Results implements VisibilityExtensionInput {
 
     private final List<VisibilityOutput> outputs = new ArrayList<>(8);
-    private final Set<Long> renderUnitIdsWhichHostRenderTrees = new ArraySet<>(4);
+    private final LongHashSet renderUnitIdsWhichHostRenderTrees = new LongHashSet(4);
 
     @Override
     public List<VisibilityOutput> getVisibilityOutputs() {
@@ -69,7 +68,7 @@ public class VisibilityExtension
     }
 
     @Override
-    public Set<Long> getRenderUnitIdsWhichHostRenderTrees() {
+    public LongHashSet getRenderUnitIdsWhichHostRenderTrees() {
       return renderUnitIdsWhichHostRenderTrees;
     }
 
@@ -26,6 +26,11 @@ object VisibilityExtensionConfigs {
   const val DEBUG_TAG: String = "VisibilityExtension"
   /** Skips visibility checks for fully visible items */
   @JvmField var skipVisChecksForFullyVisible: Boolean = false
+  /**
+   * When only the visible rect changes, processes only the outputs which intersect the previous or
+   * the current visible rect, found with indexes sorted by bounds.
+   */
+  @JvmField var useIndexedVisibilityProcessing: Boolean = false
   /** Set this to true to enable debug logs for the visibility extension. */
   @JvmField var isDebugLoggingEnabled: Boolean = false
 }
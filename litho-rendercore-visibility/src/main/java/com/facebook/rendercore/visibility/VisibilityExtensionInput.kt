@@ -18,6 +18,7 @@ package com.facebook.rendercore.visibility
 
 import com.facebook.rendercore.RenderTreeHost
 import com.facebook.rendercore.RenderUnit
+import com.facebook.rendercore.utils.LongHashSet
 
 /** This APIs declares that inputs required by the Visibility Extensions. */
 interface VisibilityExtensionInput {
@@ -26,7 +27,7 @@ interface VisibilityExtensionInput {
   val visibilityOutputs: List<VisibilityOutput>
 
   /** Returns the set of ids of [RenderUnit]s which host [RenderTreeHost] */
-  val renderUnitIdsWhichHostRenderTrees: Set<Long>
+  val renderUnitIdsWhichHostRenderTrees: LongHashSet
   val isProcessingVisibilityOutputsEnabled: Boolean
   val visibilityBoundsTransformer: VisibilityBoundsTransformer?
 }
@@ -40,12 +40,12 @@ import com.facebook.rendercore.debug.DebugEventDispatcher;
 import com.facebook.rendercore.extensions.ExtensionState;
 import com.facebook.rendercore.extensions.MountExtension;
 import com.facebook.rendercore.extensions.VisibleBoundsCallbacks;
+import com.facebook.rendercore.utils.LongHashSet;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 @Nullsafe(Nullsafe.Mode.LOCAL)
 public class VisibilityMountExtension<Input extends VisibilityExtensionInput>
@@ -253,8 +253,26 @@ public class VisibilityMountExtension<Input extends VisibilityExtensionInput>
 
       final boolean isTracing = RenderCoreSystrace.isTracing();
 
-      final Rect intersection = new Rect();
-      for (int j = 0; j < size; j++) {
+      // When only the visible rect moved, only the outputs intersecting the previous or the current
+      // visible rect can dispatch events.
+      final int count;
+      final @Nullable int[] candidates;
+      if (VisibilityExtensionConfigs.useIndexedVisibilityProcessing
+          && !isDirty
+          && transformer == null
+          && !previousVisibleRect.isEmpty()) {
+        state.mVisibilityOutputsIndex.update(state.mVisibilityOutputs);
+        count =
+            state.mVisibilityOutputsIndex.collectCandidates(previousVisibleRect, localVisibleRect);
+        candidates = state.mVisibilityOutputsIndex.getCandidates();
+      } else {
+        count = size;
+        candidates = null;
+      }
+
+      final Rect intersection = state.mIntersection;
+      for (int i = 0; i < count; i++) {
+        final int j = candidates != null ? candidates[i] : i;
         final VisibilityOutput visibilityOutput = state.mVisibilityOutputs.get(j);
         final String componentName = visibilityOutput.getKey();
 
@@ -466,7 +484,8 @@ public class VisibilityMountExtension<Input extends VisibilityExtensionInput>
     }
 
     final MountDelegate mountDelegate = extensionState.getMountDelegate();
-    for (long id : state.mRenderUnitIdsWhichHostRenderTrees) {
+    for (int i = 0, count = state.mRenderUnitIdsWhichHostRenderTrees.getSize(); i < count; i++) {
+      final long id = state.mRenderUnitIdsWhichHostRenderTrees.keyAt(i);
       if (VisibilityExtensionConfigs.isDebugLoggingEnabled) {
         Log.d(DEBUG_TAG, "RecursivelyNotify:RenderUnit[id=" + id + "]");
       }
@@ -656,9 +675,11 @@ public class VisibilityMountExtension<Input extends VisibilityExtensionInput>
     // the map.
     private final Map<String, VisibilityItem> mVisibilityIdToItemMap = new HashMap<>();
     private final Rect mPreviousLocalVisibleRect = new Rect();
+    private final Rect mIntersection = new Rect();
+    private final VisibilityOutputsIndex mVisibilityOutputsIndex = new VisibilityOutputsIndex();
 
     private List<VisibilityOutput> mVisibilityOutputs = Collections.emptyList();
-    private Set<Long> mRenderUnitIdsWhichHostRenderTrees = Collections.emptySet();
+    private LongHashSet mRenderUnitIdsWhichHostRenderTrees = new LongHashSet(0);
     private @Nullable Rect mCurrentLocalVisibleRect;
     private @Nullable VisibilityBoundsTransformer mVisibilityBoundsTransformer;
     private @Nullable VisibilityExtensionInput mInput;
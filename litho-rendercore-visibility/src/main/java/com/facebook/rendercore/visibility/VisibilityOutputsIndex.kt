@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.rendercore.visibility
+
+import android.graphics.Rect
+import java.util.Arrays
+
+/**
+ * Indexes of [VisibilityOutput]s sorted by the top and the bottom of their bounds, used to find
+ * the outputs whose visibility can change when the visible rect moves.
+ *
+ * An output which intersects neither the previous nor the current visible rect was not visible
+ * before and is not visible now, so no event can be dispatched for it. The indexes are only built
+ * when the outputs change, and finding the candidates doesn't allocate.
+ */
+class VisibilityOutputsIndex {
+
+  private var outputs: List<VisibilityOutput>? = null
+
+  /** Each entry packs the top of the bounds in the upper 32 bits and the index in the lower 32. */
+  private var byTop: LongArray = EMPTY
+
+  /** Like [byTop], for the bottom of the bounds. */
+  private var byBottom: LongArray = EMPTY
+
+  /** The indexes of the candidates found by the last [collectCandidates]. */
+  var candidates: IntArray = IntArray(0)
+    private set
+
+  /** Rebuilds the indexes if [visibilityOutputs] is not the list they were built for. */
+  fun update(visibilityOutputs: List<VisibilityOutput>) {
+    if (outputs === visibilityOutputs) {
+      return
+    }
+    outputs = visibilityOutputs
+    val size = visibilityOutputs.size
+    if (byTop.size != size) {
+      byTop = LongArray(size)
+      byBottom = LongArray(size)
+      candidates = IntArray(size)
+    }
+    for (i in 0 until size) {
+      val bounds = visibilityOutputs[i].bounds
+      byTop[i] = pack(bounds.top, i)
+      byBottom[i] = pack(bounds.bottom, i)
+    }
+    Arrays.sort(byTop)
+    Arrays.sort(byBottom)
+  }
+
+  /**
+   * Collects into [candidates], in increasing order, the indexes of the outputs which vertically
+   * intersect [previous] or [current].
+   *
+   * @return the number of candidates.
+   */
+  fun collectCandidates(previous: Rect, current: Rect): Int {
+    val top = minOf(previous.top, current.top)
+    val bottom = maxOf(previous.bottom, current.bottom)
+
+    // Outputs with top < bottom are at the start of byTop, and outputs with bottom > top at the end
+    // of byBottom: walk the shorter range, and filter out the outputs between disjoint rects.
+    val aboveBottom = lowerBound(byTop, bottom)
+    val belowTop = byBottom.size - lowerBound(byBottom, top + 1)
+    var count = 0
+    if (aboveBottom <= belowTop) {
+      for (i in 0 until aboveBottom) {
+        val index = unpackIndex(byTop[i])
+        if (intersectsEither(checkNotNull(outputs)[index].bounds, previous, current)) {
+          candidates[count++] = index
+        }
+      }
+    } else {
+      for (i in byBottom.size - belowTop until byBottom.size) {
+        val index = unpackIndex(byBottom[i])
+        if (intersectsEither(checkNotNull(outputs)[index].bounds, previous, current)) {
+          candidates[count++] = index
+        }
+      }
+    }
+    Arrays.sort(candidates, 0, count)
+    return count
+  }
+
+  companion object {
+    private val EMPTY = LongArray(0)
+
+    private fun pack(value: Int, index: Int): Long =
+        (value.toLong() shl 32) or (index.toLong() and 0xffffffffL)
+
+    private fun unpackIndex(packed: Long): Int = packed.toInt()
+
+    private fun intersectsEither(bounds: Rect, previous: Rect, current: Rect): Boolean =
+        intersectsVertically(bounds, previous) || intersectsVertically(bounds, current)
+
+    private fun intersectsVertically(bounds: Rect, rect: Rect): Boolean =
+        bounds.top < rect.bottom && bounds.bottom > rect.top
+
+    /** @return the number of entries of [sorted] whose packed value is less than [value]. */
+    private fun lowerBound(sorted: LongArray, value: Int): Int {
+      val key = value.toLong() shl 32
+      var low = 0
+      var high = sorted.size
+      while (low < high) {
+        val mid = (low + high) ushr 1
+        if (sorted[mid] < key) {
+          low = mid + 1
+        } else {
+          high = mid
+        }
+      }
+      return low
+    }
+  }
+}
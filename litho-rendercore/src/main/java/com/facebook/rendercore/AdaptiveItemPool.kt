@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.rendercore
+
+import android.content.ComponentCallbacks2
+import android.content.Context
+import android.os.SystemClock
+import androidx.annotation.VisibleForTesting
+import com.facebook.rendercore.MountItemsPool.ItemPool
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * An [ItemPool] whose size adapts to how the content type is used.
+ *
+ * The pool keeps statistics over a sliding window (closed after [windowAcquires] acquires or after
+ * [windowDurationMs], whichever comes first):
+ * - if acquires missed the pool (i.e. content had to be created), the target size grows by the
+ *   number of misses, up to [maxPoolSize];
+ * - if there were no misses and some content stayed idle in the pool for the whole window, the
+ *   target size shrinks by half of the idle content, down to [minPoolSize], and the extra content
+ *   is dropped.
+ *
+ * Content is also dropped when the system signals memory pressure through [onTrimMemory].
+ */
+class AdaptiveItemPool
+@JvmOverloads
+constructor(
+    poolableContentType: Any,
+    initialPoolSize: Int,
+    private val minPoolSize: Int = 1,
+    private val maxPoolSize: Int = initialPoolSize * DEFAULT_MAX_GROWTH_FACTOR,
+    private val windowAcquires: Int = DEFAULT_WINDOW_ACQUIRES,
+    private val windowDurationMs: Long = DEFAULT_WINDOW_DURATION_MS,
+    private val clock: () -> Long = { SystemClock.uptimeMillis() },
+) : ItemPool {
+
+  init {
+    require(minPoolSize in 0..maxPoolSize) {
+      "Invalid pool bounds: min=$minPoolSize, max=$maxPoolSize"
+    }
+  }
+
+  private val pool: ConcurrentBoundedPool<Any> = ConcurrentBoundedPool(maxPoolSize)
+
+  private val debugIdentifier: String =
+      (poolableContentType as? Class<*>)?.name ?: poolableContentType.toString()
+
+  private val _targetSize: AtomicInteger =
+      AtomicInteger(initialPoolSize.coerceIn(minPoolSize, maxPoolSize))
+
+  private val windowStartMs: AtomicLong = AtomicLong(clock())
+  private val acquires: AtomicInteger = AtomicInteger(0)
+  private val misses: AtomicInteger = AtomicInteger(0)
+  private val minIdle: AtomicInteger = AtomicInteger(Int.MAX_VALUE)
+
+  /** The number of items the pool currently retains at most. */
+  val targetSize: Int
+    get() = _targetSize.get()
+
+  /** The number of items currently in the pool. */
+  val size: Int
+    get() = pool.size
+
+  override fun acquire(contentAllocator: ContentAllocator<*>): Any? {
+    val content = pool.acquire()
+    if (content == null) {
+      misses.incrementAndGet()
+    }
+    updateMinIdle(pool.size)
+    if (acquires.incrementAndGet() >= windowAcquires) {
+      maybeCloseWindow(force = true)
+    }
+    return content
+  }
+
+  override fun release(item: Any): Boolean {
+    maybeCloseWindow(force = false)
+    if (pool.size >= _targetSize.get()) {
+      return false
+    }
+    return try {
+      pool.release(item)
+    } catch (e: IllegalStateException) {
+      val metadata = "Failed to release item to MountItemPool: $debugIdentifier"
+      throw IllegalStateException(metadata, e)
+    }
+  }
+
+  override fun maybePreallocateContent(c: Context, contentAllocator: ContentAllocator<*>): Boolean {
+    return if (pool.size < _targetSize.get()) {
+      release(contentAllocator.createContent(c))
+    } else false
+  }
+
+  override fun onTrimMemory(level: Int) {
+    if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+      _targetSize.set(minPoolSize)
+      trimTo(if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) 0 else minPoolSize)
+      resetWindow(clock())
+    }
+  }
+
+  private fun updateMinIdle(idle: Int) {
+    while (true) {
+      val current = minIdle.get()
+      if (idle >= current || minIdle.compareAndSet(current, idle)) {
+        return
+      }
+    }
+  }
+
+  private fun maybeCloseWindow(force: Boolean) {
+    val now = clock()
+    val start = windowStartMs.get()
+    if (!force && now - start < windowDurationMs) {
+      return
+    }
+    // Only one thread gets to evaluate a given window.
+    if (!windowStartMs.compareAndSet(start, now)) {
+      return
+    }
+
+    val windowMisses = misses.getAndSet(0)
+    val windowIdle = minIdle.getAndSet(Int.MAX_VALUE)
+    acquires.set(0)
+
+    val target = _targetSize.get()
+    if (windowMisses > 0) {
+      _targetSize.set((target + windowMisses).coerceAtMost(maxPoolSize))
+    } else {
+      // If nothing was acquired during the window, everything in the pool was idle.
+      val idle = if (windowIdle == Int.MAX_VALUE) pool.size else windowIdle
+      if (idle > 0) {
+        val newTarget = (target - (idle + 1) / 2).coerceAtLeast(minPoolSize)
+        _targetSize.set(newTarget)
+        trimTo(newTarget)
+      }
+    }
+  }
+
+  private fun resetWindow(now: Long) {
+    windowStartMs.set(now)
+    acquires.set(0)
+    misses.set(0)
+    minIdle.set(Int.MAX_VALUE)
+  }
+
+  private fun trimTo(size: Int) {
+    while (pool.size > size) {
+      pool.acquire() ?: return
+    }
+  }
+
+  @VisibleForTesting
+  internal fun closeWindow() {
+    maybeCloseWindow(force = true)
+  }
+
+  companion object {
+    const val DEFAULT_MAX_GROWTH_FACTOR: Int = 4
+    const val DEFAULT_WINDOW_ACQUIRES: Int = 64
+    const val DEFAULT_WINDOW_DURATION_MS: Long = 10_000
+  }
+}
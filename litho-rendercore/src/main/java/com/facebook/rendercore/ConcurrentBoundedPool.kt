@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.rendercore
+
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+import java.util.concurrent.atomic.AtomicReferenceArray
+
+/**
+ * A bounded, lock-free, multi-producer multi-consumer pool backed by a ring buffer.
+ *
+ * Every slot carries a sequence number which tells producers and consumers whether the slot is
+ * ready to be written to or read from for the current lap of the ring. Threads claim a slot by
+ * advancing the shared head or tail position with a CAS, so [acquire] and [release] never block and
+ * threads only contend when they race on the same position.
+ *
+ * Unlike [androidx.core.util.Pools.SimplePool] the pool is FIFO, which is fine for mount content
+ * since all pooled instances are interchangeable.
+ */
+internal class ConcurrentBoundedPool<T : Any>(val capacity: Int) {
+
+  init {
+    require(capacity > 0) { "The max pool size must be > 0" }
+  }
+
+  private val items: AtomicReferenceArray<T?> = AtomicReferenceArray(capacity)
+
+  private val sequences: AtomicLongArray =
+      AtomicLongArray(capacity).apply {
+        for (i in 0 until capacity) {
+          set(i, i.toLong())
+        }
+      }
+
+  private val releasePosition: AtomicLong = AtomicLong(0)
+
+  private val acquirePosition: AtomicLong = AtomicLong(0)
+
+  /** @return a pooled instance, or `null` if the pool is empty. */
+  fun acquire(): T? {
+    while (true) {
+      val position = acquirePosition.get()
+      val index = (position % capacity).toInt()
+      val diff = sequences.get(index) - (position + 1)
+      if (diff == 0L) {
+        if (acquirePosition.compareAndSet(position, position + 1)) {
+          val item = items.getAndSet(index, null)
+          // Marks the slot as writable for the next lap of the ring.
+          sequences.set(index, position + capacity)
+          return item
+        }
+      } else if (diff < 0L) {
+        return null
+      }
+      // Another thread claimed this position; retry with the fresh one.
+    }
+  }
+
+  /**
+   * @return `true` if the [item] was added to the pool, `false` if the pool is full.
+   * @throws IllegalStateException if the [item] is already in the pool.
+   */
+  fun release(item: T): Boolean {
+    check(!contains(item)) { "Already in the pool!" }
+    while (true) {
+      val position = releasePosition.get()
+      val index = (position % capacity).toInt()
+      val diff = sequences.get(index) - position
+      if (diff == 0L) {
+        if (releasePosition.compareAndSet(position, position + 1)) {
+          items.set(index, item)
+          // Publishes the item to consumers.
+          sequences.set(index, position + 1)
+          return true
+        }
+      } else if (diff < 0L) {
+        return false
+      }
+      // Another thread claimed this position; retry with the fresh one.
+    }
+  }
+
+  /** @return the approximate number of pooled items. */
+  val size: Int
+    get() = (releasePosition.get() - acquirePosition.get()).coerceIn(0, capacity.toLong()).toInt()
+
+  /**
+   * Best effort check to catch double releases. An item can only be released after it was
+   * acquired, and slots are cleared before being handed back, so this never reports false
+   * positives.
+   */
+  private fun contains(item: T): Boolean {
+    for (i in 0 until capacity) {
+      if (items.get(i) === item) {
+        return true
+      }
+    }
+    return false
+  }
+}
@@ -17,7 +17,6 @@
 package com.facebook.rendercore
 
 import android.content.Context
-import com.facebook.rendercore.MountItemsPool.DefaultItemPool
 import com.facebook.rendercore.MountItemsPool.ItemPool
 import com.facebook.rendercore.RenderUnit.RenderType
 
@@ -65,7 +64,7 @@ interface ContentAllocator<Content : Any> {
   /** Creates the content pool the framework should use for this [ContentAllocator] */
   fun onCreateMountContentPool(poolSizeOverride: Int = UNSET_POOL_SIZE): ItemPool? {
     val size = if (poolSizeOverride > UNSET_POOL_SIZE) poolSizeOverride else poolSize()
-    return DefaultItemPool(javaClass, size)
+    return MountItemsPool.createDefaultItemPool(javaClass, size)
   }
 
   companion object {
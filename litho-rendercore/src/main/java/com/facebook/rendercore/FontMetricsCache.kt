@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.rendercore
+
+import android.graphics.Paint
+import android.graphics.Rect
+import android.graphics.Typeface
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * A cache of the vertical metrics of fonts, shared by the text implementations of RenderCore and
+ * Litho.
+ *
+ * Entries are keyed by every property of the [Paint] which affects the metrics: the typeface, the
+ * text size, the letter spacing and the font feature settings. Keys are compared for equality, so
+ * different fonts never share an entry. Lookups don't lock, and the cache is cleared once it holds
+ * more than [maxEntries] fonts, which apps don't usually reach.
+ *
+ * This class is thread safe.
+ */
+class FontMetricsCache @JvmOverloads constructor(val maxEntries: Int = DEFAULT_MAX_ENTRIES) {
+
+  /** The metrics of a font, see [Paint.FontMetricsInt]. */
+  class Metrics(
+      val top: Int,
+      val ascent: Int,
+      val descent: Int,
+      val bottom: Int,
+      val leading: Int,
+      /** The recommended distance between the baselines of two lines, in pixels. */
+      val lineSpacing: Int,
+      /** The distance between the top of the font and the top of its capital letters, in pixels. */
+      val capHeightOffset: Int,
+  )
+
+  private data class Key(
+      val typeface: Typeface?,
+      val textSize: Float,
+      val letterSpacing: Float,
+      val fontFeatureSettings: String?,
+  )
+
+  private val entries: ConcurrentHashMap<Key, Metrics> = ConcurrentHashMap()
+
+  /** @return the [Metrics] of the font of [paint]. */
+  fun get(paint: Paint): Metrics {
+    val key = Key(paint.typeface, paint.textSize, paint.letterSpacing, paint.fontFeatureSettings)
+    entries[key]?.let {
+      return it
+    }
+
+    val metrics = measure(paint)
+    if (entries.size >= maxEntries) {
+      entries.clear()
+    }
+    return entries.putIfAbsent(key, metrics) ?: metrics
+  }
+
+  fun clear() {
+    entries.clear()
+  }
+
+  val size: Int
+    get() = entries.size
+
+  companion object {
+    const val DEFAULT_MAX_ENTRIES: Int = 256
+
+    private const val CAP_MEASUREMENT_TEXT = "T"
+
+    /** The cache shared by all the text components of the process. */
+    @JvmStatic val sharedInstance: FontMetricsCache by lazy { FontMetricsCache() }
+
+    private fun measure(paint: Paint): Metrics {
+      val fontMetrics = Paint.FontMetricsInt()
+      val lineSpacing = paint.getFontMetricsInt(fontMetrics)
+      val capBounds = Rect()
+      paint.getTextBounds(CAP_MEASUREMENT_TEXT, 0, CAP_MEASUREMENT_TEXT.length, capBounds)
+      return Metrics(
+          top = fontMetrics.top,
+          ascent = fontMetrics.ascent,
+          descent = fontMetrics.descent,
+          bottom = fontMetrics.bottom,
+          leading = fontMetrics.leading,
+          lineSpacing = lineSpacing,
+          capHeightOffset = -fontMetrics.ascent - capBounds.height())
+    }
+  }
+}
@@ -23,8 +23,16 @@ import kotlin.collections.HashMap
  * responsibility of the implementer of the Layout function to put values in the cache for a given
  * node. Values put in the LayoutCache (WriteCache) will be available for read in the next layout
  * pass as ReadCache.
+ *
+ * An optional [sharedCache] can be used to keep measurements across many layout passes and across
+ * trees; see [SharedLayoutCache].
  */
-class LayoutCache(oldWriteCache: Map<Any, Any?>? = null) {
+class LayoutCache
+@JvmOverloads
+constructor(
+    oldWriteCache: Map<Any, Any?>? = null,
+    val sharedCache: SharedLayoutCache? = null
+) {
   private val writeCache: MutableMap<Any, Any?> = HashMap()
   private val readCache: Map<Any, Any?> = oldWriteCache ?: emptyMap()
 
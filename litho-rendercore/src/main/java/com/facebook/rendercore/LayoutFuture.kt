@@ -29,7 +29,8 @@ class LayoutFuture<State, RenderContext>(
     val frameId: Int,
     previousResult: RenderResult<State, RenderContext>?,
     extensions: Array<RenderCoreExtension<*, *>>?,
-    val sizeConstraints: SizeConstraints
+    val sizeConstraints: SizeConstraints,
+    sharedLayoutCache: SharedLayoutCache? = null
 ) :
     ThreadInheritingPriorityFuture<RenderResult<State, RenderContext>>(
         Callable {
@@ -39,7 +40,12 @@ class LayoutFuture<State, RenderContext>(
           } else {
             RenderResult.layout(
                 RenderResult.createLayoutContext(
-                    previousResult, renderContext, context, version, extensions),
+                    previousResult,
+                    renderContext,
+                    context,
+                    version,
+                    extensions,
+                    sharedLayoutCache),
                 tree,
                 state,
                 sizeConstraints)
@@ -19,7 +19,6 @@ package com.facebook.rendercore
 import android.graphics.Rect
 import android.util.Pair
 import androidx.annotation.VisibleForTesting
-import androidx.collection.LongSparseArray
 import com.facebook.rendercore.extensions.ExtensionState
 import com.facebook.rendercore.extensions.GapWorkerCallbacks
 import com.facebook.rendercore.extensions.InformsMountCallback
@@ -27,6 +26,7 @@ import com.facebook.rendercore.extensions.MountExtension
 import com.facebook.rendercore.extensions.OnItemCallbacks
 import com.facebook.rendercore.extensions.RenderCoreExtension
 import com.facebook.rendercore.extensions.VisibleBoundsCallbacks
+import com.facebook.rendercore.utils.LongIntHashMap
 import java.util.ArrayList
 import java.util.HashSet
 
@@ -36,7 +36,7 @@ import java.util.HashSet
  */
 class MountDelegate(val mountDelegateTarget: MountDelegateTarget, val tracer: Systracer) {
 
-  private val referenceCountMap = LongSparseArray<Int>()
+  private val referenceCountMap = LongIntHashMap()
   private val _extensionStates: MutableList<ExtensionState<Any>> = ArrayList()
   var unmountDelegateExtensionState: ExtensionState<Any>? = null
     private set
@@ -419,8 +419,7 @@ class MountDelegate(val mountDelegateTarget: MountDelegateTarget, val tracer: Sy
       }
 
   private fun hasAcquiredRef(renderUnitId: Long): Boolean {
-    val refCount = referenceCountMap[renderUnitId]
-    return refCount != null && refCount > 0
+    return referenceCountMap.get(renderUnitId, 0) > 0
   }
 
   @VisibleForTesting(otherwise = VisibleForTesting.PACKAGE_PRIVATE)
@@ -503,25 +502,25 @@ class MountDelegate(val mountDelegateTarget: MountDelegateTarget, val tracer: Sy
     if (!referenceCountingEnabled) {
       return
     }
-    var refCount = referenceCountMap[renderUnitId]
-    if (refCount == null) {
-      refCount = 0
-    }
-    referenceCountMap.put(renderUnitId, refCount + 1)
+    referenceCountMap.put(renderUnitId, referenceCountMap.get(renderUnitId, 0) + 1)
   }
 
   private fun decrementExtensionRefCount(renderUnitId: Long) {
     if (!referenceCountingEnabled) {
       return
     }
-    val refCount = referenceCountMap[renderUnitId]
-    check(!(refCount == null || refCount == 0)) {
+    val refCount = referenceCountMap.get(renderUnitId, 0)
+    check(refCount != 0) {
       "Trying to decrement reference count for an item you don't own."
     }
     referenceCountMap.put(renderUnitId, refCount - 1)
   }
 
-  @VisibleForTesting fun getRefCount(id: Long): Int = checkNotNull(referenceCountMap[id])
+  @VisibleForTesting
+  fun getRefCount(id: Long): Int {
+    check(referenceCountMap.containsKey(id))
+    return referenceCountMap.get(id, 0)
+  }
 
   @get:VisibleForTesting
   val extensionStates: List<ExtensionState<*>>
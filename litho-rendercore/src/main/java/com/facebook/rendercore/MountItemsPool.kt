@@ -20,24 +20,30 @@ import android.annotation.TargetApi
 import android.app.Activity
 import android.app.Application
 import android.app.Service
+import android.content.ComponentCallbacks2
 import android.content.Context
 import android.content.ContextWrapper
+import android.content.res.Configuration
 import android.os.Build
 import android.os.Bundle
 import android.view.View
 import androidx.annotation.VisibleForTesting
-import androidx.core.util.Pools
 import androidx.lifecycle.DefaultLifecycleObserver
 import androidx.lifecycle.Lifecycle
 import androidx.lifecycle.LifecycleOwner
 import com.facebook.rendercore.utils.ThreadUtils.runOnUiThread
 import java.util.WeakHashMap
-import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.ConcurrentHashMap
 import javax.annotation.concurrent.GuardedBy
 
 /**
  * Pools of recycled resources.
  *
+ * Pools are striped per (Context, content type): looking up an existing pool and acquiring or
+ * releasing content never takes a lock, so pre-allocation on background threads doesn't contend
+ * with mounting on the main thread. The [mountContentLock] is only taken when a new Context is
+ * registered or when Contexts are destroyed.
+ *
  * FUTURE: Consider customizing the pool implementation such that we can match buffer sizes. Without
  * this we will tend to expand all buffers to the largest size needed.
  */
@@ -54,9 +60,9 @@ object MountItemsPool {
 
   private val mountContentLock: Any = Any()
 
-  @GuardedBy("mountContentLock")
-  private val mountContentPoolsByContext: MutableMap<Context, MutableMap<Any, ItemPool>> =
-      HashMap(4)
+  private val mountContentPoolsByContext:
+      ConcurrentHashMap<Context, ConcurrentHashMap<Any, ItemPool>> =
+      ConcurrentHashMap(4)
 
   // This Map is used as a set and the values are ignored.
   @GuardedBy("mountContentLock")
@@ -68,6 +74,8 @@ object MountItemsPool {
 
   private var activityCallbacks: PoolsActivityCallback? = null
 
+  @Volatile private var memoryCallbacks: PoolsMemoryCallbacks? = null
+
   /**
    * To support Gingerbread (where the registerActivityLifecycleCallbacks API doesn't exist), we
    * allow apps to explicitly invoke activity callbacks. If this is enabled we'll throw if we are
@@ -190,6 +198,36 @@ object MountItemsPool {
       return null
     }
 
+    val poolsMap =
+        mountContentPoolsByContext[context] ?: getOrCreatePoolsMap(context) ?: return null
+
+    val poolableContentType = allocator.getPoolableContentType()
+    val existingPool = poolsMap[poolableContentType]
+    if (existingPool != null) {
+      return existingPool
+    }
+
+    var pool: ItemPool? = null
+    if (hasMountContentPoolFactory) {
+      pool = mountContentPoolFactory.get()?.createMountContentPool()
+    }
+
+    if (pool == null) {
+      pool =
+          allocator.onCreateMountContentPool(poolSize)
+              ?: createDefaultItemPool(poolableContentType, poolSize)
+    }
+
+    // If another thread created a pool for this content type first, use that one instead; the
+    // pool created here is still empty so it can be dropped.
+    return poolsMap.putIfAbsent(poolableContentType, pool) ?: pool
+  }
+
+  /**
+   * Registers the [context] and returns its pools, or `null` if the root context of the [context]
+   * has already been destroyed.
+   */
+  private fun getOrCreatePoolsMap(context: Context): ConcurrentHashMap<Any, ItemPool>? {
     synchronized(mountContentLock) {
       var poolsMap = mountContentPoolsByContext[context]
       if (poolsMap == null) {
@@ -198,25 +236,39 @@ object MountItemsPool {
           return null
         }
         ensureLifecycleCallbacks(rootContext)
-        poolsMap = HashMap()
+        poolsMap = ConcurrentHashMap()
         mountContentPoolsByContext[context] = poolsMap
       }
+      return poolsMap
+    }
+  }
 
-      val poolableContentType = allocator.getPoolableContentType()
-      var pool = poolsMap[poolableContentType]
-
-      if (pool == null && hasMountContentPoolFactory) {
-        pool = mountContentPoolFactory.get()?.createMountContentPool()
-      }
+  /**
+   * Creates the [ItemPool] used for content types which don't need a custom pool implementation.
+   * This is an [AdaptiveItemPool] when [RenderCoreConfig.useAdaptiveMountContentPools] is enabled,
+   * and a fixed size [DefaultItemPool] otherwise.
+   */
+  @JvmStatic
+  fun createDefaultItemPool(poolableContentType: Any, poolSize: Int): ItemPool {
+    return if (RenderCoreConfig.useAdaptiveMountContentPools) {
+      AdaptiveItemPool(poolableContentType, poolSize)
+    } else {
+      DefaultItemPool(poolableContentType, poolSize)
+    }
+  }
 
-      if (pool == null) {
-        pool =
-            allocator.onCreateMountContentPool(poolSize)
-                ?: DefaultItemPool(poolableContentType, poolSize)
+  /**
+   * Trims all the pools in response to a memory pressure signal. This is invoked automatically
+   * when [RenderCoreConfig.useAdaptiveMountContentPools] is enabled, unless [isManualCallbacks] is
+   * enabled, in which case apps should forward [ComponentCallbacks2.onTrimMemory] themselves.
+   * Fixed size pools are only drained at [ComponentCallbacks2.TRIM_MEMORY_COMPLETE].
+   */
+  @JvmStatic
+  fun onTrimMemory(level: Int) {
+    for (poolsMap in mountContentPoolsByContext.values) {
+      for (pool in poolsMap.values) {
+        pool.onTrimMemory(level)
       }
-
-      poolsMap[poolableContentType] = pool
-      return pool
     }
   }
 
@@ -256,6 +308,7 @@ object MountItemsPool {
 
   private fun ensureLifecycleCallbacks(context: Context) {
     if (!isManualCallbacks) {
+      ensureMemoryCallbacks(context)
       if (context is LifecycleOwner) {
         synchronized(mountContentLock) {
           if (!contextsWithLifecycleObservers.containsKey(context)) {
@@ -277,6 +330,20 @@ object MountItemsPool {
     }
   }
 
+  private fun ensureMemoryCallbacks(context: Context) {
+    // Only adaptive pools are sized to the workload, so trimming the fixed size pools on memory
+    // pressure would just make them allocate the same content again.
+    if (RenderCoreConfig.useAdaptiveMountContentPools && memoryCallbacks == null) {
+      synchronized(mountContentLock) {
+        if (memoryCallbacks == null) {
+          val callbacks = PoolsMemoryCallbacks()
+          memoryCallbacks = callbacks
+          (context.applicationContext ?: context).registerComponentCallbacks(callbacks)
+        }
+      }
+    }
+  }
+
   @JvmStatic
   fun onContextCreated(context: Context) {
     synchronized(mountContentLock) {
@@ -294,7 +361,6 @@ object MountItemsPool {
     }
   }
 
-  @GuardedBy("mountContentLock")
   private fun <T> clearMatchingContexts(context: Context, poolsMap: MutableMap<Context, T>) {
     poolsMap.remove(context)
 
@@ -371,6 +437,21 @@ object MountItemsPool {
     }
   }
 
+  private class PoolsMemoryCallbacks : ComponentCallbacks2 {
+    override fun onTrimMemory(level: Int) {
+      MountItemsPool.onTrimMemory(level)
+    }
+
+    override fun onConfigurationChanged(newConfig: Configuration) {
+      // Do nothing.
+    }
+
+    @Deprecated("Deprecated in Java")
+    override fun onLowMemory() {
+      MountItemsPool.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE)
+    }
+  }
+
   private class PoolsLifecycleObserver(private val initialState: Lifecycle.State) :
       DefaultLifecycleObserver {
     override fun onCreate(owner: LifecycleOwner) {
@@ -438,32 +519,32 @@ object MountItemsPool {
      *   the pool.
      */
     fun maybePreallocateContent(c: Context, contentAllocator: ContentAllocator<*>): Boolean
+
+    /**
+     * Called when the system signals memory pressure. Pools should drop the content they don't
+     * need anymore.
+     *
+     * @param level the level passed to [ComponentCallbacks2.onTrimMemory]
+     */
+    fun onTrimMemory(level: Int) = Unit
   }
 
+  /**
+   * The default [ItemPool]. Acquiring and releasing content is lock-free, so content can be
+   * pre-allocated on background threads while the main thread mounts.
+   */
   open class DefaultItemPool(poolableContentType: Any, private val maxPoolSize: Int) : ItemPool {
 
-    private val pool: Pools.SynchronizedPool<Any> = Pools.SynchronizedPool(maxPoolSize)
+    private val pool: ConcurrentBoundedPool<Any> = ConcurrentBoundedPool(maxPoolSize)
 
     private val debugIdentifier: String =
         (poolableContentType as? Class<*>)?.name ?: poolableContentType.toString()
 
-    private val currentPoolSize: AtomicInteger = AtomicInteger(0)
-
-    override fun acquire(contentAllocator: ContentAllocator<*>): Any? {
-      val content = pool.acquire()
-      if (content != null) {
-        currentPoolSize.decrementAndGet()
-      }
-      return content
-    }
+    override fun acquire(contentAllocator: ContentAllocator<*>): Any? = pool.acquire()
 
     override fun release(item: Any): Boolean {
       return try {
-        val releasedIntoPool = pool.release(item)
-        if (releasedIntoPool) {
-          currentPoolSize.incrementAndGet()
-        }
-        releasedIntoPool
+        pool.release(item)
       } catch (e: IllegalStateException) {
         val metadata = "Failed to release item to MountItemPool: $debugIdentifier"
         throw IllegalStateException(metadata, e)
@@ -474,9 +555,17 @@ object MountItemsPool {
         c: Context,
         contentAllocator: ContentAllocator<*>
     ): Boolean {
-      return if (currentPoolSize.get() < maxPoolSize) {
+      return if (pool.size < maxPoolSize) {
         release(contentAllocator.createContent(c))
       } else false
     }
+
+    override fun onTrimMemory(level: Int) {
+      if (level >= ComponentCallbacks2.TRIM_MEMORY_COMPLETE) {
+        while (pool.acquire() != null) {
+          // Drop all the pooled content.
+        }
+      }
+    }
   }
 }
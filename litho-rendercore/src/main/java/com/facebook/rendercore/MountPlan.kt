@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.rendercore
+
+import com.facebook.rendercore.utils.isEqualOrEquivalentTo
+
+/**
+ * The result of diffing a [RenderTree] against the [RenderTree] expected to be mounted before it.
+ * It is computed ahead of time (e.g. on the layout thread, see [RenderTree.prepareMountPlan]) so
+ * that [MountState.mount] only has to execute it instead of diffing the trees on the main thread.
+ *
+ * For every node of the previous tree the plan holds its position in the next tree, and for every
+ * node of the next tree its position in the previous tree and whether the mounted item has to be
+ * updated, i.e. whether its [RenderUnit] or its layout data changed.
+ *
+ * The [MountState] only uses the plan if the tree it mounted last is [previousRenderTree], and for
+ * every item only if the mounted node is the one the plan was computed against. Otherwise it falls
+ * back to diffing on the main thread.
+ */
+class MountPlan
+private constructor(
+    val previousRenderTree: RenderTree,
+    private val nextPositions: IntArray,
+    private val previousPositions: IntArray,
+    private val updates: BooleanArray,
+) {
+
+  /** @return the position in the next tree of the node at [previousPosition], or -1 if removed. */
+  fun getNextPosition(previousPosition: Int): Int = nextPositions[previousPosition]
+
+  /** @return the position in the previous tree of the node at [nextPosition], or -1 if added. */
+  fun getPreviousPosition(nextPosition: Int): Int = previousPositions[nextPosition]
+
+  /**
+   * @return true if the plan was computed against [mountedNode], the node currently mounted for the
+   *   node at [nextPosition] of the next tree.
+   */
+  fun isPlannedFor(nextPosition: Int, mountedNode: RenderTreeNode): Boolean {
+    val previousPosition = previousPositions[nextPosition]
+    return previousPosition >= 0 &&
+        previousRenderTree.getRenderTreeNodeAtIndex(previousPosition) === mountedNode
+  }
+
+  /**
+   * @return true if the item mounted for the node at [nextPosition] has to be updated. Only valid
+   *   if [isPlannedFor] is true.
+   */
+  fun needsUpdate(nextPosition: Int): Boolean = updates[nextPosition]
+
+  companion object {
+
+    @JvmStatic
+    fun create(previousRenderTree: RenderTree, nextRenderTree: RenderTree): MountPlan {
+      val previousCount = previousRenderTree.mountableOutputCount
+      val nextCount = nextRenderTree.mountableOutputCount
+      val nextPositions = IntArray(previousCount)
+      val previousPositions = IntArray(nextCount) { -1 }
+      val updates = BooleanArray(nextCount)
+      for (i in 0 until previousCount) {
+        val previousNode = previousRenderTree.getRenderTreeNodeAtIndex(i)
+        val nextPosition = nextRenderTree.getRenderTreeNodeIndex(previousNode.renderUnit.id)
+        nextPositions[i] = nextPosition
+        if (nextPosition < 0) {
+          continue
+        }
+        val nextNode = nextRenderTree.getRenderTreeNodeAtIndex(nextPosition)
+        previousPositions[nextPosition] = i
+        updates[nextPosition] =
+            (previousNode.renderUnit as RenderUnit<Any>).shouldUpdate(
+                nextNode.renderUnit as RenderUnit<Any>) ||
+                !isEqualOrEquivalentTo(previousNode.layoutData, nextNode.layoutData)
+      }
+      return MountPlan(previousRenderTree, nextPositions, previousPositions, updates)
+    }
+  }
+}
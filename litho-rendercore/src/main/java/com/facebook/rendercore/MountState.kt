@@ -17,9 +17,10 @@
 package com.facebook.rendercore
 
 import android.content.Context
+import android.graphics.Rect
 import android.util.Pair
+import android.view.Choreographer
 import android.view.View
-import androidx.collection.LongSparseArray
 import com.facebook.rendercore.debug.DebugEvent
 import com.facebook.rendercore.debug.DebugEventAttribute.Bounds
 import com.facebook.rendercore.debug.DebugEventAttribute.Description
@@ -36,18 +37,22 @@ import com.facebook.rendercore.extensions.RenderCoreExtension
 import com.facebook.rendercore.extensions.RenderCoreExtension.Companion.shouldUpdate
 import com.facebook.rendercore.utils.BoundsUtils
 import com.facebook.rendercore.utils.CommonUtils
+import com.facebook.rendercore.utils.LongObjectHashMap
+import com.facebook.rendercore.utils.VSyncUtils
 import com.facebook.rendercore.utils.isEqualOrEquivalentTo
 import java.util.ArrayList
 import java.util.HashMap
+import java.util.concurrent.TimeUnit
 
 class MountState
 @JvmOverloads
 constructor(
     private val _rootHost: Host,
-    private val tracer: Systracer = RenderCoreSystrace.getInstance()
+    private val tracer: Systracer = RenderCoreSystrace.getInstance(),
+    private val nanoClock: () -> Long = { System.nanoTime() },
 ) : MountDelegateTarget {
 
-  private val idToMountedItemMap: LongSparseArray<MountItem?> = LongSparseArray()
+  private val idToMountedItemMap: LongObjectHashMap<MountItem> = LongObjectHashMap()
   private val context: Context = _rootHost.context
   private var isMounting = false
   private var _needsRemount = false
@@ -58,6 +63,26 @@ constructor(
   private var unmountDelegateExtension: UnmountDelegateExtension<Any>? = null
   private var ensureParentMounted = true
 
+  // Positions of the off-screen items whose mount was deferred to the following frames.
+  private var deferredMountPositions: IntArray? = null
+  private var deferredMountCount = 0
+  private var nextDeferredMountIndex = 0
+  private var isDeferredMountScheduled = false
+  private var deferredMountFrameTimeNs = 0L
+  private val visibleRect = Rect()
+  private val tmpBounds = Rect()
+  private val frameIntervalNs: Long by lazy { VSyncUtils.getNormalVsyncTime(context).toLong() }
+  private val deferredMountRunnable = Runnable {
+    isDeferredMountScheduled = false
+    mountDeferredItems(deferredMountFrameTimeNs + frameIntervalNs - DEFERRED_MOUNT_BUFFER_NS)
+  }
+  private val deferredMountFrameCallback =
+      Choreographer.FrameCallback { frameTimeNanos ->
+        // Mount in the gap after this frame is drawn rather than delaying it.
+        deferredMountFrameTimeNs = frameTimeNanos
+        _rootHost.post(deferredMountRunnable)
+      }
+
   fun setEnsureParentMounted(ensureParentMounted: Boolean) {
     this.ensureParentMounted = ensureParentMounted
   }
@@ -136,11 +161,16 @@ constructor(
         tracer.beginSection("MountState.prepareMount")
       }
 
-      prepareMount(previousRenderTree)
+      val mountPlan =
+          renderTree.consumeMountPlan()?.takeIf { it.previousRenderTree === previousRenderTree }
+      prepareMount(previousRenderTree, mountPlan)
       if (isTracing) {
         tracer.endSection()
       }
 
+      clearDeferredMounts()
+      val mountDeadlineNs = getMountDeadlineNs()
+
       // Starting from 1 as the RenderTreeNode in position 0 always represents the root which
       // is handled in prepareMount()
       for (i in 1 until renderTree.mountableOutputCount) {
@@ -150,16 +180,23 @@ constructor(
 
         if (currentMountItem != null) {
           if (isMountable) {
-            updateMountItemIfNeeded(renderTreeNode, currentMountItem)
+            updateMountItemIfNeeded(renderTreeNode, currentMountItem, mountPlan, i)
           } else {
             unmountItemRecursively(currentMountItem.renderTreeNode.renderUnit.id)
           }
         } else {
           if (isMountable) {
-            mountRenderUnit(renderTreeNode)
+            if (mountDeadlineNs != NO_DEADLINE &&
+                nanoClock() >= mountDeadlineNs &&
+                !isInVisibleRect(renderTreeNode)) {
+              deferMount(i)
+            } else {
+              mountRenderUnit(renderTreeNode)
+            }
           }
         }
       }
+      scheduleDeferredMounts()
 
       _needsRemount = false
 
@@ -218,6 +255,8 @@ constructor(
         tracer.beginSection("MountState.unmountAllItems")
       }
 
+      clearDeferredMounts()
+
       // unmount all the content from the Root node
       unmountItemRecursively(ROOT_HOST_ID)
 
@@ -269,8 +308,8 @@ constructor(
 
   override fun getHosts(): ArrayList<Host> {
     val hosts = ArrayList<Host>()
-    for (i in 0 until idToMountedItemMap.size()) {
-      val item = checkNotNull(idToMountedItemMap.valueAt(i))
+    for (i in 0 until idToMountedItemMap.size) {
+      val item = idToMountedItemMap.valueAt(i)
       val content = item.content
       if (content is Host) {
         hosts.add(content)
@@ -282,7 +321,7 @@ constructor(
   override fun getMountItemAt(position: Int): MountItem? =
       renderTree?.let { idToMountedItemMap[it.getRenderTreeNodeAtIndex(position).renderUnit.id] }
 
-  override fun getMountItemCount(): Int = idToMountedItemMap.size()
+  override fun getMountItemCount(): Int = idToMountedItemMap.size
 
   override fun getRenderUnitCount(): Int = renderTree?.mountableOutputCount ?: 0
 
@@ -329,6 +368,9 @@ constructor(
 
   /** Unbinds all the MountItems currently mounted on this MountState. */
   override fun detach() {
+    // Mount the deferred items now so that they are unbound with the rest of the content, and
+    // bound again on attach.
+    mountDeferredItems(Long.MAX_VALUE)
     renderTree?.let { renderTree ->
       val isTracing = tracer.isTracing()
       if (isTracing) {
@@ -358,6 +400,76 @@ constructor(
   private fun isMountable(renderTreeNode: RenderTreeNode, index: Int): Boolean =
       _mountDelegate?.maybeLockForMount(renderTreeNode, index) ?: true
 
+  /**
+   * @return the time after which [mount] defers new off-screen items to the following frames, or
+   *   [NO_DEADLINE] if the mount isn't time sliced. Half of the frame interval is used as budget,
+   *   as the mount usually runs in a frame which also measures and lays out the hierarchy.
+   */
+  private fun getMountDeadlineNs(): Long {
+    if (!RenderCoreConfig.useTimeSlicedMount || !_rootHost.getLocalVisibleRect(visibleRect)) {
+      return NO_DEADLINE
+    }
+    return nanoClock() + frameIntervalNs / 2
+  }
+
+  private fun isInVisibleRect(renderTreeNode: RenderTreeNode): Boolean =
+      Rect.intersects(visibleRect, renderTreeNode.getAbsoluteBounds(tmpBounds))
+
+  private fun deferMount(position: Int) {
+    var positions = deferredMountPositions
+    if (positions == null) {
+      positions = IntArray(16)
+    } else if (deferredMountCount == positions.size) {
+      positions = positions.copyOf(deferredMountCount * 2)
+    }
+    positions[deferredMountCount++] = position
+    deferredMountPositions = positions
+  }
+
+  private fun clearDeferredMounts() {
+    deferredMountPositions = null
+    deferredMountCount = 0
+    nextDeferredMountIndex = 0
+  }
+
+  private fun scheduleDeferredMounts() {
+    if (nextDeferredMountIndex < deferredMountCount && !isDeferredMountScheduled) {
+      isDeferredMountScheduled = true
+      Choreographer.getInstance().postFrameCallback(deferredMountFrameCallback)
+    }
+  }
+
+  /**
+   * Mounts the deferred items of the current [RenderTree], in order, until [deadlineNs]. At least
+   * one item is mounted on every call so that the mount always makes progress.
+   */
+  private fun mountDeferredItems(deadlineNs: Long) {
+    val currentRenderTree = renderTree
+    val positions = deferredMountPositions
+    if (currentRenderTree == null || positions == null || isMounting) {
+      return
+    }
+    val isTracing = tracer.isTracing()
+    if (isTracing) {
+      tracer.beginSection("MountState.mountDeferredItems")
+    }
+    do {
+      val position = positions[nextDeferredMountIndex++]
+      val node = currentRenderTree.getRenderTreeNodeAtIndex(position)
+      if (!isMounted(node.renderUnit.id) && isMountable(node, position)) {
+        mountRenderUnit(node)
+      }
+    } while (nextDeferredMountIndex < deferredMountCount && nanoClock() < deadlineNs)
+    if (nextDeferredMountIndex < deferredMountCount) {
+      scheduleDeferredMounts()
+    } else {
+      clearDeferredMounts()
+    }
+    if (isTracing) {
+      tracer.endSection()
+    }
+  }
+
   private fun updateBoundsForMountedRenderTreeNode(
       renderTreeNode: RenderTreeNode,
       item: MountItem,
@@ -410,9 +522,10 @@ constructor(
    * Prepare the [MountState] to mount a new [RenderTree].
    *
    * @param previousRenderTree
+   * @param mountPlan the [MountPlan] computed against [previousRenderTree], if any
    */
-  private fun prepareMount(previousRenderTree: RenderTree?) {
-    unmountOrMoveOldItems(previousRenderTree)
+  private fun prepareMount(previousRenderTree: RenderTree?, mountPlan: MountPlan?) {
+    unmountOrMoveOldItems(previousRenderTree, mountPlan)
 
     val rootItem = idToMountedItemMap[ROOT_HOST_ID]
     val rootNode = checkNotNull(renderTree).getRenderTreeNodeAtIndex(0)
@@ -422,7 +535,7 @@ constructor(
       mountRootItem(rootNode)
     } else {
       // If root mount item is present then update it.
-      updateMountItemIfNeeded(rootNode, rootItem)
+      updateMountItemIfNeeded(rootNode, rootItem, mountPlan, 0)
     }
   }
 
@@ -433,7 +546,7 @@ constructor(
    * treatment here since we mark them as removed and re-added when calculating the new
    * LayoutOutputs
    */
-  private fun unmountOrMoveOldItems(previousRenderTree: RenderTree?) {
+  private fun unmountOrMoveOldItems(previousRenderTree: RenderTree?, mountPlan: MountPlan?) {
     val currentRenderTree = renderTree
     if (currentRenderTree == null || previousRenderTree == null) {
       return
@@ -448,7 +561,9 @@ constructor(
     // recursively all its mounted children.
     for (i in 1 until previousRenderTree.mountableOutputCount) {
       val previousRenderUnit = previousRenderTree.getRenderTreeNodeAtIndex(i).renderUnit
-      val newPosition = currentRenderTree.getRenderTreeNodeIndex(previousRenderUnit.id)
+      val newPosition =
+          mountPlan?.getNextPosition(i)
+              ?: currentRenderTree.getRenderTreeNodeIndex(previousRenderUnit.id)
       val oldItem = idToMountedItemMap[previousRenderUnit.id]
 
       // if oldItem is null it was previously unmounted so there is nothing we need to do.
@@ -831,7 +946,17 @@ constructor(
     item.isBound = false
   }
 
-  private fun updateMountItemIfNeeded(renderTreeNode: RenderTreeNode, currentMountItem: MountItem) {
+  /**
+   * Updates [currentMountItem] with the new [renderTreeNode] at [position]. If the [mountPlan] was
+   * computed against the node currently mounted, its result is used instead of diffing the render
+   * units and layout data again.
+   */
+  private fun updateMountItemIfNeeded(
+      renderTreeNode: RenderTreeNode,
+      currentMountItem: MountItem,
+      mountPlan: MountPlan? = null,
+      position: Int = -1
+  ) {
     val mountDelegate = _mountDelegate
     val isTracing = tracer.isTracing()
     val renderUnit = renderTreeNode.renderUnit as RenderUnit<Any>
@@ -845,8 +970,14 @@ constructor(
     currentMountItem.update(renderTreeNode)
     currentRenderUnit.onStartUpdateRenderUnit()
     mountDelegate?.startNotifyVisibleBoundsChangedSection()
-    if (currentRenderUnit.shouldUpdate(renderUnit) ||
-        !isEqualOrEquivalentTo(currentLayoutData, newLayoutData)) {
+    val needsUpdate =
+        if (mountPlan != null && position >= 0 && mountPlan.isPlannedFor(position, currentNode)) {
+          mountPlan.needsUpdate(position)
+        } else {
+          currentRenderUnit.shouldUpdate(renderUnit) ||
+              !isEqualOrEquivalentTo(currentLayoutData, newLayoutData)
+        }
+    if (needsUpdate) {
       val traceIdentifier =
           DebugEventDispatcher.generateTraceIdentifier(DebugEvent.RenderUnitUpdated)
       if (traceIdentifier != null) {
@@ -909,6 +1040,8 @@ constructor(
   companion object {
     const val ROOT_HOST_ID: Long = 0L
     private const val TAG: String = "MountState"
+    private const val NO_DEADLINE: Long = -1L
+    private val DEFERRED_MOUNT_BUFFER_NS: Long = TimeUnit.MILLISECONDS.toNanos(4)
 
     private fun assertParentContentType(
         parentContent: Any,
@@ -44,4 +44,28 @@ object RenderCoreConfig {
 
   /** This flag is used to enable automatic removal of View listeners from ComponentHost. */
   @JvmField var removeComponentHostListeners: Boolean = false
+
+  /**
+   * When enabled, content types without a custom pool use an [AdaptiveItemPool] which grows for
+   * frequently acquired content and shrinks for idle content, instead of a fixed size pool.
+   */
+  @JvmField var useAdaptiveMountContentPools: Boolean = false
+
+  /**
+   * When enabled, a [MountPlan] is prepared on the layout thread for every new [RenderTree] so that
+   * [MountState] doesn't diff it against the mounted tree on the main thread.
+   */
+  @JvmField var prepareMountPlanInBackground: Boolean = false
+
+  /**
+   * When enabled, [MountState.mount] mounts the items in the visible rect of the root host right
+   * away, but defers new off-screen items to the following frames once it exceeds its frame budget.
+   */
+  @JvmField var useTimeSlicedMount: Boolean = false
+
+  /**
+   * When enabled, the text implementations of RenderCore and Litho share the text layouts of plain
+   * text laid out with the same style and width through [TextLayoutCache.sharedInstance].
+   */
+  @JvmField var useSharedTextLayoutCache: Boolean = false
 }
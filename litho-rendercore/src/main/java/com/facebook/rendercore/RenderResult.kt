@@ -87,14 +87,16 @@ internal constructor(
     }
 
     @JvmStatic
+    @JvmOverloads
     fun <RenderContext> createLayoutContext(
         previousResult: RenderResult<*, *>?,
         renderContext: RenderContext?,
         context: Context,
         layoutVersion: Int,
-        extensions: Array<RenderCoreExtension<*, *>>?
+        extensions: Array<RenderCoreExtension<*, *>>?,
+        sharedLayoutCache: SharedLayoutCache? = null
     ): LayoutContext<RenderContext> {
-      val layoutCache = buildCache(previousResult?.layoutCacheData)
+      val layoutCache = buildCache(previousResult?.layoutCacheData, sharedLayoutCache)
       return LayoutContext<RenderContext>(
           context, renderContext, layoutVersion, layoutCache, extensions)
     }
@@ -181,8 +183,12 @@ internal constructor(
 
     @VisibleForTesting
     @JvmStatic
-    fun buildCache(previousCache: Map<Any, Any?>?): LayoutCache {
-      return if (previousCache != null) LayoutCache(previousCache) else LayoutCache(null)
+    @JvmOverloads
+    fun buildCache(
+        previousCache: Map<Any, Any?>?,
+        sharedLayoutCache: SharedLayoutCache? = null
+    ): LayoutCache {
+      return LayoutCache(previousCache, sharedLayoutCache)
     }
   }
 }
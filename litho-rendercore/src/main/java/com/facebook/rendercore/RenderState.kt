@@ -39,7 +39,8 @@ constructor(
     private val delegate: Delegate<State>,
     private val renderContext: RenderContext?,
     val extensions: Array<RenderCoreExtension<*, *>>?,
-    private val resolveExecutor: Executor = Executor { r -> ThreadUtils.runOnBackgroundThread(r) }
+    private val resolveExecutor: Executor = Executor { r -> ThreadUtils.runOnBackgroundThread(r) },
+    private val sharedLayoutCache: SharedLayoutCache? = null
 ) : StateUpdateReceiver<StateUpdateType> {
 
   /**
@@ -245,12 +246,16 @@ constructor(
                 committedResolvedFrameId,
                 committedRenderResult,
                 extensions,
-                sizeConstraints)
+                sizeConstraints,
+                sharedLayoutCache)
       }
       layoutFuture = requireNotNull(this.layoutFuture)
       previousRenderResult = committedRenderResult
     }
     val renderResult = layoutFuture.runAndGet()
+    if (RenderCoreConfig.prepareMountPlanInBackground) {
+      renderResult.renderTree.prepareMountPlan(previousRenderResult?.renderTree)
+    }
     var committedNewLayout = false
     synchronized(this) {
       if (hasSameSpecs(layoutFuture, sizeConstraints) &&
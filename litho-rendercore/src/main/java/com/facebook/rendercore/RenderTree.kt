@@ -17,15 +17,15 @@
 package com.facebook.rendercore
 
 import android.util.Pair
-import androidx.collection.LongSparseArray
 import com.facebook.rendercore.extensions.RenderCoreExtension
+import com.facebook.rendercore.utils.LongIntHashMap
 import java.util.Locale
 
 /** TODO add javadoc */
 class RenderTree(
     val root: RenderTreeNode,
     private val flatList: Array<RenderTreeNode>,
-    idToIndexMap: LongSparseArray<Int>?,
+    idToIndexMap: LongIntHashMap?,
     val sizeConstraints: SizeConstraints,
     val renderStateId: Int,
     val extensionResults: List<Pair<RenderCoreExtension<*, *>, Any>>?,
@@ -42,13 +42,13 @@ class RenderTree(
   val mountableOutputCount: Int
     get() = flatList.size
 
-  private val idToIndexMap: LongSparseArray<Int>
+  private val idToIndexMap: LongIntHashMap
 
   init {
     if (idToIndexMap != null) {
       this.idToIndexMap = idToIndexMap
     } else {
-      this.idToIndexMap = LongSparseArray(flatList.size)
+      this.idToIndexMap = LongIntHashMap(flatList.size)
       for (i in flatList.indices) {
         assertNoDuplicateRenderUnits(i, this.idToIndexMap, this@RenderTree)
         this.idToIndexMap.put(flatList[i].renderUnit.id, i)
@@ -64,12 +64,40 @@ class RenderTree(
     return flatList[index]
   }
 
+  /** The [MountPlan] prepared for mounting this tree, if any. */
+  @Volatile
+  var mountPlan: MountPlan? = null
+    private set
+
+  /**
+   * Diffs this tree against [previousRenderTree], the tree expected to be mounted before this one,
+   * so that the [MountState] doesn't have to do it on the main thread. This should be called off
+   * the main thread, before this tree is committed.
+   */
+  fun prepareMountPlan(previousRenderTree: RenderTree?) {
+    if (previousRenderTree == null || previousRenderTree === this) {
+      return
+    }
+    mountPlan = MountPlan.create(previousRenderTree, this)
+  }
+
+  /**
+   * @return the [MountPlan] prepared for this tree, if any, and drops it. The plan references the
+   *   previous tree, so it must not outlive the mount which uses it: otherwise every tree would
+   *   keep all the trees mounted before it reachable.
+   */
+  fun consumeMountPlan(): MountPlan? {
+    val plan = mountPlan
+    mountPlan = null
+    return plan
+  }
+
   companion object {
     @JvmStatic
     fun create(
         root: RenderTreeNode,
         flatList: Array<RenderTreeNode>,
-        idToIndexMap: LongSparseArray<Int>?,
+        idToIndexMap: LongIntHashMap?,
         sizeConstraints: Long,
         renderStateId: Int,
         extensionResults: List<Pair<RenderCoreExtension<*, *>, Any>>?,
@@ -92,7 +120,7 @@ class RenderTree(
      */
     private fun assertNoDuplicateRenderUnits(
         newNodeIndex: Int,
-        idToIndexMap: LongSparseArray<Int>,
+        idToIndexMap: LongIntHashMap,
         renderTree: RenderTree,
     ) {
       val flatList = renderTree.flatList
@@ -33,6 +33,20 @@ interface RunnableHandler {
 
   fun remove(runnable: Runnable)
 
+  /**
+   * Posts [runnable] to run once [delayMillis] elapsed. Handlers which can't delay their tasks run
+   * it as soon as possible instead, see [canPostDelayed].
+   */
+  fun postDelayed(runnable: Runnable, tag: String, delayMillis: Long) {
+    post(runnable, tag)
+  }
+
+  /**
+   * Whether [postDelayed] delays the tasks. Handlers wrapping another handler should forward both
+   * methods, otherwise callers have to time the delays themselves.
+   */
+  fun canPostDelayed(): Boolean = false
+
   /** Default implementation of the RunnableHandler which simply wraps a [Handler]. */
   class DefaultHandler(looper: Looper) : Handler(looper), RunnableHandler {
 
@@ -51,5 +65,13 @@ interface RunnableHandler {
     override fun remove(runnable: Runnable) {
       removeCallbacks(runnable)
     }
+
+    override fun postDelayed(runnable: Runnable, tag: String, delayMillis: Long) {
+      postDelayed(runnable, delayMillis)
+    }
+
+    override fun canPostDelayed(): Boolean {
+      return true
+    }
   }
 }
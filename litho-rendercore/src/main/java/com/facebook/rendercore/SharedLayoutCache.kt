@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.rendercore
+
+import android.content.res.Configuration
+import androidx.collection.LruCache
+import com.facebook.rendercore.LayoutCache.CacheItem
+
+/**
+ * An optional, bounded second tier for the [LayoutCache].
+ *
+ * The [LayoutCache] only keeps the results written during the previous layout pass. This cache
+ * keeps [CacheItem]s across many layout passes, and can be shared by several trees (e.g. all the
+ * [RenderState]s under the same root), so that content which scrolls out and back in, or which
+ * toggles between two size specs, can skip measurement.
+ *
+ * Entries are keyed by (render unit id, widthSpec, heightSpec) and by the parts of the
+ * [LayoutContext] a measurement depends on: the configuration of its Android context (density, font
+ * scale, locale, ...) and its render context. They are evicted in LRU order once the approximate
+ * byte cost of all the entries exceeds [maxSizeBytes]. Every entry also holds the owner which
+ * produced it (e.g. the layout behavior of a primitive) so that callers can verify the entry is
+ * still valid for the current tree before reusing it.
+ *
+ * Only results without layout data are cached. Layout data is usually mutable, and reusing it
+ * would share it between the trees which use this cache.
+ *
+ * Litho doesn't create a shared cache; it is only used by the [RenderState]s it is passed to.
+ *
+ * This class is thread safe.
+ */
+class SharedLayoutCache
+@JvmOverloads
+constructor(
+    val maxSizeBytes: Int = DEFAULT_MAX_SIZE_BYTES,
+    private val sizeOf: (CacheItem) -> Int = ::estimateSizeBytes,
+) {
+
+  class Entry(val cacheItem: CacheItem, val owner: Any?)
+
+  private data class Key(
+      val renderUnitId: Long,
+      val widthSpec: Int,
+      val heightSpec: Int,
+      val configuration: Configuration,
+      val renderContext: Any?,
+  )
+
+  private val cache: LruCache<Key, Entry> =
+      object : LruCache<Key, Entry>(maxSizeBytes) {
+        override fun sizeOf(key: Key, value: Entry): Int =
+            this@SharedLayoutCache.sizeOf(value.cacheItem)
+      }
+
+  /**
+   * @return the [Entry] cached for the render unit with id [renderUnitId] measured with the given
+   *   specs in an equivalent [context], or `null` if there is none.
+   */
+  fun get(
+      renderUnitId: Long,
+      widthSpec: Int,
+      heightSpec: Int,
+      context: LayoutContext<*>
+  ): Entry? {
+    val configuration = context.androidContext.resources.configuration
+    return cache[Key(renderUnitId, widthSpec, heightSpec, configuration, context.renderContext)]
+  }
+
+  /**
+   * Caches the [cacheItem] for the render unit with id [renderUnitId], using the specs of the
+   * [cacheItem] and the [context] it was measured in as part of the key. Items with layout data
+   * are not cached.
+   */
+  fun put(renderUnitId: Long, owner: Any?, cacheItem: CacheItem, context: LayoutContext<*>) {
+    if (cacheItem.layoutResult.layoutData != null) {
+      return
+    }
+    cache.put(
+        Key(
+            renderUnitId,
+            cacheItem.widthSpec,
+            cacheItem.heightSpec,
+            // The configuration of a context is updated in place, so a copy is kept.
+            Configuration(context.androidContext.resources.configuration),
+            context.renderContext),
+        Entry(cacheItem, owner))
+  }
+
+  /** Drops the least recently used entries until the cache is at most [sizeBytes]. */
+  fun trimToSize(sizeBytes: Int) {
+    cache.trimToSize(sizeBytes)
+  }
+
+  fun clear() {
+    cache.evictAll()
+  }
+
+  /** The approximate byte cost of all the cached entries. */
+  val sizeBytes: Int
+    get() = cache.size()
+
+  val hitCount: Int
+    get() = cache.hitCount()
+
+  val missCount: Int
+    get() = cache.missCount()
+
+  companion object {
+    const val DEFAULT_MAX_SIZE_BYTES: Int = 512 * 1024
+
+    private const val ENTRY_OVERHEAD_BYTES: Int = 64
+    private const val LAYOUT_RESULT_BYTES: Int = 96
+
+    /**
+     * A rough estimate of the memory retained by a [CacheItem]: a constant per entry plus a
+     * constant per [LayoutResult] in the cached subtree.
+     */
+    @JvmStatic
+    fun estimateSizeBytes(cacheItem: CacheItem): Int =
+        ENTRY_OVERHEAD_BYTES + countLayoutResults(cacheItem.layoutResult) * LAYOUT_RESULT_BYTES
+
+    private fun countLayoutResults(result: LayoutResult): Int {
+      var count = 1
+      for (i in 0 until result.childrenCount) {
+        count += countLayoutResults(result.getChildAt(i))
+      }
+      return count
+    }
+  }
+}
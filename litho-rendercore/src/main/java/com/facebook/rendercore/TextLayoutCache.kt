@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.rendercore
+
+import android.text.Layout
+import android.text.Spanned
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+import kotlin.math.max
+
+/**
+ * A process wide, bounded cache of text [Layout]s, shared by the text implementations of RenderCore
+ * and Litho when [RenderCoreConfig.useSharedTextLayoutCache] is enabled.
+ *
+ * Entries are keyed by the content of the text, the width spec it was laid out with and every
+ * style value which affects the layout (see [Key]), so the same label, name or timestamp rendered
+ * by many items is only laid out once. Only text without spans is cached (see [isCacheable]),
+ * since spans can be mutable and the same content can carry different spans.
+ *
+ * Lookups don't block each other. Once the cached text exceeds [maxCharacters] characters, the
+ * least recently used entries are evicted until it is back under three quarters of the budget.
+ *
+ * The cached layouts are shared, so their paint must not be mutated after they are created.
+ */
+class TextLayoutCache @JvmOverloads constructor(val maxCharacters: Int = DEFAULT_MAX_CHARACTERS) {
+
+  /** The content of a text with its width spec and the style values it was laid out with. */
+  class Key(text: CharSequence, private val widthSpec: Int, vararg styleValues: Any?) {
+
+    private val text: String = text.toString()
+    private val styleValues: Array<out Any?> = styleValues
+    private val hash: Int =
+        31 * (31 * this.text.hashCode() + widthSpec) + styleValues.contentHashCode()
+
+    val length: Int
+      get() = text.length
+
+    override fun equals(other: Any?): Boolean {
+      if (this === other) {
+        return true
+      }
+      return other is Key &&
+          hash == other.hash &&
+          widthSpec == other.widthSpec &&
+          text == other.text &&
+          styleValues.contentEquals(other.styleValues)
+    }
+
+    override fun hashCode(): Int = hash
+  }
+
+  private class Entry(val layout: Layout, val size: Int, @Volatile var lastAccess: Long)
+
+  private val entries: ConcurrentHashMap<Key, Entry> = ConcurrentHashMap()
+  private val accessClock: AtomicLong = AtomicLong()
+  private val cachedCharacters: AtomicInteger = AtomicInteger()
+  private val hits: AtomicInteger = AtomicInteger()
+  private val misses: AtomicInteger = AtomicInteger()
+
+  /** @return the [Layout] cached for [key], or `null` if there is none. */
+  fun get(key: Key): Layout? {
+    val entry = entries[key]
+    if (entry == null) {
+      misses.incrementAndGet()
+      return null
+    }
+    entry.lastAccess = accessClock.incrementAndGet()
+    hits.incrementAndGet()
+    return entry.layout
+  }
+
+  fun put(key: Key, layout: Layout) {
+    val size = max(1, key.length)
+    if (size > maxCharacters) {
+      return
+    }
+
+    val previous = entries.put(key, Entry(layout, size, accessClock.incrementAndGet()))
+    if (cachedCharacters.addAndGet(size - (previous?.size ?: 0)) > maxCharacters) {
+      trim()
+    }
+  }
+
+  fun clear() {
+    for ((key, entry) in entries) {
+      if (entries.remove(key, entry)) {
+        cachedCharacters.addAndGet(-entry.size)
+      }
+    }
+  }
+
+  /** The number of characters of all the cached texts. */
+  val sizeCharacters: Int
+    get() = cachedCharacters.get()
+
+  val hitCount: Int
+    get() = hits.get()
+
+  val missCount: Int
+    get() = misses.get()
+
+  @Synchronized
+  private fun trim() {
+    if (cachedCharacters.get() <= maxCharacters) {
+      return
+    }
+
+    // Snapshot the access times, since they can change while sorting.
+    val target = maxCharacters / 4 * 3
+    val snapshot = entries.entries.map { Triple(it.key, it.value, it.value.lastAccess) }
+    for ((key, entry) in snapshot.sortedBy { it.third }) {
+      if (cachedCharacters.get() <= target) {
+        break
+      }
+      if (entries.remove(key, entry)) {
+        cachedCharacters.addAndGet(-entry.size)
+      }
+    }
+  }
+
+  companion object {
+    const val DEFAULT_MAX_CHARACTERS: Int = 64 * 1024
+
+    /** The cache shared by all the text components of the process. */
+    @JvmStatic val sharedInstance: TextLayoutCache by lazy { TextLayoutCache() }
+
+    /** Whether a layout of [text] can be cached and shared. */
+    @JvmStatic fun isCacheable(text: CharSequence): Boolean = text !is Spanned
+  }
+}
@@ -20,7 +20,7 @@ import android.graphics.Rect
 import com.facebook.rendercore.Host
 import com.facebook.rendercore.MountDelegate
 import com.facebook.rendercore.Systracer
-import java.util.HashSet
+import com.facebook.rendercore.utils.LongHashSet
 
 class ExtensionState<State>
 internal constructor(
@@ -28,7 +28,7 @@ internal constructor(
     val mountDelegate: MountDelegate,
     val state: State
 ) {
-  private val layoutOutputMountRefs: MutableSet<Long> = HashSet()
+  private val layoutOutputMountRefs: LongHashSet = LongHashSet()
 
   val renderStateId: Int
     get() = mountDelegate.mountDelegateTarget.getRenderStateId()
@@ -43,8 +43,8 @@ internal constructor(
     get() = mountDelegate.tracer
 
   fun releaseAllAcquiredReferences() {
-    for (id in layoutOutputMountRefs) {
-      mountDelegate.releaseMountRef(id)
+    for (i in 0 until layoutOutputMountRefs.size) {
+      mountDelegate.releaseMountRef(layoutOutputMountRefs.keyAt(i))
     }
     layoutOutputMountRefs.clear()
   }
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.rendercore.utils
+
+/** A set of primitive longs, which doesn't box the keys. See [LongHashTable]. */
+class LongHashSet
+@JvmOverloads
+constructor(initialCapacity: Int = DEFAULT_CAPACITY) : LongHashTable(initialCapacity) {
+
+  /** @return true if [key] was added, false if it was already in this set. */
+  fun add(key: Long): Boolean {
+    val size = size
+    insertKey(key)
+    return this.size != size
+  }
+
+  /** @return true if [key] was removed, false if it wasn't in this set. */
+  fun remove(key: Long): Boolean {
+    val index = indexOfKey(key)
+    if (index == -1) {
+      return false
+    }
+    removeAt(index)
+    return true
+  }
+
+  operator fun contains(key: Long): Boolean = indexOfKey(key) != -1
+
+  override fun resizeValues(capacity: Int) = Unit
+
+  override fun moveValue(from: Int, to: Int) = Unit
+
+  override fun clearValues(from: Int, to: Int) = Unit
+
+  companion object {
+    private const val DEFAULT_CAPACITY: Int = 8
+  }
+}
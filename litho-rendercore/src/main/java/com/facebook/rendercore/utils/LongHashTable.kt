@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.rendercore.utils
+
+/**
+ * Base of the primitive long-keyed collections ([LongHashSet], [LongIntHashMap] and
+ * [LongObjectHashMap]), which avoid boxing the keys and allocating an entry per mapping.
+ *
+ * The keys are stored densely in insertion order until a removal, which moves the last key into
+ * the removed position, and are indexed by an open-addressed table with linear probing. Like
+ * [android.util.SparseArray], the entries can be iterated without allocating with [size] and
+ * [keyAt]; iterating from the last index down also allows removing the current entry.
+ *
+ * This class is not thread safe.
+ */
+abstract class LongHashTable internal constructor(initialCapacity: Int) {
+
+  private var keys: LongArray = LongArray(maxOf(initialCapacity, MIN_CAPACITY))
+
+  /** For each slot, the index of its key plus one, or 0 if the slot is empty. */
+  private var table: IntArray = IntArray(tableSizeFor(keys.size))
+
+  /** The number of entries in this collection. */
+  var size: Int = 0
+    private set
+
+  fun isEmpty(): Boolean = size == 0
+
+  /** The number of entries this collection can hold before growing. */
+  protected val capacity: Int
+    get() = keys.size
+
+  /** @return the key at [index], which must be in [0, [size]). */
+  fun keyAt(index: Int): Long {
+    if (index < 0 || index >= size) {
+      throw IndexOutOfBoundsException("index: $index, size: $size")
+    }
+    return keys[index]
+  }
+
+  /** @return the index of [key], or -1 if it's not in this collection. */
+  fun indexOfKey(key: Long): Int {
+    val slot = slotOf(key)
+    return if (slot == -1) -1 else table[slot] - 1
+  }
+
+  fun clear() {
+    if (size == 0) {
+      return
+    }
+    table.fill(0)
+    clearValues(0, size)
+    size = 0
+  }
+
+  /** @return the index of [key], adding it at the end if it's not in this collection yet. */
+  protected fun insertKey(key: Long): Int {
+    val mask = table.size - 1
+    var slot = hash(key) and mask
+    while (table[slot] != 0) {
+      val index = table[slot] - 1
+      if (keys[index] == key) {
+        return index
+      }
+      slot = (slot + 1) and mask
+    }
+    if (size == keys.size) {
+      grow()
+      return insertKey(key)
+    }
+    val index = size++
+    keys[index] = key
+    table[slot] = index + 1
+    return index
+  }
+
+  /** Removes the entry at [index], moving the last entry into its place. */
+  protected fun removeAt(index: Int) {
+    removeSlot(slotOfIndex(index))
+    val last = size - 1
+    if (index != last) {
+      table[slotOfIndex(last)] = index + 1
+      keys[index] = keys[last]
+      moveValue(last, index)
+    }
+    clearValues(last, last + 1)
+    size = last
+  }
+
+  /** Called when the keys storage grows to [capacity]; the values must grow along with it. */
+  protected abstract fun resizeValues(capacity: Int)
+
+  /** Moves the value at index [from] to index [to]. */
+  protected abstract fun moveValue(from: Int, to: Int)
+
+  /** Clears the values in [from, to), if they hold references. */
+  protected abstract fun clearValues(from: Int, to: Int)
+
+  private fun slotOf(key: Long): Int {
+    val mask = table.size - 1
+    var slot = hash(key) and mask
+    while (table[slot] != 0) {
+      if (keys[table[slot] - 1] == key) {
+        return slot
+      }
+      slot = (slot + 1) and mask
+    }
+    return -1
+  }
+
+  private fun slotOfIndex(index: Int): Int {
+    val mask = table.size - 1
+    var slot = hash(keys[index]) and mask
+    while (table[slot] != index + 1) {
+      slot = (slot + 1) and mask
+    }
+    return slot
+  }
+
+  /** Empties [slot], shifting back the entries of its probe sequence so that lookups still work. */
+  private fun removeSlot(slot: Int) {
+    val mask = table.size - 1
+    var hole = slot
+    var next = (hole + 1) and mask
+    while (table[next] != 0) {
+      val ideal = hash(keys[table[next] - 1]) and mask
+      // The entry can fill the hole only if its ideal slot is not between the hole and itself.
+      if (((next - ideal) and mask) >= ((next - hole) and mask)) {
+        table[hole] = table[next]
+        hole = next
+      }
+      next = (next + 1) and mask
+    }
+    table[hole] = 0
+  }
+
+  private fun grow() {
+    val capacity = keys.size * 2
+    keys = keys.copyOf(capacity)
+    resizeValues(capacity)
+    table = IntArray(tableSizeFor(capacity))
+    val mask = table.size - 1
+    for (index in 0 until size) {
+      var slot = hash(keys[index]) and mask
+      while (table[slot] != 0) {
+        slot = (slot + 1) and mask
+      }
+      table[slot] = index + 1
+    }
+  }
+
+  companion object {
+    private const val MIN_CAPACITY: Int = 4
+
+    /** A power of two at least twice as large as [capacity], so the load stays under 50%. */
+    private fun tableSizeFor(capacity: Int): Int = Integer.highestOneBit(capacity * 4 - 1)
+
+    private fun hash(key: Long): Int {
+      val h = key * -0x61c8864680b583ebL
+      return (h xor (h ushr 32)).toInt()
+    }
+  }
+}
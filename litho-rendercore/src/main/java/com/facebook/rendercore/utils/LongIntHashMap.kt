@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.rendercore.utils
+
+/** A map from primitive longs to primitive ints, which boxes neither. See [LongHashTable]. */
+class LongIntHashMap
+@JvmOverloads
+constructor(initialCapacity: Int = DEFAULT_CAPACITY) : LongHashTable(initialCapacity) {
+
+  private var values: IntArray = IntArray(capacity)
+
+  /** @return the value mapped to [key], or [valueIfKeyNotFound] if there is none. */
+  fun get(key: Long, valueIfKeyNotFound: Int): Int {
+    val index = indexOfKey(key)
+    return if (index == -1) valueIfKeyNotFound else values[index]
+  }
+
+  fun put(key: Long, value: Int) {
+    val index = insertKey(key)
+    values[index] = value
+  }
+
+  /** @return true if [key] was removed, false if it wasn't in this map. */
+  fun remove(key: Long): Boolean {
+    val index = indexOfKey(key)
+    if (index == -1) {
+      return false
+    }
+    removeAt(index)
+    return true
+  }
+
+  fun containsKey(key: Long): Boolean = indexOfKey(key) != -1
+
+  /** @return the value at [index], which must be in [0, [size]). */
+  fun valueAt(index: Int): Int {
+    keyAt(index) // Checks the bounds.
+    return values[index]
+  }
+
+  override fun resizeValues(capacity: Int) {
+    values = values.copyOf(capacity)
+  }
+
+  override fun moveValue(from: Int, to: Int) {
+    values[to] = values[from]
+  }
+
+  override fun clearValues(from: Int, to: Int) = Unit
+
+  companion object {
+    private const val DEFAULT_CAPACITY: Int = 8
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.rendercore.utils
+
+/**
+ * A map from primitive longs to objects, which doesn't box the keys nor allocate an entry per
+ * mapping. See [LongHashTable].
+ */
+class LongObjectHashMap<V : Any>
+@JvmOverloads
+constructor(initialCapacity: Int = DEFAULT_CAPACITY) : LongHashTable(initialCapacity) {
+
+  private var values: Array<Any?> = arrayOfNulls(capacity)
+
+  /** @return the value mapped to [key], or `null` if there is none. */
+  operator fun get(key: Long): V? {
+    val index = indexOfKey(key)
+    return if (index == -1) null else valueAtUnchecked(index)
+  }
+
+  /** @return the value previously mapped to [key], or `null` if there was none. */
+  fun put(key: Long, value: V): V? {
+    val index = insertKey(key)
+    val previous = values[index]
+    values[index] = value
+    @Suppress("UNCHECKED_CAST")
+    return previous as V?
+  }
+
+  /** @return the value which was mapped to [key], or `null` if there was none. */
+  fun remove(key: Long): V? {
+    val index = indexOfKey(key)
+    if (index == -1) {
+      return null
+    }
+    val value = valueAtUnchecked(index)
+    removeAt(index)
+    return value
+  }
+
+  fun containsKey(key: Long): Boolean = indexOfKey(key) != -1
+
+  /** @return the value at [index], which must be in [0, [size]). */
+  fun valueAt(index: Int): V {
+    keyAt(index) // Checks the bounds.
+    return checkNotNull(valueAtUnchecked(index))
+  }
+
+  @Suppress("UNCHECKED_CAST") private fun valueAtUnchecked(index: Int): V? = values[index] as V?
+
+  override fun resizeValues(capacity: Int) {
+    values = values.copyOf(capacity)
+  }
+
+  override fun moveValue(from: Int, to: Int) {
+    values[to] = values[from]
+  }
+
+  override fun clearValues(from: Int, to: Int) {
+    values.fill(null, from, to)
+  }
+
+  companion object {
+    private const val DEFAULT_CAPACITY: Int = 8
+  }
+}
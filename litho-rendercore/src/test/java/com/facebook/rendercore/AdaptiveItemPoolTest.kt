@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.rendercore
+
+import android.content.ComponentCallbacks2
+import android.content.Context
+import android.widget.TextView
+import androidx.test.core.app.ApplicationProvider
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class AdaptiveItemPoolTest {
+
+  private val context: Context = ApplicationProvider.getApplicationContext()
+  private val contentAllocator = FakeContentAllocator()
+  private var now: Long = 0
+
+  @Test
+  fun `pool grows after acquires miss`() {
+    val pool = createPool(initialPoolSize = 2)
+
+    repeat(5) { assertThat(pool.acquire(contentAllocator)).isNull() }
+    pool.closeWindow()
+
+    assertThat(pool.targetSize).isEqualTo(7)
+    repeat(7) { assertThat(pool.release(TextView(context))).isTrue }
+    assertThat(pool.release(TextView(context))).isFalse
+  }
+
+  @Test
+  fun `pool growth is capped by max pool size`() {
+    val pool = createPool(initialPoolSize = 2, maxPoolSize = 4)
+
+    repeat(10) { pool.acquire(contentAllocator) }
+    pool.closeWindow()
+
+    assertThat(pool.targetSize).isEqualTo(4)
+  }
+
+  @Test
+  fun `pool shrinks when content stays idle`() {
+    val pool = createPool(initialPoolSize = 4)
+    repeat(4) { pool.release(TextView(context)) }
+
+    // Only one item is ever in use during the window, so 3 items stay idle.
+    repeat(3) { pool.release(checkNotNull(pool.acquire(contentAllocator))) }
+    pool.closeWindow()
+
+    assertThat(pool.targetSize).isEqualTo(2)
+    assertThat(pool.size).isEqualTo(2)
+  }
+
+  @Test
+  fun `pool shrinks once the window duration elapses without acquires`() {
+    val pool = createPool(initialPoolSize = 4)
+    repeat(4) { pool.release(TextView(context)) }
+
+    now += AdaptiveItemPool.DEFAULT_WINDOW_DURATION_MS
+    assertThat(pool.release(TextView(context))).isFalse
+
+    assertThat(pool.targetSize).isEqualTo(2)
+    assertThat(pool.size).isEqualTo(2)
+  }
+
+  @Test
+  fun `trim memory drops pooled content`() {
+    val pool = createPool(initialPoolSize = 3)
+    repeat(3) { pool.release(TextView(context)) }
+
+    pool.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW)
+    assertThat(pool.size).isEqualTo(1)
+    assertThat(pool.targetSize).isEqualTo(1)
+
+    pool.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE)
+    assertThat(pool.size).isEqualTo(0)
+  }
+
+  @Test
+  fun `preallocation respects the target size`() {
+    val pool = createPool(initialPoolSize = 1)
+
+    assertThat(pool.maybePreallocateContent(context, contentAllocator)).isTrue
+    assertThat(pool.maybePreallocateContent(context, contentAllocator)).isFalse
+    assertThat(contentAllocator.numberAllocations).isEqualTo(1)
+  }
+
+  private fun createPool(initialPoolSize: Int, maxPoolSize: Int = initialPoolSize * 4) =
+      AdaptiveItemPool(
+          poolableContentType = TextView::class.java,
+          initialPoolSize = initialPoolSize,
+          maxPoolSize = maxPoolSize,
+          clock = { now })
+
+  private class FakeContentAllocator : ContentAllocator<TextView> {
+
+    var numberAllocations: Int = 0
+
+    override fun createContent(context: Context): TextView =
+        TextView(context).also { numberAllocations++ }
+
+    override val renderType: RenderUnit.RenderType = RenderUnit.RenderType.VIEW
+  }
+}
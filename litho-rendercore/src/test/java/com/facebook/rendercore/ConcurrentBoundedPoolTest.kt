@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.rendercore
+
+import java.util.Collections
+import java.util.IdentityHashMap
+import java.util.concurrent.CountDownLatch
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.JUnit4
+
+@RunWith(JUnit4::class)
+class ConcurrentBoundedPoolTest {
+
+  @Test
+  fun `acquire - returns null when empty`() {
+    val pool = ConcurrentBoundedPool<Any>(2)
+    assertThat(pool.acquire()).isNull()
+  }
+
+  @Test
+  fun `release - rejects items once full and wraps around the ring`() {
+    val pool = ConcurrentBoundedPool<Any>(2)
+    val first = Any()
+    val second = Any()
+    val third = Any()
+
+    assertThat(pool.release(first)).isTrue
+    assertThat(pool.release(second)).isTrue
+    assertThat(pool.release(third)).isFalse
+    assertThat(pool.size).isEqualTo(2)
+
+    assertThat(pool.acquire()).isSameAs(first)
+    assertThat(pool.release(third)).isTrue
+    assertThat(pool.acquire()).isSameAs(second)
+    assertThat(pool.acquire()).isSameAs(third)
+    assertThat(pool.acquire()).isNull()
+    assertThat(pool.size).isEqualTo(0)
+  }
+
+  @Test
+  fun `release - throws when item is already in the pool`() {
+    val pool = ConcurrentBoundedPool<Any>(2)
+    val item = Any()
+    pool.release(item)
+
+    assertThatThrownBy { pool.release(item) }
+        .isInstanceOf(IllegalStateException::class.java)
+        .hasMessage("Already in the pool!")
+  }
+
+  @Test
+  fun `acquire and release - never hand out the same item twice across threads`() {
+    val capacity = 8
+    val pool = ConcurrentBoundedPool<Any>(capacity)
+    repeat(capacity) { pool.release(Any()) }
+
+    val threads = 4
+    val iterations = 10_000
+    val start = CountDownLatch(1)
+    val inUse: MutableSet<Any> = Collections.newSetFromMap(IdentityHashMap())
+    val failures = mutableListOf<Throwable>()
+
+    val workers =
+        (0 until threads).map {
+          Thread {
+            start.await()
+            try {
+              repeat(iterations) {
+                val item = pool.acquire() ?: return@repeat
+                synchronized(inUse) { check(inUse.add(item)) { "Item acquired twice" } }
+                synchronized(inUse) { inUse.remove(item) }
+                check(pool.release(item)) { "Pool unexpectedly full" }
+              }
+            } catch (t: Throwable) {
+              synchronized(failures) { failures.add(t) }
+            }
+          }
+        }
+    workers.forEach { it.start() }
+    start.countDown()
+    workers.forEach { it.join() }
+
+    assertThat(failures).isEmpty()
+    assertThat(pool.size).isEqualTo(capacity)
+  }
+}
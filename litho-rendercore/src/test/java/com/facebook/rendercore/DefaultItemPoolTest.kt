@@ -16,6 +16,7 @@
 
 package com.facebook.rendercore
 
+import android.content.ComponentCallbacks2
 import android.content.Context
 import android.widget.TextView
 import androidx.test.core.app.ApplicationProvider
@@ -82,6 +83,22 @@ class DefaultItemPoolTest {
     Assertions.assertThat(contentAllocator.numberAllocations).isEqualTo(1)
   }
 
+  @Test
+  fun `onTrimMemory - should only drop the content when the process is about to be killed`() {
+    val pool = MountItemsPool.DefaultItemPool(this::class.java, 1)
+    val contentAllocator = FakeContentAllocator()
+    val context = ApplicationProvider.getApplicationContext<Context>()
+    val view = TextView(context)
+    pool.release(view)
+
+    pool.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL)
+    Assertions.assertThat(pool.acquire(contentAllocator)).isEqualTo(view)
+
+    pool.release(view)
+    pool.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE)
+    Assertions.assertThat(pool.acquire(contentAllocator)).isNull()
+  }
+
   private class FakeContentAllocator : ContentAllocator<TextView> {
 
     var numberAllocations: Int = 0
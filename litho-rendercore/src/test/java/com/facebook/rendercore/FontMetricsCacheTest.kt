@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.rendercore
+
+import android.graphics.Paint
+import android.graphics.Typeface
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class FontMetricsCacheTest {
+
+  @Test
+  fun `get - shares metrics between paints with the same font`() {
+    val cache = FontMetricsCache()
+
+    val metrics = cache.get(paint(textSize = 12f))
+
+    assertThat(cache.get(paint(textSize = 12f))).isSameAs(metrics)
+    assertThat(cache.size).isEqualTo(1)
+  }
+
+  @Test
+  fun `get - keeps separate entries for each font property`() {
+    val cache = FontMetricsCache()
+
+    cache.get(paint(textSize = 12f))
+    cache.get(paint(textSize = 14f))
+    cache.get(paint(textSize = 12f, typeface = Typeface.MONOSPACE))
+    cache.get(paint(textSize = 12f, letterSpacing = 0.1f))
+    cache.get(paint(textSize = 12f, fontFeatureSettings = "smcp"))
+
+    assertThat(cache.size).isEqualTo(5)
+  }
+
+  @Test
+  fun `get - clears the cache when it is full`() {
+    val cache = FontMetricsCache(maxEntries = 2)
+
+    cache.get(paint(textSize = 12f))
+    cache.get(paint(textSize = 14f))
+    cache.get(paint(textSize = 16f))
+
+    assertThat(cache.size).isEqualTo(1)
+  }
+
+  private fun paint(
+      textSize: Float,
+      typeface: Typeface = Typeface.DEFAULT,
+      letterSpacing: Float = 0f,
+      fontFeatureSettings: String? = null,
+  ): Paint =
+      Paint().apply {
+        this.textSize = textSize
+        this.typeface = typeface
+        this.letterSpacing = letterSpacing
+        this.fontFeatureSettings = fontFeatureSettings
+      }
+}
@@ -17,6 +17,7 @@
 package com.facebook.rendercore
 
 import android.content.Context
+import android.os.Looper
 import android.view.View
 import android.widget.LinearLayout
 import android.widget.TextView
@@ -38,6 +39,8 @@ import com.facebook.rendercore.testing.TestHostView
 import com.facebook.rendercore.testing.TestNode
 import com.facebook.rendercore.testing.TestRenderUnit
 import com.facebook.rendercore.testing.ViewWrapperUnit
+import java.time.Duration
+import java.util.concurrent.TimeUnit
 import org.assertj.core.api.Java6Assertions.assertThat
 import org.junit.Rule
 import org.junit.Test
@@ -45,6 +48,8 @@ import org.junit.rules.ExpectedException
 import org.junit.runner.RunWith
 import org.robolectric.RobolectricTestRunner
 import org.robolectric.RuntimeEnvironment
+import org.robolectric.Shadows.shadowOf
+import org.robolectric.annotation.LooperMode
 
 @RunWith(RobolectricTestRunner::class)
 class MountStateTest {
@@ -899,7 +904,261 @@ class MountStateTest {
     }
   }
 
+  @Test
+  fun mountWithMountPlan_skipsUpdatingUnchangedItemsAndUnmountsRemovedItems() {
+    val c: Context = RuntimeEnvironment.application
+    val unchangedUnit = TestRenderUnit()
+    val removedUnit = TestRenderUnit()
+    val binder = TestBinder<Any>()
+    unchangedUnit.addOptionalMountBinder(
+        DelegateBinder.createDelegateBinder<Any, View, Any>(unchangedUnit, binder))
+    val root = TestNode()
+    root.addChild(TestNode(0, 0, 10, 10).apply { setRenderUnit(removedUnit) })
+    root.addChild(TestNode(10, 0, 10, 10).apply { setRenderUnit(unchangedUnit) })
+    val renderTree = createRenderTree(c, root)
+    val mountState = createMountState(c)
+    mountState.mount(renderTree)
+
+    val addedUnit = TestRenderUnit()
+    val newRoot = TestNode()
+    newRoot.addChild(TestNode(10, 0, 10, 10).apply { setRenderUnit(unchangedUnit) })
+    newRoot.addChild(TestNode(0, 10, 10, 10).apply { setRenderUnit(addedUnit) })
+    val newRenderTree = createRenderTree(c, newRoot)
+    newRenderTree.prepareMountPlan(renderTree)
+
+    val mountPlan = checkNotNull(newRenderTree.mountPlan)
+    val unchangedPosition = newRenderTree.getRenderTreeNodeIndex(unchangedUnit.id)
+    assertThat(mountPlan.getNextPosition(renderTree.getRenderTreeNodeIndex(removedUnit.id)))
+        .isEqualTo(-1)
+    assertThat(mountPlan.getPreviousPosition(unchangedPosition))
+        .isEqualTo(renderTree.getRenderTreeNodeIndex(unchangedUnit.id))
+    assertThat(mountPlan.getPreviousPosition(newRenderTree.getRenderTreeNodeIndex(addedUnit.id)))
+        .isEqualTo(-1)
+    assertThat(mountPlan.needsUpdate(unchangedPosition)).isFalse
+
+    mountState.mount(newRenderTree)
+
+    assertThat(binder.wasUnbound).isFalse
+    assertThat(mountState.getContentById(unchangedUnit.id)).isNotNull
+    assertThat(mountState.getContentById(removedUnit.id)).isNull()
+    assertThat(mountState.getContentById(addedUnit.id)).isNotNull
+  }
+
+  @Test
+  fun mountWithMountPlan_ignoresPlanComputedAgainstAnotherTree() {
+    val c: Context = RuntimeEnvironment.application
+    val removedUnit = TestRenderUnit()
+    val root = TestNode()
+    root.addChild(TestNode(0, 0, 10, 10).apply { setRenderUnit(removedUnit) })
+    val renderTree = createRenderTree(c, root)
+    val otherRenderTree = createRenderTree(c, TestNode())
+    val mountState = createMountState(c)
+    mountState.mount(renderTree)
+
+    val addedUnit = TestRenderUnit()
+    val newRoot = TestNode()
+    newRoot.addChild(TestNode(0, 0, 10, 10).apply { setRenderUnit(addedUnit) })
+    val newRenderTree = createRenderTree(c, newRoot)
+    newRenderTree.prepareMountPlan(otherRenderTree)
+    mountState.mount(newRenderTree)
+
+    assertThat(mountState.getContentById(removedUnit.id)).isNull()
+    assertThat(mountState.getContentById(addedUnit.id)).isNotNull
+  }
+
+  @Test
+  fun mountWithMountPlan_dropsThePlanSoThePreviousTreeIsNotRetained() {
+    val c: Context = RuntimeEnvironment.application
+    val unit = TestRenderUnit()
+    val mountState = createMountState(c)
+    val firstRenderTree =
+        createRenderTree(
+            c, TestNode().apply { addChild(TestNode(0, 0, 10, 10).apply { setRenderUnit(unit) }) })
+    mountState.mount(firstRenderTree)
+
+    val secondRenderTree =
+        createRenderTree(
+            c, TestNode().apply { addChild(TestNode(0, 0, 20, 20).apply { setRenderUnit(unit) }) })
+    secondRenderTree.prepareMountPlan(firstRenderTree)
+    mountState.mount(secondRenderTree)
+
+    assertThat(secondRenderTree.mountPlan).isNull()
+
+    val thirdRenderTree =
+        createRenderTree(
+            c, TestNode().apply { addChild(TestNode(0, 0, 30, 30).apply { setRenderUnit(unit) }) })
+    thirdRenderTree.prepareMountPlan(secondRenderTree)
+    mountState.mount(thirdRenderTree)
+
+    // Neither the mounted tree nor the one before it reference older trees anymore.
+    assertThat(thirdRenderTree.mountPlan).isNull()
+    assertThat(secondRenderTree.mountPlan).isNull()
+    assertThat(mountState.getContentById(unit.id)).isNotNull
+  }
+
+  @Test
+  fun mountWithMountPlan_dropsThePlanComputedAgainstAnotherTree() {
+    val c: Context = RuntimeEnvironment.application
+    val mountState = createMountState(c)
+    mountState.mount(createRenderTree(c, TestNode()))
+
+    val renderTree = createRenderTree(c, TestNode())
+    renderTree.prepareMountPlan(createRenderTree(c, TestNode()))
+    mountState.mount(renderTree)
+
+    assertThat(renderTree.mountPlan).isNull()
+  }
+
+  @Test
+  fun timeSlicedMount_defersOffScreenItemsOnceTheBudgetIsSpent() {
+    withTimeSlicedMount {
+      val c: Context = RuntimeEnvironment.application
+      val visibleUnit = TestRenderUnit()
+      val offScreenUnit = TestRenderUnit()
+      val mountState = createTimeSlicedMountState(c)
+
+      mountState.mount(
+          createRenderTree(
+              c,
+              TestNode().apply {
+                addChild(TestNode(0, 0, 10, 10).apply { setRenderUnit(visibleUnit) })
+                addChild(TestNode(0, 150, 10, 10).apply { setRenderUnit(offScreenUnit) })
+              }))
+
+      // Items in the visible rect are mounted right away even though the budget is spent.
+      assertThat(mountState.getContentById(visibleUnit.id)).isNotNull
+      assertThat(mountState.getContentById(offScreenUnit.id)).isNull()
+      assertThat(mountState.needsRemount()).isFalse
+    }
+  }
+
+  @LooperMode(LooperMode.Mode.PAUSED)
+  @Test
+  fun timeSlicedMount_mountsTheDeferredItemsOnTheFollowingFrames() {
+    withTimeSlicedMount {
+      val c: Context = RuntimeEnvironment.application
+      val offScreenUnits = List(3) { TestRenderUnit() }
+      val mountState = createTimeSlicedMountState(c)
+
+      mountState.mount(
+          createRenderTree(
+              c,
+              TestNode().apply {
+                offScreenUnits.forEachIndexed { i, unit ->
+                  addChild(TestNode(0, 120 + i * 10, 10, 10).apply { setRenderUnit(unit) })
+                }
+              }))
+
+      assertThat(offScreenUnits.count { mountState.getContentById(it.id) != null }).isEqualTo(0)
+
+      // The fake clock spends the budget of every frame after a single item.
+      shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(1))
+
+      assertThat(offScreenUnits.all { mountState.getContentById(it.id) != null }).isTrue
+    }
+  }
+
+  @LooperMode(LooperMode.Mode.PAUSED)
+  @Test
+  fun timeSlicedMount_nextMountDropsTheDeferredItems() {
+    withTimeSlicedMount {
+      val c: Context = RuntimeEnvironment.application
+      val offScreenUnit = TestRenderUnit()
+      val mountState = createTimeSlicedMountState(c)
+      mountState.mount(
+          createRenderTree(
+              c,
+              TestNode().apply {
+                addChild(TestNode(0, 150, 10, 10).apply { setRenderUnit(offScreenUnit) })
+              }))
+
+      val visibleUnit = TestRenderUnit()
+      mountState.mount(
+          createRenderTree(
+              c,
+              TestNode().apply {
+                addChild(TestNode(0, 0, 10, 10).apply { setRenderUnit(visibleUnit) })
+              }))
+      shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(1))
+
+      assertThat(mountState.getContentById(visibleUnit.id)).isNotNull
+      assertThat(mountState.getContentById(offScreenUnit.id)).isNull()
+    }
+  }
+
+  @LooperMode(LooperMode.Mode.PAUSED)
+  @Test
+  fun timeSlicedMount_unmountAllItemsDropsTheDeferredItems() {
+    withTimeSlicedMount {
+      val c: Context = RuntimeEnvironment.application
+      val offScreenUnit = TestRenderUnit()
+      val mountState = createTimeSlicedMountState(c)
+      mountState.mount(
+          createRenderTree(
+              c,
+              TestNode().apply {
+                addChild(TestNode(0, 150, 10, 10).apply { setRenderUnit(offScreenUnit) })
+              }))
+
+      mountState.unmountAllItems()
+      shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(1))
+
+      assertThat(mountState.getContentById(offScreenUnit.id)).isNull()
+      assertThat(mountState.needsRemount()).isTrue
+    }
+  }
+
+  @Test
+  fun timeSlicedMount_detachMountsTheDeferredItemsBeforeUnbinding() {
+    withTimeSlicedMount {
+      val c: Context = RuntimeEnvironment.application
+      val offScreenUnit = TestRenderUnit()
+      val binder = TestBinder<Any>()
+      offScreenUnit.addAttachBinder(
+          DelegateBinder.createDelegateBinder<Any, View, Any>(offScreenUnit, binder))
+      val mountState = createTimeSlicedMountState(c)
+      mountState.mount(
+          createRenderTree(
+              c,
+              TestNode().apply {
+                addChild(TestNode(0, 150, 10, 10).apply { setRenderUnit(offScreenUnit) })
+              }))
+      assertThat(binder.wasBound).isFalse
+
+      mountState.detach()
+
+      assertThat(mountState.getContentById(offScreenUnit.id)).isNotNull
+      assertThat(binder.wasBound).isTrue
+      assertThat(binder.wasUnbound).isTrue
+    }
+  }
+
   companion object {
+    private inline fun withTimeSlicedMount(block: () -> Unit) {
+      val useTimeSlicedMount = RenderCoreConfig.useTimeSlicedMount
+      RenderCoreConfig.useTimeSlicedMount = true
+      try {
+        block()
+      } finally {
+        RenderCoreConfig.useTimeSlicedMount = useTimeSlicedMount
+      }
+    }
+
+    /**
+     * Creates a [MountState] whose root host shows the top left 100x100 of the 200x200 render
+     * trees, and whose clock advances by a second on every read so that any mount budget is spent
+     * after the first item.
+     */
+    private fun createTimeSlicedMountState(c: Context): MountState {
+      val host = TestHostView(c)
+      host.layout(0, 0, 100, 100)
+      var nowNs = 0L
+      return MountState(host, RenderCoreSystrace.getInstance()) {
+        nowNs += TimeUnit.SECONDS.toNanos(1)
+        nowNs
+      }
+    }
+
     private fun createRenderTree(c: Context, root: Node<Any?>): RenderTree {
       val sizeConstraints = SizeConstraints.exact(200, 200)
       val layoutContext = LayoutContext<Any?>(c, null, -1, LayoutCache(), null)
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.rendercore
+
+import android.content.Context
+import android.content.res.Configuration
+import androidx.test.core.app.ApplicationProvider
+import com.facebook.rendercore.LayoutCache.CacheItem
+import com.facebook.rendercore.testing.SimpleLayoutResult
+import com.facebook.rendercore.utils.MeasureSpecUtils.exactly
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class SharedLayoutCacheTest {
+
+  private val androidContext: Context = ApplicationProvider.getApplicationContext()
+  private val context: LayoutContext<Any?> = layoutContext(androidContext, null)
+
+  @Test
+  fun `get - returns entries only for matching id and specs`() {
+    val cache = SharedLayoutCache()
+    val owner = Any()
+    val item = CacheItem(SimpleLayoutResult.create().width(100).build(), exactly(100), exactly(50))
+
+    cache.put(1L, owner, item, context)
+
+    val entry = cache.get(1L, exactly(100), exactly(50), context)
+    assertThat(entry?.cacheItem).isSameAs(item)
+    assertThat(entry?.owner).isSameAs(owner)
+    assertThat(cache.get(1L, exactly(200), exactly(50), context)).isNull()
+    assertThat(cache.get(2L, exactly(100), exactly(50), context)).isNull()
+  }
+
+  @Test
+  fun `put - keeps one entry per spec pair`() {
+    val cache = SharedLayoutCache()
+    val portrait = CacheItem(SimpleLayoutResult.create().build(), exactly(100), exactly(50))
+    val landscape = CacheItem(SimpleLayoutResult.create().build(), exactly(200), exactly(50))
+
+    cache.put(1L, null, portrait, context)
+    cache.put(1L, null, landscape, context)
+
+    assertThat(cache.get(1L, exactly(100), exactly(50), context)?.cacheItem).isSameAs(portrait)
+    assertThat(cache.get(1L, exactly(200), exactly(50), context)?.cacheItem).isSameAs(landscape)
+  }
+
+  @Test
+  fun `put - evicts least recently used entries when over budget`() {
+    val cache = SharedLayoutCache(maxSizeBytes = 2, sizeOf = { 1 })
+    cache.put(1L, null, item(), context)
+    cache.put(2L, null, item(), context)
+
+    // Touch the first entry so that the second one becomes the least recently used.
+    cache.get(1L, exactly(1), exactly(1), context)
+    cache.put(3L, null, item(), context)
+
+    assertThat(cache.get(1L, exactly(1), exactly(1), context)).isNotNull
+    assertThat(cache.get(2L, exactly(1), exactly(1), context)).isNull()
+    assertThat(cache.get(3L, exactly(1), exactly(1), context)).isNotNull
+    assertThat(cache.sizeBytes).isEqualTo(2)
+  }
+
+  @Test
+  fun `get - misses entries measured with another configuration or render context`() {
+    val cache = SharedLayoutCache()
+    cache.put(1L, null, item(), context)
+
+    val configuration = Configuration(androidContext.resources.configuration)
+    configuration.densityDpi *= 2
+    val otherDensityContext =
+        layoutContext(androidContext.createConfigurationContext(configuration), null)
+    assertThat(cache.get(1L, exactly(1), exactly(1), otherDensityContext)).isNull()
+    assertThat(cache.get(1L, exactly(1), exactly(1), layoutContext(androidContext, Any())))
+        .isNull()
+    assertThat(cache.get(1L, exactly(1), exactly(1), layoutContext(androidContext, null)))
+        .isNotNull
+  }
+
+  @Test
+  fun `put - ignores results with layout data`() {
+    val cache = SharedLayoutCache()
+    val item =
+        CacheItem(SimpleLayoutResult.create().layoutData(Any()).build(), exactly(1), exactly(1))
+
+    cache.put(1L, null, item, context)
+
+    assertThat(cache.get(1L, exactly(1), exactly(1), context)).isNull()
+  }
+
+  @Test
+  fun `estimateSizeBytes - grows with the size of the subtree`() {
+    val leaf = CacheItem(SimpleLayoutResult.create().build(), exactly(1), exactly(1))
+    val parent =
+        CacheItem(
+            SimpleLayoutResult.create()
+                .child(SimpleLayoutResult.create())
+                .child(SimpleLayoutResult.create())
+                .build(),
+            exactly(1),
+            exactly(1))
+
+    assertThat(SharedLayoutCache.estimateSizeBytes(parent))
+        .isGreaterThan(SharedLayoutCache.estimateSizeBytes(leaf))
+  }
+
+  private fun item(): CacheItem =
+      CacheItem(SimpleLayoutResult.create().build(), exactly(1), exactly(1))
+
+  private fun layoutContext(androidContext: Context, renderContext: Any?): LayoutContext<Any?> =
+      LayoutContext(androidContext, renderContext, -1, LayoutCache(), null)
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.rendercore
+
+import android.text.Layout
+import android.text.SpannableString
+import android.text.StaticLayout
+import android.text.TextPaint
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class TextLayoutCacheTest {
+
+  @Test
+  fun `get - returns layouts only for matching text, width and style`() {
+    val cache = TextLayoutCache()
+    val layout = layout("hello")
+
+    cache.put(TextLayoutCache.Key("hello", 100, 12f, Layout.Alignment.ALIGN_NORMAL), layout)
+
+    assertThat(cache.get(TextLayoutCache.Key("hello", 100, 12f, Layout.Alignment.ALIGN_NORMAL)))
+        .isSameAs(layout)
+    assertThat(cache.get(TextLayoutCache.Key("hello", 200, 12f, Layout.Alignment.ALIGN_NORMAL)))
+        .isNull()
+    assertThat(cache.get(TextLayoutCache.Key("hello", 100, 14f, Layout.Alignment.ALIGN_NORMAL)))
+        .isNull()
+    assertThat(cache.get(TextLayoutCache.Key("world", 100, 12f, Layout.Alignment.ALIGN_NORMAL)))
+        .isNull()
+    assertThat(cache.hitCount).isEqualTo(1)
+    assertThat(cache.missCount).isEqualTo(3)
+  }
+
+  @Test
+  fun `get - matches texts by content`() {
+    val cache = TextLayoutCache()
+    val layout = layout("hello")
+
+    cache.put(TextLayoutCache.Key(StringBuilder("hel").append("lo"), 100), layout)
+
+    assertThat(cache.get(TextLayoutCache.Key("hello", 100))).isSameAs(layout)
+  }
+
+  @Test
+  fun `put - evicts least recently used entries when over budget`() {
+    val cache = TextLayoutCache(maxCharacters = 12)
+    cache.put(TextLayoutCache.Key("aaaa", 100), layout("aaaa"))
+    cache.put(TextLayoutCache.Key("bbbb", 100), layout("bbbb"))
+    cache.put(TextLayoutCache.Key("cccc", 100), layout("cccc"))
+
+    // Touch the first entry so that the other ones become the least recently used.
+    cache.get(TextLayoutCache.Key("aaaa", 100))
+    cache.put(TextLayoutCache.Key("dddd", 100), layout("dddd"))
+
+    // The cache is trimmed to three quarters of its budget.
+    assertThat(cache.get(TextLayoutCache.Key("aaaa", 100))).isNotNull
+    assertThat(cache.get(TextLayoutCache.Key("bbbb", 100))).isNull()
+    assertThat(cache.get(TextLayoutCache.Key("cccc", 100))).isNull()
+    assertThat(cache.get(TextLayoutCache.Key("dddd", 100))).isNotNull
+    assertThat(cache.sizeCharacters).isEqualTo(8)
+  }
+
+  @Test
+  fun `put - ignores texts larger than the budget`() {
+    val cache = TextLayoutCache(maxCharacters = 4)
+
+    cache.put(TextLayoutCache.Key("hello", 100), layout("hello"))
+
+    assertThat(cache.get(TextLayoutCache.Key("hello", 100))).isNull()
+    assertThat(cache.sizeCharacters).isEqualTo(0)
+  }
+
+  @Test
+  fun `isCacheable - excludes text with spans`() {
+    assertThat(TextLayoutCache.isCacheable("hello")).isTrue
+    assertThat(TextLayoutCache.isCacheable(SpannableString("hello"))).isFalse
+  }
+
+  private fun layout(text: String): Layout =
+      StaticLayout(text, TextPaint(), 100, Layout.Alignment.ALIGN_NORMAL, 1f, 0f, false)
+}
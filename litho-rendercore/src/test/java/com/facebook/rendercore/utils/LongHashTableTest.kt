@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.rendercore.utils
+
+import java.util.Random
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class LongHashTableTest {
+
+  @Test
+  fun `set - adds, finds and removes keys including zero and negative keys`() {
+    val set = LongHashSet()
+
+    assertThat(set.add(0L)).isTrue
+    assertThat(set.add(-1L)).isTrue
+    assertThat(set.add(Long.MAX_VALUE)).isTrue
+    assertThat(set.add(0L)).isFalse
+
+    assertThat(set.size).isEqualTo(3)
+    assertThat(0L in set).isTrue
+    assertThat(1L in set).isFalse
+
+    assertThat(set.remove(-1L)).isTrue
+    assertThat(set.remove(-1L)).isFalse
+    assertThat(-1L in set).isFalse
+    assertThat(set.size).isEqualTo(2)
+
+    set.clear()
+    assertThat(set.isEmpty()).isTrue
+    assertThat(0L in set).isFalse
+  }
+
+  @Test
+  fun `int map - returns the default value for missing keys`() {
+    val map = LongIntHashMap(0)
+    map.put(42L, 7)
+    map.put(42L, 8)
+
+    assertThat(map.get(42L, -1)).isEqualTo(8)
+    assertThat(map.get(43L, -1)).isEqualTo(-1)
+    assertThat(map.size).isEqualTo(1)
+  }
+
+  @Test
+  fun `object map - iterates by index and removes while iterating backwards`() {
+    val map = LongObjectHashMap<String>()
+    for (i in 0L until 10L) {
+      map.put(i, "v$i")
+    }
+
+    for (i in map.size - 1 downTo 0) {
+      val key = map.keyAt(i)
+      if (key % 2 == 0L) {
+        assertThat(map.remove(key)).isEqualTo("v$key")
+      }
+    }
+
+    assertThat(map.size).isEqualTo(5)
+    for (i in 0 until map.size) {
+      assertThat(map.keyAt(i) % 2).isEqualTo(1L)
+      assertThat(map.valueAt(i)).isEqualTo("v${map.keyAt(i)}")
+    }
+  }
+
+  @Test
+  fun `object map - behaves like a HashMap under random operations`() {
+    val random = Random(0)
+    val map = LongObjectHashMap<Long>()
+    val expected = HashMap<Long, Long>()
+
+    repeat(20_000) {
+      // A small key range so that puts, replacements and removals all happen often.
+      val key = random.nextInt(512).toLong() * 0x1_0000_0000L
+      when (random.nextInt(3)) {
+        0 -> assertThat(map.put(key, it.toLong())).isEqualTo(expected.put(key, it.toLong()))
+        1 -> assertThat(map.remove(key)).isEqualTo(expected.remove(key))
+        else -> assertThat(map[key]).isEqualTo(expected[key])
+      }
+    }
+
+    assertThat(map.size).isEqualTo(expected.size)
+    for ((key, value) in expected) {
+      assertThat(map[key]).isEqualTo(value)
+    }
+  }
+}
@@ -25,7 +25,7 @@ import java.util.List;
 /**
  * Container for data, besides the ChangeSet itself, created as part of a changeset calculation:
  * this is local to a particular changeset calculation and is only active while the changeset is
- * being calculated.
+ * being calculated. It is thread safe since child changesets can be generated in parallel.
  */
 public class ChangeSetCalculationState {
 
@@ -34,18 +34,18 @@ public class ChangeSetCalculationState {
   /**
    * @return whether the associated changeset calculation is still in progress.
    */
-  boolean isActive() {
+  synchronized boolean isActive() {
     return mState != null;
   }
 
-  void recordEventHandler(String globalKey, EventHandler eventHandler) {
+  synchronized void recordEventHandler(String globalKey, EventHandler eventHandler) {
     if (mState == null) {
       throw new RuntimeException("Trying to use inactive ChangeSetCalculationState!");
     }
     mState.eventHandlers.add(new Pair<>(globalKey, eventHandler));
   }
 
-  List<Pair<String, EventHandler<?>>> getEventHandlers() {
+  synchronized List<Pair<String, EventHandler<?>>> getEventHandlers() {
     if (mState == null) {
       throw new RuntimeException("Trying to use inactive ChangeSetCalculationState!");
     }
@@ -56,7 +56,7 @@ public class ChangeSetCalculationState {
    * Marks the changeset calculation as done and drops this state - you should now now longer use
    * this object.
    */
-  void clear() {
+  synchronized void clear() {
     if (mState == null) {
       throw new IllegalStateException("Trying to clear inactive ChangeSetCalculationState!");
     }
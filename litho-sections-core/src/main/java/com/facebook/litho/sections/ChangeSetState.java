@@ -23,10 +23,13 @@ import android.util.SparseArray;
 import androidx.annotation.Nullable;
 import com.facebook.infer.annotation.Nullsafe;
 import com.facebook.litho.ComponentsSystrace;
+import com.facebook.litho.sections.config.SectionsConfiguration;
 import com.facebook.litho.sections.logger.SectionsDebugLogger;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * ChangeSetState is responsible to generate a global ChangeSet between two {@link Section}s trees.
@@ -373,6 +376,22 @@ public class ChangeSetState {
       }
     }
 
+    final @Nullable ChangeSet[] parallelChangeSets =
+        SectionsConfiguration.parallelChildChangeSets
+            ? generateChildrenChangeSetsInParallel(
+                sectionContext,
+                currentChildren,
+                currentChildrenList,
+                newChildrenList,
+                removedComponents,
+                sectionsDebugLogger,
+                sectionTreeTag,
+                currentPrefix,
+                newPrefix,
+                thread,
+                enableStats)
+            : null;
+
     int activeChildIndex = 0;
     for (int i = 0; i < newChildrenList.size(); i++) {
       final Section newChild = newChildrenList.get(i);
@@ -383,17 +402,19 @@ public class ChangeSetState {
       if (currentChildIndex < 0) {
         final ChangeSet currentChangeSet = changeSets.get(activeChildIndex);
         final ChangeSet changeSet =
-            generateChangeSetRecursive(
-                sectionContext,
-                null,
-                newChild,
-                removedComponents,
-                sectionsDebugLogger,
-                sectionTreeTag,
-                currentPrefix,
-                newPrefix,
-                thread,
-                enableStats);
+            parallelChangeSets != null
+                ? parallelChangeSets[i]
+                : generateChangeSetRecursive(
+                    sectionContext,
+                    null,
+                    newChild,
+                    removedComponents,
+                    sectionsDebugLogger,
+                    sectionTreeTag,
+                    currentPrefix,
+                    newPrefix,
+                    thread,
+                    enableStats);
 
         changeSets.put(activeChildIndex, ChangeSet.merge(currentChangeSet, changeSet));
       } else {
@@ -401,17 +422,19 @@ public class ChangeSetState {
 
         final ChangeSet currentChangeSet = changeSets.get(activeChildIndex);
         final ChangeSet changeSet =
-            generateChangeSetRecursive(
-                sectionContext,
-                currentChildrenList.get(currentChildIndex),
-                newChild,
-                removedComponents,
-                sectionsDebugLogger,
-                sectionTreeTag,
-                currentPrefix,
-                newPrefix,
-                thread,
-                enableStats);
+            parallelChangeSets != null
+                ? parallelChangeSets[i]
+                : generateChangeSetRecursive(
+                    sectionContext,
+                    currentChildrenList.get(currentChildIndex),
+                    newChild,
+                    removedComponents,
+                    sectionsDebugLogger,
+                    sectionTreeTag,
+                    currentPrefix,
+                    newPrefix,
+                    thread,
+                    enableStats);
 
         changeSets.put(activeChildIndex, ChangeSet.merge(currentChangeSet, changeSet));
       }
@@ -420,6 +443,108 @@ public class ChangeSetState {
     return changeSets;
   }
 
+  /**
+   * Generates the {@link ChangeSet}s of the children in newChildrenList, forking the ones which
+   * need to be diffed on the common {@link ForkJoinPool}. The removed components are added to
+   * removedComponents in the same order as in a sequential calculation.
+   *
+   * @return the {@link ChangeSet} of each new child, or null if fewer than {@link
+   *     SectionsConfiguration#parallelChildChangeSetsThreshold} children need to be diffed, in
+   *     which case nothing was calculated.
+   */
+  private static @Nullable ChangeSet[] generateChildrenChangeSetsInParallel(
+      final SectionContext sectionContext,
+      Map<String, Pair<Section, Integer>> currentChildren,
+      List<Section> currentChildrenList,
+      List<Section> newChildrenList,
+      List<Section> removedComponents,
+      final SectionsDebugLogger sectionsDebugLogger,
+      final String sectionTreeTag,
+      final String currentPrefix,
+      final String newPrefix,
+      final String thread,
+      final boolean enableStats) {
+    final int size = newChildrenList.size();
+    final @Nullable Section[] currentSections = new Section[size];
+    final boolean[] needsDiff = new boolean[size];
+    int diffCount = 0;
+    for (int i = 0; i < size; i++) {
+      final Section newChild = newChildrenList.get(i);
+      final Pair<Section, Integer> valueAndPosition = currentChildren.get(newChild.getGlobalKey());
+      final Section current =
+          valueAndPosition != null ? currentChildrenList.get(valueAndPosition.second) : null;
+      currentSections[i] = current;
+      needsDiff[i] =
+          current == null
+              || current.getCount() != newChild.getCount()
+              || newChild.shouldComponentUpdate(current, newChild);
+      if (needsDiff[i]) {
+        diffCount++;
+      }
+    }
+
+    if (diffCount < SectionsConfiguration.parallelChildChangeSetsThreshold) {
+      return null;
+    }
+
+    final ForkJoinPool pool = ForkJoinPool.commonPool();
+    final List<List<Section>> removedComponentsPerChild = new ArrayList<>(size);
+    final List<ForkJoinTask<ChangeSet>> tasks = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      final Section current = currentSections[i];
+      final Section newChild = newChildrenList.get(i);
+      final List<Section> childRemovedComponents = new ArrayList<>();
+      removedComponentsPerChild.add(childRemovedComponents);
+      if (!needsDiff[i]) {
+        tasks.add(null);
+        continue;
+      }
+
+      final ForkJoinTask<ChangeSet> task =
+          ForkJoinTask.adapt(
+              () ->
+                  generateChangeSetRecursive(
+                      sectionContext,
+                      current,
+                      newChild,
+                      childRemovedComponents,
+                      sectionsDebugLogger,
+                      sectionTreeTag,
+                      currentPrefix,
+                      newPrefix,
+                      thread,
+                      enableStats));
+      if (ForkJoinTask.getPool() == pool) {
+        task.fork();
+      } else {
+        pool.execute(task);
+      }
+      tasks.add(task);
+    }
+
+    final ChangeSet[] changeSets = new ChangeSet[size];
+    for (int i = 0; i < size; i++) {
+      final ForkJoinTask<ChangeSet> task = tasks.get(i);
+      changeSets[i] =
+          task != null
+              ? task.join()
+              : generateChangeSetRecursive(
+                  sectionContext,
+                  currentSections[i],
+                  newChildrenList.get(i),
+                  removedComponentsPerChild.get(i),
+                  sectionsDebugLogger,
+                  sectionTreeTag,
+                  currentPrefix,
+                  newPrefix,
+                  thread,
+                  enableStats);
+      removedComponents.addAll(removedComponentsPerChild.get(i));
+    }
+
+    return changeSets;
+  }
+
   private static int getPreviousChildrenCount(List<Section> sections, String key) {
     int count = 0;
     for (Section s : sections) {
@@ -30,6 +30,7 @@ import static com.facebook.rendercore.instrumentation.HandlerInstrumenter.instru
 
 import android.os.HandlerThread;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.text.TextUtils;
 import android.util.Log;
 import android.util.Pair;
@@ -191,7 +192,31 @@ public class SectionTree {
   private LoadEventsHandler mLoadEventsHandler;
 
   private final CalculateChangeSetRunnable mCalculateChangeSetOnMainThreadRunnable;
+  private final RunnableHandler mChangeSetThreadHandler;
   private final CalculateChangeSetRunnable mCalculateChangeSetRunnable;
+  private final long mChangeSetCoalescingWindowMs;
+  private final Runnable mFlushCoalescedChangeSetsRunnable =
+      new Runnable() {
+        @Override
+        public void run() {
+          flushCoalescedChangeSets();
+        }
+      };
+
+  @GuardedBy("this")
+  private boolean mIsCoalescingChangeSets;
+
+  @GuardedBy("this")
+  private long mCoalescingWindowEndMs;
+
+  @GuardedBy("this")
+  private @ApplyNewChangeSet int mCoalescedSource = ApplyNewChangeSet.NONE;
+
+  @GuardedBy("this")
+  private @Nullable String mCoalescedAttribution;
+
+  @GuardedBy("this")
+  private @Nullable ChangesetDebugInfo mCoalescedChangesetDebugInfo;
 
   private class CalculateChangeSetRunnable extends ThreadTracingRunnable {
 
@@ -361,9 +386,10 @@ public class SectionTree {
         builder.mChangeSetThreadHandler != null
             ? builder.mChangeSetThreadHandler
             : new DefaultHandler(getDefaultChangeSetThreadLooper());
-    changeSetThreadHandler = instrumentHandler(changeSetThreadHandler);
-    mCalculateChangeSetRunnable = new CalculateChangeSetRunnable(changeSetThreadHandler);
+    mChangeSetThreadHandler = instrumentHandler(changeSetThreadHandler);
+    mCalculateChangeSetRunnable = new CalculateChangeSetRunnable(mChangeSetThreadHandler);
     mCalculateChangeSetOnMainThreadRunnable = new CalculateChangeSetRunnable(mMainThreadHandler);
+    mChangeSetCoalescingWindowMs = builder.mChangeSetCoalescingWindowMs;
     mChangesetDebug = ChangesetDebugConfiguration.getListener();
     mPostToFrontOfQueueForFirstChangeset =
         new AtomicBoolean(builder.mPostToFrontOfQueueForFirstChangeset);
@@ -437,7 +463,7 @@ public class SectionTree {
                     SET_ROOT_ASYNC,
                     section.getSimpleName(),
                     Thread.currentThread().getStackTrace());
-        mCalculateChangeSetRunnable.ensurePosted(SET_ROOT_ASYNC, null, changesetDebugInfo);
+        postChangeSetCalculation(SET_ROOT_ASYNC, null, changesetDebugInfo);
       } else {
         final ChangesetDebugInfo changesetDebugInfo =
             mChangesetDebug == null
@@ -485,7 +511,86 @@ public class SectionTree {
             ? null
             : new ChangesetDebugInfo(
                 SET_ROOT_ASYNC, section.getSimpleName(), Thread.currentThread().getStackTrace());
-    mCalculateChangeSetRunnable.ensurePosted(SET_ROOT_ASYNC, null, changesetDebugInfo);
+    postChangeSetCalculation(SET_ROOT_ASYNC, null, changesetDebugInfo);
+  }
+
+  /**
+   * Posts the calculation of a new {@link ChangeSet} on the ChangeSetThread. If a change set
+   * coalescing window was set, the calculation only starts once the window elapses, so that all the
+   * roots and state updates received in the meantime result in a single {@link ChangeSet}.
+   */
+  private void postChangeSetCalculation(
+      @ApplyNewChangeSet int source,
+      @Nullable String attribution,
+      @Nullable ChangesetDebugInfo changesetDebugInfo) {
+    if (mChangeSetCoalescingWindowMs <= 0) {
+      mCalculateChangeSetRunnable.ensurePosted(source, attribution, changesetDebugInfo);
+      return;
+    }
+
+    synchronized (this) {
+      if (mIsCoalescingChangeSets) {
+        return;
+      }
+
+      mIsCoalescingChangeSets = true;
+      mCoalescingWindowEndMs = SystemClock.uptimeMillis() + mChangeSetCoalescingWindowMs;
+      mCoalescedSource = source;
+      mCoalescedAttribution = attribution;
+      mCoalescedChangesetDebugInfo = changesetDebugInfo;
+    }
+
+    postFlushCoalescedChangeSets(mChangeSetCoalescingWindowMs);
+  }
+
+  private void postFlushCoalescedChangeSets(long delayMs) {
+    final String tag =
+        mChangeSetThreadHandler.isTracing()
+            ? "SectionTree.flushCoalescedChangeSets - " + mTag
+            : EMPTY_STRING;
+    mChangeSetThreadHandler.postDelayed(mFlushCoalescedChangeSetsRunnable, tag, delayMs);
+  }
+
+  private void flushCoalescedChangeSets() {
+    final @ApplyNewChangeSet int source;
+    final String attribution;
+    final ChangesetDebugInfo changesetDebugInfo;
+    final long remainingWindowMs;
+    synchronized (this) {
+      if (!mIsCoalescingChangeSets) {
+        return;
+      }
+
+      // Handlers which can't delay their tasks run the flush right away, so it is posted again
+      // until the window elapses.
+      remainingWindowMs =
+          mChangeSetThreadHandler.canPostDelayed() || mReleased
+              ? 0
+              : mCoalescingWindowEndMs - SystemClock.uptimeMillis();
+      if (remainingWindowMs <= 0) {
+        source = mCoalescedSource;
+        attribution = mCoalescedAttribution;
+        changesetDebugInfo = mCoalescedChangesetDebugInfo;
+        mIsCoalescingChangeSets = false;
+        mCoalescedSource = ApplyNewChangeSet.NONE;
+        mCoalescedAttribution = null;
+        mCoalescedChangesetDebugInfo = null;
+
+        if (mReleased) {
+          return;
+        }
+      } else {
+        source = ApplyNewChangeSet.NONE;
+        attribution = null;
+        changesetDebugInfo = null;
+      }
+    }
+
+    if (remainingWindowMs > 0) {
+      postFlushCoalescedChangeSets(remainingWindowMs);
+      return;
+    }
+    mCalculateChangeSetRunnable.ensurePosted(source, attribution, changesetDebugInfo);
   }
 
   /**
@@ -974,6 +1079,7 @@ public class SectionTree {
       mCurrentSection = null;
       mNextSection = null;
     }
+    mChangeSetThreadHandler.remove(mFlushCoalescedChangeSetsRunnable);
 
     for (Range range : mLastRanges.values()) {
       releaseRange(range);
@@ -1033,14 +1139,16 @@ public class SectionTree {
     if (mForceSyncStateUpdates) {
       updateState(key, stateUpdate, attribution);
     } else {
-      mCalculateChangeSetRunnable.cancel();
+      if (mChangeSetCoalescingWindowMs <= 0) {
+        mCalculateChangeSetRunnable.cancel();
+      }
       addStateUpdateInternal(key, stateUpdate, false);
       final ChangesetDebugInfo changesetDebugInfo =
           mChangesetDebug == null
               ? null
               : new ChangesetDebugInfo(
                   UPDATE_STATE_ASYNC, attribution, key, Thread.currentThread().getStackTrace());
-      mCalculateChangeSetRunnable.ensurePosted(UPDATE_STATE_ASYNC, attribution, changesetDebugInfo);
+      postChangeSetCalculation(UPDATE_STATE_ASYNC, attribution, changesetDebugInfo);
 
       LithoStats.incrementSectionStateUpdateAsyncCount();
     }
@@ -1976,6 +2084,7 @@ public class SectionTree {
     private @Nullable RunnableHandler mChangeSetThreadHandler;
     private boolean mForceSyncStateUpdates;
     private boolean mPostToFrontOfQueueForFirstChangeset;
+    private long mChangeSetCoalescingWindowMs;
 
     private Builder(SectionContext componentContext, Target target) {
       mContext = componentContext;
@@ -2036,6 +2145,24 @@ public class SectionTree {
       return this;
     }
 
+    /**
+     * If positive, asynchronous root and state updates don't trigger a {@link ChangeSet}
+     * calculation right away: the calculation starts once this window elapses after the first of
+     * them, so that all the updates received in the meantime are merged into a single {@link
+     * ChangeSet}, computed against the last committed tree and applied to the {@link Target} as a
+     * single batch. This is useful for lists which receive many updates per second.
+     *
+     * <p>The window is timed by the change set thread {@link RunnableHandler} if it can delay its
+     * tasks (see {@link RunnableHandler#canPostDelayed}), like the default one. Other handlers,
+     * e.g. an {@link com.facebook.litho.ExecutorLithoHandler} or an instrumented handler which
+     * doesn't forward {@link RunnableHandler#postDelayed}, run a check repeatedly until the window
+     * elapses, which keeps their thread busy in the meantime.
+     */
+    public Builder changeSetCoalescingWindowMs(long changeSetCoalescingWindowMs) {
+      mChangeSetCoalescingWindowMs = changeSetCoalescingWindowMs;
+      return this;
+    }
+
     /**
      * @return the {@link SectionTree}.
      */
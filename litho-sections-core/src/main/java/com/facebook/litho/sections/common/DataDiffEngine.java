@@ -0,0 +1,336 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.sections.common;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.recyclerview.widget.BatchingListUpdateCallback;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+import com.facebook.litho.LayoutThreadPool;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Computes the updates between two lists for {@link DataDiffSectionSpec}, with fast paths in front
+ * of {@link DiffUtil}:
+ *
+ * <ul>
+ *   <li>the common prefix and suffix of the two lists are trimmed without running the diff, and the
+ *       content of their items is compared in parallel chunks for large lists;
+ *   <li>when items are compared with {@link Object#equals(Object)}, a hash set detects middle
+ *       sections with no items in common, which are replaced without running the diff;
+ *   <li>the diff of the remaining middle section is abandoned once it runs over the time budget, in
+ *       which case the middle section is replaced with a single remove and a single insert.
+ * </ul>
+ *
+ * The dispatched updates always transform the previous list into the next one, but they may differ
+ * from the ones of {@link DiffUtil} (e.g. no moves or fine-grained updates in the fallback).
+ */
+final class DataDiffEngine {
+
+  /** The number of item pairs above which their content is compared in parallel. */
+  @VisibleForTesting static final int PARALLEL_CONTENT_CHECK_THRESHOLD = 2048;
+
+  private static final int CONTENT_CHECK_CHUNK_SIZE = 512;
+  private static final int BUDGET_CHECK_INTERVAL = 256;
+
+  private DataDiffEngine() {}
+
+  /**
+   * @param hashableItems whether two items are the same iff they are equal, in which case item
+   *     identity can be checked with hash sets.
+   * @param timeBudgetNanos the time after which the diff of the middle section is abandoned, or a
+   *     negative value for no budget.
+   */
+  static void calculateDiff(
+      DiffUtil.Callback callback,
+      @Nullable List<?> previousData,
+      @Nullable List<?> nextData,
+      boolean hashableItems,
+      boolean detectMoves,
+      long timeBudgetNanos,
+      ListUpdateCallback updateCallback) {
+    final long deadline =
+        timeBudgetNanos < 0 ? Long.MAX_VALUE : System.nanoTime() + timeBudgetNanos;
+    final int oldSize = callback.getOldListSize();
+    final int newSize = callback.getNewListSize();
+    final BatchingListUpdateCallback out = new BatchingListUpdateCallback(updateCallback);
+
+    int prefix = 0;
+    final int maxAffix = Math.min(oldSize, newSize);
+    while (prefix < maxAffix && callback.areItemsTheSame(prefix, prefix)) {
+      prefix++;
+    }
+    int suffix = 0;
+    while (suffix < maxAffix - prefix
+        && callback.areItemsTheSame(oldSize - 1 - suffix, newSize - 1 - suffix)) {
+      suffix++;
+    }
+
+    final int oldMiddleSize = oldSize - prefix - suffix;
+    final int newMiddleSize = newSize - prefix - suffix;
+
+    // The prefix and the suffix keep their positions in the old and new lists respectively, so
+    // their changes are dispatched before and after the updates of the middle section.
+    final boolean[] prefixChanged = findChangedContents(callback, 0, 0, prefix);
+    final boolean[] suffixChanged =
+        findChangedContents(callback, oldSize - suffix, newSize - suffix, suffix);
+
+    dispatchChanges(out, prefixChanged, 0);
+
+    if (oldMiddleSize > 0 || newMiddleSize > 0) {
+      if (oldMiddleSize == 0 || newMiddleSize == 0) {
+        replace(out, prefix, oldMiddleSize, newMiddleSize);
+      } else if (hashableItems
+          && previousData != null
+          && nextData != null
+          && !hasCommonItems(previousData, nextData, prefix, oldMiddleSize, newMiddleSize)) {
+        replace(out, prefix, oldMiddleSize, newMiddleSize);
+      } else {
+        diffMiddle(callback, prefix, oldMiddleSize, newMiddleSize, detectMoves, deadline, out);
+      }
+    }
+
+    dispatchChanges(out, suffixChanged, newSize - suffix);
+    out.dispatchLastEvent();
+  }
+
+  private static void diffMiddle(
+      DiffUtil.Callback callback,
+      int start,
+      int oldMiddleSize,
+      int newMiddleSize,
+      boolean detectMoves,
+      long deadline,
+      ListUpdateCallback out) {
+    final DiffUtil.DiffResult result;
+    try {
+      result =
+          DiffUtil.calculateDiff(
+              new RangeCallback(callback, start, oldMiddleSize, newMiddleSize, deadline),
+              detectMoves);
+    } catch (BudgetExceededException e) {
+      replace(out, start, oldMiddleSize, newMiddleSize);
+      return;
+    }
+    result.dispatchUpdatesTo(new OffsetListUpdateCallback(out, start));
+  }
+
+  private static void replace(
+      ListUpdateCallback out, int position, int oldMiddleSize, int newMiddleSize) {
+    if (oldMiddleSize > 0) {
+      out.onRemoved(position, oldMiddleSize);
+    }
+    if (newMiddleSize > 0) {
+      out.onInserted(position, newMiddleSize);
+    }
+  }
+
+  private static boolean hasCommonItems(
+      List<?> previousData, List<?> nextData, int start, int oldMiddleSize, int newMiddleSize) {
+    final Set<Object> previousItems = new HashSet<>(oldMiddleSize * 2);
+    for (int i = start; i < start + oldMiddleSize; i++) {
+      previousItems.add(previousData.get(i));
+    }
+    for (int i = start; i < start + newMiddleSize; i++) {
+      if (previousItems.contains(nextData.get(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return for each of the {@code count} pairs of items which are the same, whether their content
+   *     changed. The pairs are checked in parallel chunks when there are many of them, so {@link
+   *     DiffUtil.Callback#areContentsTheSame} may be called concurrently. If it throws, the first
+   *     failure is rethrown on the calling thread once all the chunks are done.
+   */
+  private static boolean[] findChangedContents(
+      final DiffUtil.Callback callback, final int oldStart, final int newStart, final int count) {
+    final boolean[] changed = new boolean[count];
+    if (count < PARALLEL_CONTENT_CHECK_THRESHOLD) {
+      for (int i = 0; i < count; i++) {
+        changed[i] = !callback.areContentsTheSame(oldStart + i, newStart + i);
+      }
+      return changed;
+    }
+
+    final int chunks = (count + CONTENT_CHECK_CHUNK_SIZE - 1) / CONTENT_CHECK_CHUNK_SIZE;
+    final AtomicInteger nextChunk = new AtomicInteger();
+    final AtomicInteger completedChunks = new AtomicInteger();
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+    final Runnable worker =
+        new Runnable() {
+          @Override
+          public void run() {
+            int chunk;
+            while ((chunk = nextChunk.getAndIncrement()) < chunks) {
+              final int from = chunk * CONTENT_CHECK_CHUNK_SIZE;
+              final int to = Math.min(from + CONTENT_CHECK_CHUNK_SIZE, count);
+              try {
+                // Once a chunk failed, the remaining ones are only marked as completed.
+                for (int i = from; i < to && failure.get() == null; i++) {
+                  changed[i] = !callback.areContentsTheSame(oldStart + i, newStart + i);
+                }
+              } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+              } finally {
+                synchronized (completedChunks) {
+                  if (completedChunks.incrementAndGet() == chunks) {
+                    completedChunks.notifyAll();
+                  }
+                }
+              }
+            }
+          }
+        };
+
+    final LayoutThreadPool pool = LayoutThreadPool.getDefault();
+    final int helpers = Math.min(pool.getThreadCount(), chunks - 1);
+    for (int i = 0; i < helpers; i++) {
+      pool.execute(worker);
+    }
+    // The calling thread takes chunks as well, so it only ever waits for chunks which are already
+    // being checked by a helper.
+    worker.run();
+    synchronized (completedChunks) {
+      boolean interrupted = false;
+      while (completedChunks.get() < chunks) {
+        try {
+          completedChunks.wait();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    final Throwable t = failure.get();
+    if (t instanceof RuntimeException) {
+      throw (RuntimeException) t;
+    } else if (t instanceof Error) {
+      throw (Error) t;
+    } else if (t != null) {
+      throw new RuntimeException(t);
+    }
+    return changed;
+  }
+
+  private static void dispatchChanges(ListUpdateCallback out, boolean[] changed, int start) {
+    for (int i = 0; i < changed.length; i++) {
+      if (changed[i]) {
+        out.onChanged(start + i, 1, null);
+      }
+    }
+  }
+
+  /** A {@link DiffUtil.Callback} over the middle sections of the lists, with a time budget. */
+  private static final class RangeCallback extends DiffUtil.Callback {
+
+    private final DiffUtil.Callback mDelegate;
+    private final int mStart;
+    private final int mOldSize;
+    private final int mNewSize;
+    private final long mDeadline;
+    private int mCallsUntilBudgetCheck = BUDGET_CHECK_INTERVAL;
+
+    RangeCallback(DiffUtil.Callback delegate, int start, int oldSize, int newSize, long deadline) {
+      mDelegate = delegate;
+      mStart = start;
+      mOldSize = oldSize;
+      mNewSize = newSize;
+      mDeadline = deadline;
+    }
+
+    @Override
+    public int getOldListSize() {
+      return mOldSize;
+    }
+
+    @Override
+    public int getNewListSize() {
+      return mNewSize;
+    }
+
+    @Override
+    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+      if (--mCallsUntilBudgetCheck == 0) {
+        mCallsUntilBudgetCheck = BUDGET_CHECK_INTERVAL;
+        if (System.nanoTime() > mDeadline) {
+          throw new BudgetExceededException();
+        }
+      }
+      return mDelegate.areItemsTheSame(mStart + oldItemPosition, mStart + newItemPosition);
+    }
+
+    @Override
+    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+      return mDelegate.areContentsTheSame(mStart + oldItemPosition, mStart + newItemPosition);
+    }
+  }
+
+  /** Shifts the updates of the middle section by the size of the prefix. */
+  private static final class OffsetListUpdateCallback implements ListUpdateCallback {
+
+    private final ListUpdateCallback mDelegate;
+    private final int mOffset;
+
+    OffsetListUpdateCallback(ListUpdateCallback delegate, int offset) {
+      mDelegate = delegate;
+      mOffset = offset;
+    }
+
+    @Override
+    public void onInserted(int position, int count) {
+      mDelegate.onInserted(mOffset + position, count);
+    }
+
+    @Override
+    public void onRemoved(int position, int count) {
+      mDelegate.onRemoved(mOffset + position, count);
+    }
+
+    @Override
+    public void onMoved(int fromPosition, int toPosition) {
+      mDelegate.onMoved(mOffset + fromPosition, mOffset + toPosition);
+    }
+
+    @Override
+    public void onChanged(int position, int count, @Nullable Object payload) {
+      mDelegate.onChanged(mOffset + position, count, payload);
+    }
+  }
+
+  private static final class BudgetExceededException extends RuntimeException {
+
+    BudgetExceededException() {
+      super("DataDiffSection diff ran over its time budget");
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+      // Only used for control flow, so there is no need to pay for the stack trace.
+      return this;
+    }
+  }
+}
@@ -38,6 +38,7 @@ import com.facebook.litho.sections.SectionContext;
 import com.facebook.litho.sections.annotations.DiffSectionSpec;
 import com.facebook.litho.sections.annotations.OnDiff;
 import com.facebook.litho.sections.annotations.OnVerifyChangeSet;
+import com.facebook.litho.sections.config.SectionsConfiguration;
 import com.facebook.litho.sections.logger.SectionsDebugEventLogger;
 import com.facebook.litho.widget.ComponentRenderInfo;
 import com.facebook.litho.widget.RecyclerBinderUpdateCallback;
@@ -47,6 +48,7 @@ import com.facebook.litho.widget.RenderInfo;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -60,7 +62,9 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * represent the same piece of data.
  *
  * <p>{@link OnCheckIsSameContentEvent} whenever during a diffing it wants to check whether two
- * items that represent the same piece of data have exactly the same content.
+ * items that represent the same piece of data have exactly the same content. With {@link
+ * com.facebook.litho.sections.config.SectionsConfiguration#useFastDataDiff}, this event may be
+ * dispatched concurrently from several threads for large lists.
  *
  * <p>Diffing happens when the new {@code List<? extends T> data} is provided. Changes in {@link
  * com.facebook.litho.annotations.State} alone will not trigger diffing.
@@ -142,19 +146,36 @@ public class DataDiffSectionSpec<T> {
     if (nextData != null && isDetectDuplicatesEnabled(alwaysDetectDuplicates)) {
       detectDuplicates(nextData, callback, changeSet.getSectionName());
     }
-    if (isTracing) {
-      ComponentsSystrace.beginSection("DiffUtil.calculateDiff");
-    }
-    final DiffUtil.DiffResult result =
-        DiffUtil.calculateDiff(callback, isDetectMovesEnabled(detectMoves));
-    if (isTracing) {
-      ComponentsSystrace.endSection();
-    }
-
     updatesCallback =
         new RecyclerBinderUpdateCallback<>(
             previousData, nextData, componentRenderer, operationExecutor);
-    result.dispatchUpdatesTo(updatesCallback);
+
+    if (SectionsConfiguration.useFastDataDiff) {
+      if (isTracing) {
+        ComponentsSystrace.beginSection("DataDiffEngine.calculateDiff");
+      }
+      DataDiffEngine.calculateDiff(
+          callback,
+          previousData,
+          nextData,
+          !callback.hasIsSameItemEventHandler(),
+          isDetectMovesEnabled(detectMoves),
+          TimeUnit.MILLISECONDS.toNanos(SectionsConfiguration.dataDiffTimeBudgetMs),
+          updatesCallback);
+      if (isTracing) {
+        ComponentsSystrace.endSection();
+      }
+    } else {
+      if (isTracing) {
+        ComponentsSystrace.beginSection("DiffUtil.calculateDiff");
+      }
+      final DiffUtil.DiffResult result =
+          DiffUtil.calculateDiff(callback, isDetectMovesEnabled(detectMoves));
+      if (isTracing) {
+        ComponentsSystrace.endSection();
+      }
+      result.dispatchUpdatesTo(updatesCallback);
+    }
 
     updatesCallback.applyChangeset(c);
   }
@@ -421,6 +442,11 @@ public class DataDiffSectionSpec<T> {
       mIsSameItemEventSingletonUsed = new AtomicBoolean(false);
     }
 
+    /** Whether items are compared with onCheckIsSameItem rather than with equals. */
+    boolean hasIsSameItemEventHandler() {
+      return mIsSameItemEventHandler != null;
+    }
+
     @Override
     public int getOldListSize() {
       return mPreviousData == null ? 0 : mPreviousData.size();
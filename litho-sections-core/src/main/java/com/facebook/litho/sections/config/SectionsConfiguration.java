@@ -29,4 +29,29 @@ public class SectionsConfiguration {
   public static boolean useBackgroundChangeSets = false;
 
   public static boolean deepCopySectionChildren = false;
+
+  /**
+   * Whether DataDiffSection trims the common prefix and suffix of its data, and skips or bounds the
+   * diff of the rest, before falling back to DiffUtil.
+   *
+   * <p>When enabled, the content of large trimmed prefixes and suffixes is compared on several
+   * threads, so the OnCheckIsSameContentEvent handlers of DataDiffSections must be thread safe.
+   */
+  public static boolean useFastDataDiff = false;
+
+  /**
+   * With {@link #useFastDataDiff}, the time in milliseconds after which DataDiffSection stops
+   * diffing and replaces the changed items instead. A negative value disables the budget.
+   */
+  public static long dataDiffTimeBudgetMs = 8;
+
+  /**
+   * Whether the changesets of the children of a group section are generated in parallel on the
+   * common ForkJoinPool when at least {@link #parallelChildChangeSetsThreshold} of them need to be
+   * diffed. They are still merged in order into the changeset of their parent.
+   */
+  public static boolean parallelChildChangeSets = false;
+
+  /** See {@link #parallelChildChangeSets}. */
+  public static int parallelChildChangeSetsThreshold = 2;
 }
@@ -35,6 +35,10 @@ import com.facebook.primitive.utils.types.Size
  *   versions. Default is [CanvasLayerType.Auto]
  * @property matrixPoolSize The Matrix pool max size
  * @property pathCacheSize The Path cache max size
+ * @property useDisplayList Whether the drawing commands are recorded once and replayed for as long
+ *   as the model doesn't change, instead of being issued on every draw
+ * @property recordDisplayListInLayout Whether the drawing commands are recorded during layout,
+ *   usually on a background thread, instead of on the first draw
  * @property block The lambda callback to issue drawing commands
  */
 class CanvasComponent(
@@ -42,6 +46,8 @@ class CanvasComponent(
     private val matrixPoolSize: Int = CanvasState.DEFAULT_MATRIX_POOL_SIZE,
     private val pathCacheSize: Int = CanvasState.DEFAULT_PATH_CACHE_SIZE,
     private val style: Style? = null,
+    private val useDisplayList: Boolean = false,
+    private val recordDisplayListInLayout: Boolean = false,
     private val block: CanvasScope.() -> Unit
 ) : PrimitiveComponent() {
 
@@ -53,6 +59,8 @@ class CanvasComponent(
             CanvasPrimitive(
                 id = createPrimitiveId(),
                 layerType = layerType,
+                useDisplayList = useDisplayList,
+                recordDisplayListInLayout = recordDisplayListInLayout,
                 modelProvider = { canvasSize: Size ->
                   CanvasScope().createModel(canvasSize, canvasState, block)
                 }),
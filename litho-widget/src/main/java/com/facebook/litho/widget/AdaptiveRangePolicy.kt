@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.widget
+
+import android.os.SystemClock
+import kotlin.math.abs
+import kotlin.math.max
+import kotlin.math.min
+
+/**
+ * Computes the layout range of a [RecyclerBinder] from the scroll velocity instead of using a
+ * fixed ratio on both sides of the viewport.
+ *
+ * The velocity (in items per second) and the direction are estimated from the first visible
+ * position reported on every viewport change. While the list is idle the range is [rangeRatio]
+ * viewports on both sides. While it scrolls, the range ahead grows to the number of items the
+ * user will reach in the next [lookaheadMs], capped by the number of items that can be laid out in
+ * that time according to the measured per-item layout cost, and the range behind shrinks.
+ */
+class AdaptiveRangePolicy
+@JvmOverloads
+constructor(
+    private val rangeRatio: Float,
+    private val lookaheadMs: Long = DEFAULT_LOOKAHEAD_MS,
+    private val maxLeadingRangeMultiplier: Int = DEFAULT_MAX_LEADING_RANGE_MULTIPLIER,
+    private val clock: () -> Long = { SystemClock.uptimeMillis() },
+) {
+
+  private var lastFirstVisiblePosition: Int = UNSET
+  private var lastUpdateTimeMs: Long = 0
+  private var velocityItemsPerSecond: Float = 0f
+  private var itemLayoutCostNs: Long = 0
+
+  /** Scroll direction: 1 towards the end of the list, -1 towards the start, 0 when idle. */
+  @get:Synchronized
+  val direction: Int
+    get() =
+        when {
+          !isScrolling() -> 0
+          velocityItemsPerSecond > 0 -> 1
+          else -> -1
+        }
+
+  @Synchronized
+  fun onViewportChanged(firstVisiblePosition: Int) {
+    val now = clock()
+    val elapsedMs = now - lastUpdateTimeMs
+    if (lastFirstVisiblePosition == UNSET || elapsedMs > IDLE_TIMEOUT_MS) {
+      velocityItemsPerSecond = 0f
+    } else if (elapsedMs > 0) {
+      val velocity = (firstVisiblePosition - lastFirstVisiblePosition) * 1000f / elapsedMs
+      velocityItemsPerSecond += (velocity - velocityItemsPerSecond) * SMOOTHING_FACTOR
+    }
+    lastFirstVisiblePosition = firstVisiblePosition
+    lastUpdateTimeMs = now
+  }
+
+  /** Records the time it took to lay out one item, which bounds the range ahead while scrolling. */
+  @Synchronized
+  fun onItemLayoutComputed(durationNs: Long) {
+    itemLayoutCostNs =
+        if (itemLayoutCostNs == 0L) {
+          durationNs
+        } else {
+          itemLayoutCostNs + ((durationNs - itemLayoutCostNs) * SMOOTHING_FACTOR).toLong()
+        }
+  }
+
+  /** @return the number of items to lay out ahead of a viewport of [rangeSize] items. */
+  @Synchronized
+  fun getLeadingRange(rangeSize: Int): Int {
+    val base = (rangeSize * rangeRatio).toInt()
+    if (!isScrolling()) {
+      return base
+    }
+    val reachable = (abs(velocityItemsPerSecond) * lookaheadMs / 1000).toInt()
+    val affordable =
+        if (itemLayoutCostNs > 0) {
+          (lookaheadMs * 1_000_000L / itemLayoutCostNs).toInt()
+        } else {
+          Int.MAX_VALUE
+        }
+    return max(base, min(min(reachable, affordable), base * maxLeadingRangeMultiplier))
+  }
+
+  /** @return the number of items to keep laid out behind a viewport of [rangeSize] items. */
+  @Synchronized
+  fun getTrailingRange(rangeSize: Int): Int {
+    val base = (rangeSize * rangeRatio).toInt()
+    if (!isScrolling() || abs(velocityItemsPerSecond) < rangeSize) {
+      return base
+    }
+    // Keep at least one viewport behind so that short reversals don't relayout items.
+    return min(base, max(rangeSize, base / 2))
+  }
+
+  private fun isScrolling(): Boolean =
+      abs(velocityItemsPerSecond) >= MIN_SCROLL_VELOCITY &&
+          clock() - lastUpdateTimeMs <= IDLE_TIMEOUT_MS
+
+  companion object {
+    const val DEFAULT_LOOKAHEAD_MS: Long = 1000
+    const val DEFAULT_MAX_LEADING_RANGE_MULTIPLIER: Int = 4
+
+    private const val UNSET = -1
+    private const val IDLE_TIMEOUT_MS = 500L
+    private const val MIN_SCROLL_VELOCITY = 1f
+    private const val SMOOTHING_FACTOR = 0.5f
+  }
+}
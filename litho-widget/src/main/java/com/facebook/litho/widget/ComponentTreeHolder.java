@@ -29,6 +29,8 @@ import com.facebook.litho.Component;
 import com.facebook.litho.ComponentContext;
 import com.facebook.litho.ComponentTree;
 import com.facebook.litho.ComponentTree.MeasureListener;
+import com.facebook.litho.LayoutThreadPool;
+import com.facebook.litho.LayoutThreadPoolHandler;
 import com.facebook.litho.LithoVisibilityEventsController;
 import com.facebook.litho.LithoVisibilityEventsControllerDelegate;
 import com.facebook.litho.LithoVisibilityEventsListener;
@@ -110,6 +112,9 @@ public class ComponentTreeHolder {
   @GuardedBy("this")
   private int mLastRequestedHeightSpec = UNINITIALIZED;
 
+  @GuardedBy("this")
+  private long mLastLayoutDurationNs;
+
   public static Builder create(ComponentsConfiguration configuration) {
     return new Builder(configuration);
   }
@@ -232,11 +237,14 @@ public class ComponentTreeHolder {
               : null;
     }
 
+    final long startTimeNs = System.nanoTime();
     componentTree.setRootAndSizeSpecSync(component, widthSpec, heightSpec, size, treePropContainer);
+    final long durationNs = System.nanoTime() - startTimeNs;
 
     synchronized (this) {
       if (componentTree == mComponentTree && component == mRenderInfo.getComponent()) {
         mIsTreeValid = true;
+        mLastLayoutDurationNs = durationNs;
         if (size != null) {
           mLastMeasuredHeight = size.height;
         }
@@ -287,6 +295,7 @@ public class ComponentTreeHolder {
     synchronized (this) {
       if (mComponentTree == componentTree && component == mRenderInfo.getComponent()) {
         mIsTreeValid = true;
+        mLastLayoutDurationNs = 0;
       }
     }
   }
@@ -321,6 +330,14 @@ public class ComponentTreeHolder {
     return mComponentTree;
   }
 
+  /**
+   * @return how long the last layout computed synchronously through this holder took, or 0 if the
+   *     current layout was computed asynchronously or there is none.
+   */
+  synchronized long getLastLayoutDurationNs() {
+    return mLastLayoutDurationNs;
+  }
+
   @VisibleForTesting
   @Nullable
   TreeState getTreeState() {
@@ -339,6 +356,17 @@ public class ComponentTreeHolder {
     }
   }
 
+  /**
+   * Lets a {@link LayoutThreadPoolHandler} layout handler prioritize the layouts of this item by
+   * how far it is from the viewport, in a list which shows {@code viewportSize} items at a time.
+   */
+  synchronized void updateViewportDistance(int distance, int viewportSize) {
+    if (mLayoutHandler instanceof LayoutThreadPoolHandler) {
+      ((LayoutThreadPoolHandler) mLayoutHandler)
+          .setPriority(LayoutThreadPool.priorityForViewportDistance(distance, viewportSize));
+    }
+  }
+
   synchronized int getMeasuredHeight() {
     return mLastMeasuredHeight;
   }
@@ -481,6 +509,7 @@ public class ComponentTreeHolder {
     }
 
     mIsTreeValid = false;
+    mLastLayoutDurationNs = 0;
   }
 
   boolean shouldPreventRelease() {
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.widget
+
+import androidx.annotation.GuardedBy
+
+/**
+ * Keeps the layouts of [ComponentTreeHolder]s which scrolled out of the layout range of a
+ * [RecyclerBinder] instead of releasing them right away, so that items the user scrolls back to
+ * can be shown without computing their layout again.
+ *
+ * Retained holders are kept in LRU order within [maxSizeBytes], using a rough estimate of the
+ * memory retained by their layout. Holders whose last layout is known to be cheaper than
+ * [minLayoutCostNs] are not worth the memory and are released immediately, as are holders which
+ * don't fit in the budget on their own.
+ *
+ * This class is thread safe.
+ */
+class ComponentTreeRetentionManager
+@JvmOverloads
+constructor(
+    val maxSizeBytes: Int,
+    private val minLayoutCostNs: Long = DEFAULT_MIN_LAYOUT_COST_NS,
+    private val sizeOf: (ComponentTreeHolder) -> Int = ::estimateSizeBytes,
+    private val layoutCostOf: (ComponentTreeHolder) -> Long = { it.lastLayoutDurationNs },
+    private val isReleased: (ComponentTreeHolder) -> Boolean = { it.componentTree == null },
+) {
+
+  @GuardedBy("this") private val retained: LinkedHashMap<ComponentTreeHolder, Int> = LinkedHashMap()
+
+  /** The approximate byte cost of all the retained layouts. */
+  @get:Synchronized
+  var sizeBytes: Int = 0
+    private set
+
+  /**
+   * Retains the layout of [holder], which just moved out of the layout range.
+   *
+   * @return the holders whose trees should be released now: [holder] itself if it isn't worth
+   *   retaining, and the least recently retained holders evicted to make room for it. Retaining a
+   *   holder which is already retained doesn't change its position in the LRU order.
+   */
+  @Synchronized
+  fun retain(holder: ComponentTreeHolder): List<ComponentTreeHolder> {
+    if (retained.containsKey(holder)) {
+      return emptyList()
+    }
+
+    val layoutCostNs = layoutCostOf(holder)
+    val size = sizeOf(holder)
+    if ((layoutCostNs in 1 until minLayoutCostNs) || size > maxSizeBytes) {
+      return listOf(holder)
+    }
+
+    if (sizeBytes + size > maxSizeBytes) {
+      pruneReleasedHolders()
+    }
+
+    var evicted: MutableList<ComponentTreeHolder>? = null
+    val iterator = retained.entries.iterator()
+    while (sizeBytes + size > maxSizeBytes && iterator.hasNext()) {
+      val eldest = iterator.next()
+      iterator.remove()
+      sizeBytes -= eldest.value
+      if (evicted == null) {
+        evicted = ArrayList()
+      }
+      evicted.add(eldest.key)
+    }
+
+    retained[holder] = size
+    sizeBytes += size
+    return evicted ?: emptyList()
+  }
+
+  /**
+   * Stops retaining [holder] because it moved back into the layout range, or because its tree was
+   * released or replaced by other means.
+   *
+   * @return whether [holder] was retained.
+   */
+  @Synchronized
+  fun revive(holder: ComponentTreeHolder): Boolean {
+    val size = retained.remove(holder) ?: return false
+    sizeBytes -= size
+    return true
+  }
+
+  @Synchronized
+  fun isRetained(holder: ComponentTreeHolder): Boolean = retained.containsKey(holder)
+
+  /** Stops retaining all the holders, without releasing them. */
+  @Synchronized
+  fun clear() {
+    retained.clear()
+    sizeBytes = 0
+  }
+
+  /** Drops the holders whose tree was already released, e.g. because their item was removed. */
+  @GuardedBy("this")
+  private fun pruneReleasedHolders() {
+    val iterator = retained.entries.iterator()
+    while (iterator.hasNext()) {
+      val entry = iterator.next()
+      if (isReleased(entry.key)) {
+        iterator.remove()
+        sizeBytes -= entry.value
+      }
+    }
+  }
+
+  companion object {
+    const val DEFAULT_MIN_LAYOUT_COST_NS: Long = 500_000
+
+    private const val HOLDER_OVERHEAD_BYTES: Int = 512
+    private const val MOUNTABLE_OUTPUT_BYTES: Int = 256
+
+    /**
+     * A rough estimate of the memory retained by the layout of a [ComponentTreeHolder]: a constant
+     * per holder plus a constant per mountable output of its committed layout.
+     */
+    @JvmStatic
+    fun estimateSizeBytes(holder: ComponentTreeHolder): Int {
+      val mountableOutputCount = holder.componentTree?.committedMountableOutputCount ?: 0
+      return HOLDER_OVERHEAD_BYTES + mountableOutputCount * MOUNTABLE_OUTPUT_BYTES
+    }
+  }
+}
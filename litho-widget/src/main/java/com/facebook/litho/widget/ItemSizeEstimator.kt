@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.widget
+
+import com.facebook.litho.Size
+
+/**
+ * Estimates the size of the items of a [RecyclerBinder] which don't have a layout yet. If one is
+ * set in the [RecyclerBinderConfig], the binder binds a placeholder of the estimated size for these
+ * items instead of computing their layout synchronously on the main thread, and swaps in the real
+ * layout once it was computed in the background.
+ */
+interface ItemSizeEstimator {
+
+  /**
+   * @return the estimated size of the item described by [renderInfo] for the given size specs, or
+   *   `null` if it can't be estimated, in which case the layout is computed synchronously.
+   */
+  fun estimateSize(renderInfo: RenderInfo, widthSpec: Int, heightSpec: Int): Size?
+
+  /** Called with the size of items once their layout was computed. */
+  fun onItemMeasured(renderInfo: RenderInfo, width: Int, height: Int)
+
+  companion object {
+
+    /** An [ItemSizeEstimator] which returns the last measured size of items of the same type. */
+    @JvmStatic fun lastKnownSizeByType(): ItemSizeEstimator = LastKnownSizeEstimator()
+
+    /** An [ItemSizeEstimator] which returns the average size of items of the same type. */
+    @JvmStatic fun averageSizeByType(): ItemSizeEstimator = AverageSizeEstimator()
+
+    /**
+     * The type of an item: the class of its component, or the view type for items rendering
+     * views.
+     */
+    @JvmStatic
+    fun getItemType(renderInfo: RenderInfo): Any =
+        if (renderInfo.rendersComponent()) {
+          renderInfo.component.javaClass
+        } else {
+          renderInfo.viewType
+        }
+  }
+}
+
+private class LastKnownSizeEstimator : ItemSizeEstimator {
+
+  private val sizes: MutableMap<Any, Size> = HashMap()
+
+  @Synchronized
+  override fun estimateSize(renderInfo: RenderInfo, widthSpec: Int, heightSpec: Int): Size? =
+      sizes[ItemSizeEstimator.getItemType(renderInfo)]?.let { Size(it.width, it.height) }
+
+  @Synchronized
+  override fun onItemMeasured(renderInfo: RenderInfo, width: Int, height: Int) {
+    sizes[ItemSizeEstimator.getItemType(renderInfo)] = Size(width, height)
+  }
+}
+
+private class AverageSizeEstimator : ItemSizeEstimator {
+
+  private class Average {
+    var count: Int = 0
+    var width: Long = 0
+    var height: Long = 0
+  }
+
+  private val averages: MutableMap<Any, Average> = HashMap()
+
+  @Synchronized
+  override fun estimateSize(renderInfo: RenderInfo, widthSpec: Int, heightSpec: Int): Size? {
+    val average = averages[ItemSizeEstimator.getItemType(renderInfo)] ?: return null
+    return Size((average.width / average.count).toInt(), (average.height / average.count).toInt())
+  }
+
+  @Synchronized
+  override fun onItemMeasured(renderInfo: RenderInfo, width: Int, height: Int) {
+    val average = averages.getOrPut(ItemSizeEstimator.getItemType(renderInfo)) { Average() }
+    average.count++
+    average.width += width
+    average.height += height
+  }
+}
@@ -135,6 +135,10 @@ public class RecyclerBinder
   private final ComponentTreeHolderFactory mComponentTreeHolderFactory;
   private final Handler mMainThreadHandler = new Handler(Looper.getMainLooper());
   private final float mRangeRatio;
+  private final @Nullable AdaptiveRangePolicy mAdaptiveRangePolicy;
+  private final @Nullable ItemSizeEstimator mItemSizeEstimator;
+  private final @Nullable ComponentTreeRetentionManager mRetentionManager;
+  private final @Nullable TextLayoutWarmer mTextLayoutWarmer;
   private final AtomicBoolean mIsMeasured = new AtomicBoolean(false);
   private final AtomicBoolean mRequiresRemeasure = new AtomicBoolean(false);
   private final boolean mEnableStableIds;
@@ -630,6 +634,14 @@ public class RecyclerBinder
       return;
     }
 
+    if (mRetentionManager != null) {
+      mRetentionManager.clear();
+    }
+
+    if (mTextLayoutWarmer != null) {
+      mTextLayoutWarmer.cancelAll();
+    }
+
     // Since ComponentTree#release() can only be called on main thread, release the trees
     // immediately if we're on main thread, or post a runnable on main thread.
     if (ThreadUtils.isMainThread()) {
@@ -657,6 +669,16 @@ public class RecyclerBinder
     }
   }
 
+  /** Stops retaining the layouts of holders which were removed from the binder. */
+  private void stopRetaining(List<ComponentTreeHolder> holders) {
+    if (mRetentionManager == null) {
+      return;
+    }
+    for (int i = 0, size = holders.size(); i < size; i++) {
+      mRetentionManager.revive(holders.get(i));
+    }
+  }
+
   private void postReleaseComponentTreeHolders(final List<ComponentTreeHolder> holders) {
     mMainThreadHandler.post(() -> releaseComponentTreeHolders(holders));
   }
@@ -764,6 +786,8 @@ public class RecyclerBinder
             : new InternalAdapter();
 
     mRangeRatio = mRecyclerBinderConfig.rangeRatio;
+    mAdaptiveRangePolicy =
+        mRecyclerBinderConfig.adaptiveRange ? new AdaptiveRangePolicy(mRangeRatio) : null;
     mLayoutInfo = builder.layoutInfo;
     mLayoutHandlerFactory = mRecyclerBinderConfig.layoutHandlerFactory;
     mAsyncInsertHandler = builder.mAsyncInsertLayoutHandler;
@@ -777,6 +801,15 @@ public class RecyclerBinder
         new RenderInfoViewCreatorController(builder.componentViewType);
 
     mIsCircular = mRecyclerBinderConfig.isCircular;
+    mItemSizeEstimator = mIsCircular ? null : mRecyclerBinderConfig.itemSizeEstimator;
+    mRetentionManager =
+        mRecyclerBinderConfig.layoutRetentionBudgetBytes > 0
+            ? new ComponentTreeRetentionManager(mRecyclerBinderConfig.layoutRetentionBudgetBytes)
+            : null;
+    mTextLayoutWarmer =
+        mRecyclerBinderConfig.textWarmingExtractor != null
+            ? new TextLayoutWarmer(mRecyclerBinderConfig.textWarmingExtractor)
+            : null;
     mHasDynamicItemHeight =
         mLayoutInfo.getScrollDirection() == HORIZONTAL
             ? mRecyclerBinderConfig.hasDynamicItemHeight
@@ -1337,6 +1370,7 @@ public class RecyclerBinder
         mComponentTreeHolders.add(createComponentTreeHolder(renderInfo));
       }
     }
+    stopRetaining(toRelease);
     mInternalAdapter.notifyDataSetChanged();
     mViewportManager.setShouldUpdate(true);
 
@@ -1751,6 +1785,9 @@ public class RecyclerBinder
     final boolean isTreeValid = holder.isTreeValid();
 
     if (isTreeValid && !isNewPositionInRange) {
+      if (mRetentionManager != null) {
+        mRetentionManager.revive(holder);
+      }
       holder.acquireStateAndReleaseTree(mAcquireStateHandlerOnRelease);
     }
     mInternalAdapter.notifyItemMoved(fromPosition, toPosition);
@@ -1786,6 +1823,9 @@ public class RecyclerBinder
     mViewportManager.setShouldUpdate(mViewportManager.removeAffectsVisibleRange(position, 1));
 
     if (holder != null) {
+      if (mRetentionManager != null) {
+        mRetentionManager.revive(holder);
+      }
       if (ComponentsConfiguration.disableReleaseComponentTreeInRecyclerBinder) {
         // do nothing
       } else if (ComponentsConfiguration.enableFixForDisappearTransitionInRecyclerBinder) {
@@ -1839,6 +1879,7 @@ public class RecyclerBinder
 
     mViewportManager.setShouldUpdate(mViewportManager.removeAffectsVisibleRange(position, count));
 
+    stopRetaining(toRelease);
     if (ComponentsConfiguration.disableReleaseComponentTreeInRecyclerBinder) {
       // do nothing
     } else if (ComponentsConfiguration.enableFixForDisappearTransitionInRecyclerBinder) {
@@ -2798,7 +2839,11 @@ public class RecyclerBinder
 
     try {
       final Size size = new Size();
+      final long layoutStartTimeNs = System.nanoTime();
       holder.computeLayoutSync(mComponentContext, childWidthSpec, childHeightSpec, size);
+      if (mAdaptiveRangePolicy != null) {
+        mAdaptiveRangePolicy.onItemLayoutComputed(System.nanoTime() - layoutStartTimeNs);
+      }
 
       final int rangeSize =
           Math.max(mLayoutInfo.approximateRangeSize(size.width, size.height, width, height), 1);
@@ -3279,6 +3324,9 @@ public class RecyclerBinder
   void onNewVisibleRange(int firstVisiblePosition, int lastVisiblePosition) {
     mCurrentFirstVisiblePosition = firstVisiblePosition;
     mCurrentLastVisiblePosition = lastVisiblePosition;
+    if (mAdaptiveRangePolicy != null) {
+      mAdaptiveRangePolicy.onViewportChanged(firstVisiblePosition);
+    }
     mViewportManager.resetShouldUpdate();
     maybePostUpdateViewportAndComputeRange();
   }
@@ -3354,7 +3402,17 @@ public class RecyclerBinder
   }
 
   private void computeRange(int firstVisible, int lastVisible) {
-    computeRange(firstVisible, lastVisible, mRangeTraverser);
+    final int direction = mAdaptiveRangePolicy != null ? mAdaptiveRangePolicy.getDirection() : 0;
+    // Lay out the items the user is scrolling towards first.
+    final RecyclerRangeTraverser traverser;
+    if (direction > 0) {
+      traverser = RecyclerRangeTraverser.FORWARD_TRAVERSER;
+    } else if (direction < 0) {
+      traverser = RecyclerRangeTraverser.BACKWARD_TRAVERSER;
+    } else {
+      traverser = mRangeTraverser;
+    }
+    computeRange(firstVisible, lastVisible, traverser);
   }
 
   private void computeRange(int firstVisible, int lastVisible, RecyclerRangeTraverser traverser) {
@@ -3377,6 +3435,12 @@ public class RecyclerBinder
       if (mIsCircular) {
         rangeStart = 0;
         rangeEnd = treeHoldersSize;
+      } else if (mAdaptiveRangePolicy != null) {
+        final int leadingRange = mAdaptiveRangePolicy.getLeadingRange(rangeSize);
+        final int trailingRange = mAdaptiveRangePolicy.getTrailingRange(rangeSize);
+        final boolean isScrollingBackward = mAdaptiveRangePolicy.getDirection() < 0;
+        rangeStart = firstVisible - (isScrollingBackward ? leadingRange : trailingRange);
+        rangeEnd = firstVisible + rangeSize + (isScrollingBackward ? trailingRange : leadingRange);
       } else {
         rangeStart = firstVisible - (int) (rangeSize * mRangeRatio);
         rangeEnd = firstVisible + rangeSize + (int) (rangeSize * mRangeRatio);
@@ -3391,6 +3455,8 @@ public class RecyclerBinder
       }
     }
 
+    final int firstVisibleIndex = firstVisible;
+    final int lastVisibleIndex = lastVisible;
     RecyclerRangeTraverser.Processor processor;
     switch (mRecyclingStrategy) {
       case RecyclingStrategy.RETAIN_MAXIMUM_RANGE:
@@ -3398,8 +3464,14 @@ public class RecyclerBinder
             new RecyclerRangeTraverser.Processor() {
               @Override
               public boolean process(int index) {
+                updateViewportDistance(index, firstVisibleIndex, lastVisibleIndex, rangeSize);
                 return computeRangeLayoutWithRetainMaximumRange(
-                    index, rangeStart, rangeEnd, treeHoldersSize, didRangeExtremitiesChange);
+                    index,
+                    rangeStart,
+                    rangeEnd,
+                    rangeSize,
+                    treeHoldersSize,
+                    didRangeExtremitiesChange);
               }
             };
         break;
@@ -3410,7 +3482,9 @@ public class RecyclerBinder
             new RecyclerRangeTraverser.Processor() {
               @Override
               public boolean process(int index) {
-                return computeRangeLayoutAt(index, rangeStart, rangeEnd, treeHoldersSize);
+                updateViewportDistance(index, firstVisibleIndex, lastVisibleIndex, rangeSize);
+                return computeRangeLayoutAt(
+                    index, rangeStart, rangeEnd, rangeSize, treeHoldersSize);
               }
             };
     }
@@ -3418,11 +3492,36 @@ public class RecyclerBinder
     traverser.traverse(0, treeHoldersSize, firstVisible, lastVisible, processor);
   }
 
+  /**
+   * Updates the distance to the viewport of the item at the given index, so that layouts for items
+   * close to the viewport can be scheduled before the ones for items further away.
+   */
+  private void updateViewportDistance(
+      int index, int firstVisible, int lastVisible, int viewportSize) {
+    final ComponentTreeHolder holder;
+    synchronized (this) {
+      if (index >= mComponentTreeHolders.size()) {
+        return;
+      }
+      holder = mComponentTreeHolders.get(index);
+    }
+
+    final int distance;
+    if (index < firstVisible) {
+      distance = firstVisible - index;
+    } else if (index > lastVisible) {
+      distance = index - lastVisible;
+    } else {
+      distance = 0;
+    }
+    holder.updateViewportDistance(distance, viewportSize);
+  }
+
   /**
    * @return Whether or not to continue layout computation for current range
    */
   private boolean computeRangeLayoutAt(
-      int index, int rangeStart, int rangeEnd, int treeHoldersSize) {
+      int index, int rangeStart, int rangeEnd, int rangeSize, int treeHoldersSize) {
 
     final ComponentTreeHolder holder;
     final int childrenWidthSpec, childrenHeightSpec;
@@ -3445,10 +3544,15 @@ public class RecyclerBinder
     }
 
     if ((index >= rangeStart || holder.getRenderInfo().isSticky()) && index <= rangeEnd) {
+      if (mRetentionManager != null) {
+        mRetentionManager.revive(holder);
+      }
       if (!holder.isTreeValidForSizeSpecs(childrenWidthSpec, childrenHeightSpec)) {
         holder.computeLayoutAsync(mComponentContext, childrenWidthSpec, childrenHeightSpec);
       }
     } else {
+      maybeWarmText(
+          holder, index, rangeStart, rangeEnd, rangeSize, childrenWidthSpec, childrenHeightSpec);
       maybeReleaseOutOfRangeTree(holder);
     }
 
@@ -3459,11 +3563,17 @@ public class RecyclerBinder
    * @return Whether or not to continue layout computation for current range
    */
   private boolean computeRangeLayoutWithRetainMaximumRange(
-      int index, int rangeStart, int rangeEnd, int treeHoldersSize, boolean allowDeletions) {
+      int index,
+      int rangeStart,
+      int rangeEnd,
+      int rangeSize,
+      int treeHoldersSize,
+      boolean allowDeletions) {
 
     final ComponentTreeHolder holder;
     int childrenWidthSpec = 0, childrenHeightSpec = 0;
     final boolean shouldTryComputeLayout;
+    final boolean shouldWarmText;
 
     synchronized (this) {
       // Someone modified the ComponentsTreeHolders while we were computing this range. We
@@ -3481,26 +3591,73 @@ public class RecyclerBinder
       shouldTryComputeLayout =
           (index >= rangeStart || holder.getRenderInfo().isSticky()) && index <= rangeEnd;
 
-      if (shouldTryComputeLayout) {
+      shouldWarmText =
+          !shouldTryComputeLayout
+              && mTextLayoutWarmer != null
+              && isInTextWarmingRange(index, rangeStart, rangeEnd, rangeSize);
+
+      if (shouldTryComputeLayout || shouldWarmText) {
         childrenWidthSpec = getActualChildrenWidthSpec(holder, mMeasuredSize, mLastWidthSpec);
         childrenHeightSpec = getActualChildrenHeightSpec(holder, mMeasuredSize, mLastHeightSpec);
       }
     }
 
     if (shouldTryComputeLayout) {
+      if (mRetentionManager != null) {
+        mRetentionManager.revive(holder);
+      }
       if (!holder.isTreeValidForSizeSpecs(childrenWidthSpec, childrenHeightSpec)) {
         holder.computeLayoutAsync(mComponentContext, childrenWidthSpec, childrenHeightSpec);
       }
-    } else if (allowDeletions && canReleaseTree(holder)) {
-      maybeReleaseOutOfRangeTree(holder);
+    } else {
+      if (shouldWarmText) {
+        maybeWarmText(
+            holder, index, rangeStart, rangeEnd, rangeSize, childrenWidthSpec, childrenHeightSpec);
+      } else if (mTextLayoutWarmer != null) {
+        mTextLayoutWarmer.cancel(holder);
+      }
+      if (allowDeletions && canReleaseTree(holder)) {
+        maybeReleaseOutOfRangeTree(holder);
+      }
     }
 
     return true;
   }
 
+  /**
+   * Warms the text of an item outside of the range if it is among the next items to enter it, so
+   * that its text is measured before its layout starts rather than concurrently with it. Warming
+   * is cancelled for the items further away.
+   */
+  private void maybeWarmText(
+      ComponentTreeHolder holder,
+      int index,
+      int rangeStart,
+      int rangeEnd,
+      int rangeSize,
+      int childrenWidthSpec,
+      int childrenHeightSpec) {
+    if (mTextLayoutWarmer == null) {
+      return;
+    }
+    if (isInTextWarmingRange(index, rangeStart, rangeEnd, rangeSize)
+        && !holder.isTreeValidForSizeSpecs(childrenWidthSpec, childrenHeightSpec)) {
+      mTextLayoutWarmer.warm(mComponentContext, holder, childrenWidthSpec);
+    } else {
+      mTextLayoutWarmer.cancel(holder);
+    }
+  }
+
+  /** Whether the item at index is out of the range, but at most one viewport away from it. */
+  private static boolean isInTextWarmingRange(
+      int index, int rangeStart, int rangeEnd, int rangeSize) {
+    return (index > rangeEnd && index <= rangeEnd + rangeSize)
+        || (index < rangeStart && index >= rangeStart - rangeSize);
+  }
+
   private void maybeReleaseOutOfRangeTree(final ComponentTreeHolder holder) {
     if (ThreadUtils.isMainThread()) {
-      maybeAcquireStateAndReleaseTree(holder, mAcquireStateHandlerOnRelease);
+      maybeRetainOrReleaseTree(holder);
     } else {
       mMainThreadHandler.post(getMaybeAcquireStateAndReleaseTreeRunnable(holder));
     }
@@ -3510,11 +3667,33 @@ public class RecyclerBinder
     return new Runnable() {
       @Override
       public void run() {
-        maybeAcquireStateAndReleaseTree(holder, mAcquireStateHandlerOnRelease);
+        maybeRetainOrReleaseTree(holder);
       }
     };
   }
 
+  /**
+   * Releases the tree of an out of range holder, unless its layout can be retained by the {@link
+   * ComponentTreeRetentionManager}, in which case the least recently retained layouts may be
+   * released instead to stay within the retention budget.
+   */
+  @UiThread
+  private void maybeRetainOrReleaseTree(ComponentTreeHolder holder) {
+    if (mRetentionManager == null) {
+      maybeAcquireStateAndReleaseTree(holder, mAcquireStateHandlerOnRelease);
+      return;
+    }
+
+    if (!canReleaseTree(holder) || holder.getComponentTree().getLithoView() != null) {
+      return;
+    }
+
+    final List<ComponentTreeHolder> toRelease = mRetentionManager.retain(holder);
+    for (int i = 0, size = toRelease.size(); i < size; i++) {
+      maybeAcquireStateAndReleaseTree(toRelease.get(i), mAcquireStateHandlerOnRelease);
+    }
+  }
+
   @UiThread
   private static void maybeAcquireStateAndReleaseTree(
       ComponentTreeHolder holder, boolean acquireStateAndReleaseTree) {
@@ -3942,6 +4121,22 @@ public class RecyclerBinder
             getActualChildrenWidthSpec(componentTreeHolder, mMeasuredSize, mLastWidthSpec);
         final int childrenHeightSpec =
             getActualChildrenHeightSpec(componentTreeHolder, mMeasuredSize, mLastHeightSpec);
+        if (mItemSizeEstimator != null
+            && maybeBindPlaceholder(
+                mItemSizeEstimator,
+                holder,
+                lithoView,
+                componentTreeHolder,
+                childrenWidthSpec,
+                childrenHeightSpec)) {
+          // The item is bound again once its layout is computed. Until then, clear what the view
+          // kept from the item it was bound to before.
+          lithoView.setOnPostDrawListener(null);
+          lithoView.resetMountStartupLoggingInfo();
+          mRecyclerBinderAdapterDelegate.onBindViewHolder(
+              holder, normalizedPosition, null, renderInfo);
+          return;
+        }
         if (!componentTreeHolder.isTreeValidForSizeSpecs(childrenWidthSpec, childrenHeightSpec)) {
           if (ComponentsConfiguration.computeRangeOnSyncLayout) {
             // Since synchronous layout is about to happen, and the ScrollListener that updates the
@@ -3965,6 +4160,9 @@ public class RecyclerBinder
           final Size size = new Size();
           componentTreeHolder.computeLayoutSync(
               mComponentContext, childrenWidthSpec, childrenHeightSpec, size);
+          if (mItemSizeEstimator != null) {
+            mItemSizeEstimator.onItemMeasured(renderInfo, size.width, size.height);
+          }
         }
         final boolean isOrientationVertical = mLayoutInfo.getScrollDirection() == VERTICAL;
 
@@ -4043,6 +4241,86 @@ public class RecyclerBinder
       }
     }
 
+    /**
+     * Binds a placeholder of the size estimated by the {@link ItemSizeEstimator} if the item
+     * doesn't have a layout compatible with the given specs yet, and computes that layout in the
+     * background. The item is bound again once its layout is ready.
+     *
+     * @return whether a placeholder was bound.
+     */
+    @UiThread
+    private boolean maybeBindPlaceholder(
+        final ItemSizeEstimator itemSizeEstimator,
+        RecyclerBinderViewHolder holder,
+        LithoView lithoView,
+        final ComponentTreeHolder componentTreeHolder,
+        int childrenWidthSpec,
+        int childrenHeightSpec) {
+      final ComponentTree componentTree = componentTreeHolder.getComponentTree();
+      if (componentTree != null
+          && componentTree.hasCompatibleLayout(childrenWidthSpec, childrenHeightSpec)) {
+        return false;
+      }
+
+      final RenderInfo renderInfo = componentTreeHolder.getRenderInfo();
+      final Size estimatedSize =
+          itemSizeEstimator.estimateSize(renderInfo, childrenWidthSpec, childrenHeightSpec);
+      if (estimatedSize == null) {
+        return false;
+      }
+
+      final ComponentTree.MeasureListener layoutReadyListener =
+          new ComponentTree.MeasureListener() {
+            @Override
+            public void onSetRootAndSizeSpec(
+                int layoutVersion, int width, int height, boolean stateUpdate) {
+              itemSizeEstimator.onItemMeasured(renderInfo, width, height);
+              componentTreeHolder.clearMeasureListener(this);
+              mMainThreadHandler.post(() -> onPlaceholderLayoutReady(componentTreeHolder));
+            }
+          };
+      if (componentTreeHolder.isTreeValidForSizeSpecs(childrenWidthSpec, childrenHeightSpec)) {
+        // A layout for these specs was already requested, wait for it.
+        componentTreeHolder.addMeasureListener(layoutReadyListener);
+        final ComponentTree pendingComponentTree = componentTreeHolder.getComponentTree();
+        if (pendingComponentTree != null
+            && pendingComponentTree.hasCompatibleLayout(childrenWidthSpec, childrenHeightSpec)) {
+          // The layout was committed before the listener was added.
+          componentTreeHolder.clearMeasureListener(layoutReadyListener);
+          mMainThreadHandler.post(() -> onPlaceholderLayoutReady(componentTreeHolder));
+        }
+      } else {
+        componentTreeHolder.computeLayoutAsync(
+            mComponentContext, childrenWidthSpec, childrenHeightSpec, layoutReadyListener);
+      }
+
+      final int widthSpec =
+          SizeSpec.getMode(childrenWidthSpec) == SizeSpec.EXACTLY
+              ? childrenWidthSpec
+              : SizeSpec.makeSizeSpec(estimatedSize.width, SizeSpec.EXACTLY);
+      final int heightSpec =
+          SizeSpec.getMode(childrenHeightSpec) == SizeSpec.EXACTLY
+              ? childrenHeightSpec
+              : SizeSpec.makeSizeSpec(estimatedSize.height, SizeSpec.EXACTLY);
+      holder.setLithoViewLayoutParams(
+          lithoView,
+          SizeSpec.getSize(widthSpec),
+          SizeSpec.getSize(heightSpec),
+          widthSpec,
+          heightSpec,
+          renderInfo.isFullSpan());
+      lithoView.setComponentTree(null);
+      return true;
+    }
+
+    @UiThread
+    private void onPlaceholderLayoutReady(ComponentTreeHolder componentTreeHolder) {
+      final int position = mComponentTreeHolders.indexOf(componentTreeHolder);
+      if (position >= 0) {
+        notifyItemChanged(position);
+      }
+    }
+
     private @Nullable String getClassNameForDebug(Class c) {
       Class<?> enclosingClass = c.getEnclosingClass();
       if (enclosingClass == null) {
@@ -149,6 +149,32 @@ data class RecyclerBinderConfig(
      * supposed to be used in full screen size surfaces like Reels.
      */
     @JvmField val paginationStrategy: Int = RecyclerBinder.PaginationStrategy.DEFAULT,
+    /**
+     * Experimental. If true, the layout range adapts to the scroll velocity: it grows ahead of the
+     * scroll direction and shrinks behind it, and falls back to [rangeRatio] on both sides while
+     * the list is idle. See [AdaptiveRangePolicy].
+     */
+    @JvmField val adaptiveRange: Boolean = false,
+    /**
+     * Experimental. If set, items which don't have a layout yet when they are bound are bound as a
+     * placeholder of the size estimated by this [ItemSizeEstimator] while their layout is computed
+     * in the background, instead of computing it synchronously on the main thread. Not supported
+     * for circular lists.
+     */
+    @JvmField val itemSizeEstimator: ItemSizeEstimator? = null,
+    /**
+     * Experimental. If positive, the layouts of items which move out of the layout range are kept
+     * in an LRU within this approximate number of bytes instead of being released right away, so
+     * that items the user scrolls back to don't need a new layout. See
+     * [ComponentTreeRetentionManager].
+     */
+    @JvmField val layoutRetentionBudgetBytes: Int = 0,
+    /**
+     * Experimental. If set, the text components returned by this extractor for the items entering
+     * the layout range are measured in the background ahead of the layout of the items, to fill the
+     * shared text layout cache. See [TextLayoutWarmer].
+     */
+    @JvmField val textWarmingExtractor: TextLayoutWarmer.TextExtractor? = null,
 ) {
 
   init {
@@ -206,6 +232,10 @@ class RecyclerBinderConfigBuilder internal constructor(configuration: RecyclerBi
   private var enableStableIds = configuration.enableStableIds
   private var wrapContent = configuration.wrapContent
   private var paginationStrategy = configuration.paginationStrategy
+  private var adaptiveRange = configuration.adaptiveRange
+  private var itemSizeEstimator = configuration.itemSizeEstimator
+  private var layoutRetentionBudgetBytes = configuration.layoutRetentionBudgetBytes
+  private var textWarmingExtractor = configuration.textWarmingExtractor
 
   fun isCircular(isCircular: Boolean): RecyclerBinderConfigBuilder = also {
     this.isCircular = isCircular
@@ -267,6 +297,23 @@ class RecyclerBinderConfigBuilder internal constructor(configuration: RecyclerBi
     this.paginationStrategy = strategy
   }
 
+  fun adaptiveRange(adaptiveRange: Boolean): RecyclerBinderConfigBuilder = also {
+    this.adaptiveRange = adaptiveRange
+  }
+
+  fun itemSizeEstimator(itemSizeEstimator: ItemSizeEstimator?): RecyclerBinderConfigBuilder =
+      also {
+        this.itemSizeEstimator = itemSizeEstimator
+      }
+
+  fun layoutRetentionBudgetBytes(budgetBytes: Int): RecyclerBinderConfigBuilder = also {
+    this.layoutRetentionBudgetBytes = budgetBytes
+  }
+
+  fun textWarmingExtractor(
+      extractor: TextLayoutWarmer.TextExtractor?
+  ): RecyclerBinderConfigBuilder = also { this.textWarmingExtractor = extractor }
+
   fun build(): RecyclerBinderConfig {
     return RecyclerBinderConfig(
         componentsConfiguration = componentsConfiguration,
@@ -284,6 +331,10 @@ class RecyclerBinderConfigBuilder internal constructor(configuration: RecyclerBi
         enableStableIds = enableStableIds,
         wrapContent = wrapContent,
         paginationStrategy = paginationStrategy,
+        adaptiveRange = adaptiveRange,
+        itemSizeEstimator = itemSizeEstimator,
+        layoutRetentionBudgetBytes = layoutRetentionBudgetBytes,
+        textWarmingExtractor = textWarmingExtractor,
     )
   }
 }
@@ -47,6 +47,7 @@ import androidx.annotation.VisibleForTesting;
 import com.facebook.fbui.textlayoutbuilder.util.LayoutMeasureUtil;
 import com.facebook.litho.TextContent;
 import com.facebook.litho.Touchable;
+import com.facebook.rendercore.FontMetricsCache;
 import java.util.Collections;
 import java.util.List;
 import javax.annotation.Nullable;
@@ -807,7 +808,8 @@ public class TextDrawable extends Drawable implements Touchable, TextContent, Dr
       Typeface typeface = layout.getPaint().getTypeface();
       int color = getColor();
       float fontLineHeight =
-          (layout.getPaint().getFontMetricsInt(null) * layout.getSpacingMultiplier())
+          (FontMetricsCache.getSharedInstance().get(layout.getPaint()).getLineSpacing()
+                  * layout.getSpacingMultiplier())
               + layout.getSpacingAdd();
       int linesCount = layout.getLineCount();
 
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.widget
+
+import androidx.annotation.GuardedBy
+import com.facebook.litho.Component
+import com.facebook.litho.ComponentContext
+import com.facebook.litho.ComponentTree
+import com.facebook.litho.LayoutThreadPool
+import com.facebook.litho.Size
+import com.facebook.litho.SizeSpec
+import com.facebook.rendercore.RenderCoreConfig
+import com.facebook.rendercore.TextLayoutCache
+import java.util.concurrent.Executor
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Lays out the text of the items about to enter the layout range of a [RecyclerBinder] on
+ * background threads, ahead of the layout of the items themselves.
+ *
+ * The [TextExtractor] returns the text components of an item (e.g. the [Text]s it renders, with
+ * the width spec they will be measured with). They are measured in batches of [batchSize] on the
+ * [executor], which fills the [TextLayoutCache], so that the text measurement of the item's layout
+ * becomes a cache hit. By default, the batches run on the default [LayoutThreadPool] after the
+ * layouts of the items in the range. This only has an effect when
+ * [RenderCoreConfig.useSharedTextLayoutCache] is enabled. Warming an item is cancelled when it
+ * moves away from the range before it finishes.
+ *
+ * This class is thread safe.
+ */
+class TextLayoutWarmer
+@JvmOverloads
+constructor(
+    private val extractor: TextExtractor,
+    private val batchSize: Int = DEFAULT_BATCH_SIZE,
+    private val executor: Executor = DEFAULT_EXECUTOR,
+) {
+
+  /** Returns the text components of an item which can be measured ahead of its layout. */
+  fun interface TextExtractor {
+
+    /**
+     * @return the text components rendered by the item of [renderInfo], laid out with
+     *   [childrenWidthSpec].
+     */
+    fun extract(renderInfo: ComponentRenderInfo, childrenWidthSpec: Int): List<WarmableText>
+  }
+
+  /** A text [component] and the width spec it will be measured with. */
+  class WarmableText(val component: Component, val widthSpec: Int)
+
+  private class Task {
+    @Volatile var isCancelled: Boolean = false
+    val remainingBatches: AtomicInteger = AtomicInteger()
+  }
+
+  @GuardedBy("this") private val tasks: HashMap<ComponentTreeHolder, Task> = HashMap()
+
+  @GuardedBy("this") private var warmingContext: ComponentContext? = null
+
+  /**
+   * Starts warming the text of [holder], which is about to enter the layout range, unless it is
+   * already being warmed.
+   */
+  fun warm(c: ComponentContext, holder: ComponentTreeHolder, childrenWidthSpec: Int) {
+    if (!RenderCoreConfig.useSharedTextLayoutCache) {
+      return
+    }
+    val renderInfo = holder.renderInfo as? ComponentRenderInfo ?: return
+
+    val task = Task()
+    val context: ComponentContext
+    synchronized(this) {
+      if (tasks.containsKey(holder)) {
+        return
+      }
+      tasks[holder] = task
+      context = warmingContext ?: createWarmingContext(c).also { warmingContext = it }
+    }
+
+    val texts = extractor.extract(renderInfo, childrenWidthSpec)
+    val batches = texts.chunked(batchSize)
+    if (batches.isEmpty()) {
+      finish(holder, task)
+      return
+    }
+
+    task.remainingBatches.set(batches.size)
+    for (batch in batches) {
+      executor.execute {
+        try {
+          for (text in batch) {
+            if (task.isCancelled) {
+              break
+            }
+            text.component.measureMightNotCacheInternalNode(
+                context, text.widthSpec, SizeSpec.makeSizeSpec(0, SizeSpec.UNSPECIFIED), Size())
+          }
+        } finally {
+          if (task.remainingBatches.decrementAndGet() == 0) {
+            finish(holder, task)
+          }
+        }
+      }
+    }
+  }
+
+  /** Cancels the batches of [holder] which didn't start yet, e.g. when it leaves the range. */
+  fun cancel(holder: ComponentTreeHolder) {
+    synchronized(this) { tasks.remove(holder) }?.isCancelled = true
+  }
+
+  /** Cancels all the pending batches. */
+  fun cancelAll() {
+    val cancelled: List<Task>
+    synchronized(this) {
+      cancelled = ArrayList(tasks.values)
+      tasks.clear()
+    }
+    for (task in cancelled) {
+      task.isCancelled = true
+    }
+  }
+
+  /** Whether the text of [holder] is being warmed. */
+  @Synchronized fun isWarming(holder: ComponentTreeHolder): Boolean = tasks.containsKey(holder)
+
+  @Synchronized
+  private fun finish(holder: ComponentTreeHolder, task: Task) {
+    tasks.remove(holder, task)
+  }
+
+  companion object {
+    const val DEFAULT_BATCH_SIZE: Int = 4
+
+    private val DEFAULT_EXECUTOR: Executor = Executor { task ->
+      LayoutThreadPool.default.execute(task, LayoutThreadPool.PRIORITY_FAR)
+    }
+
+    /**
+     * Text is measured with a context of its own tree, so that measuring outside of a layout
+     * calculation doesn't create a new tree every time.
+     */
+    private fun createWarmingContext(c: ComponentContext): ComponentContext =
+        ComponentTree.create(c).build().context
+  }
+}
@@ -45,7 +45,6 @@ import android.text.Layout;
 import android.text.Layout.Alignment;
 import android.text.SpannableStringBuilder;
 import android.text.Spanned;
-import android.text.TextPaint;
 import android.text.TextUtils;
 import android.text.TextUtils.TruncateAt;
 import android.text.style.ClickableSpan;
@@ -89,6 +88,9 @@ import com.facebook.litho.annotations.OnVirtualViewKeyboardFocusChanged;
 import com.facebook.litho.annotations.Prop;
 import com.facebook.litho.annotations.PropDefault;
 import com.facebook.litho.annotations.ResType;
+import com.facebook.rendercore.FontMetricsCache;
+import com.facebook.rendercore.RenderCoreConfig;
+import com.facebook.rendercore.TextLayoutCache;
 import com.facebook.widget.accessibility.delegates.AccessibleClickableSpan;
 import com.facebook.widget.accessibility.delegates.ContentDescriptionSpan;
 import com.facebook.yoga.YogaDirection;
@@ -336,6 +338,7 @@ public class TextSpec {
       @Prop(optional = true) boolean minimallyWide,
       @Prop(optional = true, resType = ResType.DIMEN_SIZE) int minimallyWideThreshold,
       @Prop(optional = true, resType = ResType.DIMEN_TEXT) float lineHeight,
+      @Prop(optional = true, dynamic = true) @Nullable Integer dynamicTextColor,
       Output<Layout> measureLayout,
       Output<Integer> measuredWidth,
       Output<Integer> measuredHeight,
@@ -384,7 +387,8 @@ public class TextSpec {
             hyphenationFrequency,
             justificationMode,
             textDirection,
-            lineHeight);
+            lineHeight,
+            dynamicTextColor == null);
     measureLayout.set(newLayout);
 
     fullWidth.set(Math.max(0, SizeSpec.resolveSize(widthSpec, newLayout.getWidth())));
@@ -394,10 +398,10 @@ public class TextSpec {
     int preferredHeight = LayoutMeasureUtil.getHeight(newLayout);
     final int lineCount = newLayout.getLineCount();
     if (lineCount < minLines) {
-      final TextPaint paint = newLayout.getPaint();
+      final int fontLineHeight =
+          FontMetricsCache.getSharedInstance().get(newLayout.getPaint()).getLineSpacing();
 
-      final int layoutLineHeight =
-          Math.round(paint.getFontMetricsInt(null) * spacingMultiplier + extraSpacing);
+      final int layoutLineHeight = Math.round(fontLineHeight * spacingMultiplier + extraSpacing);
       preferredHeight += layoutLineHeight * (minLines - lineCount);
     }
 
@@ -475,7 +479,8 @@ public class TextSpec {
       int hyphenationFrequency,
       int justificationMode,
       @Nullable TextDirectionHeuristicCompat textDirection,
-      float lineHeight) {
+      float lineHeight,
+      boolean canShareLayout) {
     Layout newLayout;
 
     TextLayoutBuilder layoutBuilder = new TextLayoutBuilder();
@@ -523,12 +528,11 @@ public class TextSpec {
         .setHyphenationFrequency(hyphenationFrequency);
 
     // text size must be set before the line hight
-    if (textSize != UNSET) {
-      layoutBuilder.setTextSize(textSize);
-    } else {
-      int defaultTextSize = context.getResourceResolver().sipsToPixels(DEFAULT_TEXT_SIZE_SP);
-      layoutBuilder.setTextSize(defaultTextSize);
-    }
+    final int resolvedTextSize =
+        textSize != UNSET
+            ? textSize
+            : context.getResourceResolver().sipsToPixels(DEFAULT_TEXT_SIZE_SP);
+    layoutBuilder.setTextSize(resolvedTextSize);
 
     if (lineHeight != Float.MAX_VALUE) {
       layoutBuilder.setLineHeight(lineHeight);
@@ -564,8 +568,53 @@ public class TextSpec {
 
     textDirection = getTextDirection(textDirection, layoutDirection);
     layoutBuilder.setTextDirection(textDirection);
-    layoutBuilder.setAlignment(
-        getLayoutAlignment(textAlignment, textDirection, text, layoutDirection));
+    final Alignment layoutAlignment =
+        getLayoutAlignment(textAlignment, textDirection, text, layoutDirection);
+    layoutBuilder.setAlignment(layoutAlignment);
+
+    // The TextDrawable updates the paint of the layout for color state lists and dynamic colors,
+    // so only layouts with a fixed text color can be shared.
+    @Nullable TextLayoutCache.Key cacheKey = null;
+    if (RenderCoreConfig.useSharedTextLayoutCache
+        && canShareLayout
+        && textColor != 0
+        && TextLayoutCache.isCacheable(text)) {
+      cacheKey =
+          new TextLayoutCache.Key(
+              text,
+              widthSpec,
+              density,
+              actualEllipsize,
+              shouldIncludeFontPadding,
+              maxLines,
+              shadowRadius,
+              shadowDx,
+              shadowDy,
+              shadowColor,
+              isSingleLine,
+              resolvedTextSize,
+              extraSpacing,
+              spacingMultiplier,
+              lineHeight,
+              letterSpacing,
+              linkColor,
+              textColor,
+              justificationMode,
+              breakStrategy,
+              hyphenationFrequency,
+              minEms,
+              maxEms,
+              minTextWidth,
+              maxTextWidth,
+              typeface,
+              textStyle,
+              textDirection,
+              layoutAlignment);
+      final Layout cachedLayout = TextLayoutCache.getSharedInstance().get(cacheKey);
+      if (cachedLayout != null) {
+        return cachedLayout;
+      }
+    }
 
     try {
       newLayout = layoutBuilder.build();
@@ -573,6 +622,10 @@ public class TextSpec {
       throw new RuntimeException("text: " + text.toString(), e);
     }
 
+    if (cacheKey != null) {
+      TextLayoutCache.getSharedInstance().put(cacheKey, newLayout);
+    }
+
     if (glyphWarming) {
       // TODO(T34488162): we also don't want this to happen when we are using DL (legacy?)
       TextureWarmer.getInstance().warmLayout(newLayout);
@@ -617,6 +670,7 @@ public class TextSpec {
       @Nullable @Prop(optional = true, resType = ResType.STRING) CharSequence customEllipsisText,
       @Prop(optional = true, resType = ResType.DIMEN_TEXT) float lineHeight,
       @Prop(optional = true) boolean minimallyWide,
+      @Prop(optional = true, dynamic = true) @Nullable Integer dynamicTextColor,
       @FromMeasure Layout measureLayout,
       @FromMeasure Integer measuredWidth,
       @FromMeasure Integer measuredHeight,
@@ -685,7 +739,8 @@ public class TextSpec {
               hyphenationFrequency,
               justificationMode,
               textDirection,
-              lineHeight));
+              lineHeight,
+              dynamicTextColor == null));
     }
 
     final float textHeight = LayoutMeasureUtil.getHeight(textLayout.get());
@@ -742,7 +797,8 @@ public class TextSpec {
                 hyphenationFrequency,
                 justificationMode,
                 textDirection,
-                lineHeight);
+                lineHeight,
+                dynamicTextColor == null);
 
         YogaDirection layoutDirection = layout.getResolvedLayoutDirection();
         TextDirectionHeuristicCompat finalTextDirection =
@@ -795,7 +851,8 @@ public class TextSpec {
                 hyphenationFrequency,
                 justificationMode,
                 textDirection,
-                lineHeight);
+                lineHeight,
+                dynamicTextColor == null);
 
         processedText.set(truncated);
         textLayout.set(newLayout);